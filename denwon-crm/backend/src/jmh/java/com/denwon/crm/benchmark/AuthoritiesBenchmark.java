@@ -0,0 +1,80 @@
+package com.denwon.crm.benchmark;
+
+import com.denwon.crm.module.system.entity.User;
+import com.denwon.crm.security.AuthenticatedPrincipal;
+import com.denwon.crm.security.PermissionRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 权限展开基准
+ * 对比User.getAuthorities()逐次展开与预编译位图快照
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthoritiesBenchmark {
+
+    @Param({"1", "3", "8"})
+    private int roleCount;
+
+    private User user;
+
+    private PermissionRegistry permissionRegistry;
+
+    private AuthenticatedPrincipal principal;
+
+    private int probeId;
+
+    @Setup
+    public void setup() {
+        user = BenchmarkFixtures.user(roleCount);
+        permissionRegistry = new PermissionRegistry();
+        principal = AuthenticatedPrincipal.of(user, permissionRegistry);
+        probeId = permissionRegistry.idOf("order.export");
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> userGetAuthorities() {
+        return user.getAuthorities();
+    }
+
+    @Benchmark
+    public AuthenticatedPrincipal principalSnapshot() {
+        return AuthenticatedPrincipal.of(user, permissionRegistry);
+    }
+
+    @Benchmark
+    public boolean userAuthorityLookup() {
+        for (GrantedAuthority authority : user.getAuthorities()) {
+            if ("order.export".equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean principalAuthorityLookup() {
+        return principal.hasAuthority(probeId);
+    }
+}
@@ -0,0 +1,91 @@
+package com.denwon.crm.benchmark;
+
+import com.denwon.crm.module.system.entity.OrgUnit;
+import com.denwon.crm.module.system.entity.Permission;
+import com.denwon.crm.module.system.entity.Role;
+import com.denwon.crm.module.system.entity.User;
+import com.denwon.crm.security.JwtUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 基准测试数据
+ * 规模参照生产环境：每个用户3个角色，每个角色约40个权限
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+final class BenchmarkFixtures {
+
+    static final String JWT_SECRET = "denwon-crm-secret-key-2025-very-long-and-secure";
+
+    private static final String[] MODULES = {
+        "customer", "contact", "lead", "opportunity", "contract", "product", "quote", "order"
+    };
+
+    private static final String[] ACTIONS = {"view", "create", "update", "delete", "export"};
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtUtils jwtUtils(long verifiedCacheSize) {
+        JwtUtils jwtUtils = new JwtUtils(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtils, "refreshExpiration", 604800000L);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheSize", verifiedCacheSize);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    static User user(int roleCount) {
+        OrgUnit orgUnit = new OrgUnit();
+        orgUnit.setId(10L);
+        orgUnit.setCode("SALES-EAST");
+        orgUnit.setName("华东销售部");
+        orgUnit.setType("DEPARTMENT");
+
+        Set<Role> roles = new HashSet<>();
+        long permissionId = 1;
+        for (int r = 0; r < roleCount; r++) {
+            Role role = new Role();
+            role.setId((long) r + 1);
+            role.setCode("ROLE_" + r);
+            role.setName("角色" + r);
+            role.setType("CUSTOM");
+
+            Set<Permission> permissions = new HashSet<>();
+            for (String module : MODULES) {
+                for (String action : ACTIONS) {
+                    Permission permission = new Permission();
+                    permission.setId(permissionId++);
+                    permission.setCode(module + "." + action + (r == 0 ? "" : "." + r % 2));
+                    permission.setName(module + " " + action);
+                    permission.setModule(module);
+                    permission.setAction(action);
+                    permissions.add(permission);
+                }
+            }
+            role.setPermissions(permissions);
+            roles.add(role);
+        }
+
+        User user = new User();
+        user.setId(1001L);
+        user.setUsername("zhangsan");
+        user.setName("张三");
+        user.setEmail("zhangsan@denwon.com");
+        user.setMobile("13800138000");
+        user.setTitle("销售经理");
+        user.setAvatar("https://cdn.denwon.com/avatar/1001.png");
+        user.setOrgUnit(orgUnit);
+        user.setStatus(1);
+        user.setLastLoginAt(LocalDateTime.now());
+        user.setRoles(roles);
+        return user;
+    }
+}
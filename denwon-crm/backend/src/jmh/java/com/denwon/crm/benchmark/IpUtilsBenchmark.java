@@ -0,0 +1,67 @@
+package com.denwon.crm.benchmark;
+
+import com.denwon.crm.util.IpUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 客户端IP解析基准
+ * 分别覆盖经过代理链转发、单层代理和直连三种请求
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IpUtilsBenchmark {
+
+    private MockHttpServletRequest forwardedChain;
+
+    private MockHttpServletRequest realIp;
+
+    private MockHttpServletRequest direct;
+
+    @Setup
+    public void setup() {
+        forwardedChain = new MockHttpServletRequest();
+        forwardedChain.addHeader("X-Forwarded-For", "203.0.113.195, 70.41.3.18, 150.172.238.178");
+        forwardedChain.setRemoteAddr("10.0.0.1");
+
+        realIp = new MockHttpServletRequest();
+        realIp.addHeader("X-Real-IP", "203.0.113.195");
+        realIp.setRemoteAddr("10.0.0.1");
+
+        direct = new MockHttpServletRequest();
+        direct.setRemoteAddr("203.0.113.195");
+    }
+
+    @Benchmark
+    public String forwardedChain() {
+        return IpUtils.getIpAddress(forwardedChain);
+    }
+
+    @Benchmark
+    public String realIp() {
+        return IpUtils.getIpAddress(realIp);
+    }
+
+    @Benchmark
+    public String direct() {
+        return IpUtils.getIpAddress(direct);
+    }
+}
@@ -0,0 +1,70 @@
+package com.denwon.crm.benchmark;
+
+import com.denwon.crm.security.JwtUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT签发与校验基准
+ * cached为已验签Token缓存命中（过滤器的常见路径），uncached为每次完整验签
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtils cached;
+
+    private JwtUtils uncached;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        cached = BenchmarkFixtures.jwtUtils(10000);
+        uncached = BenchmarkFixtures.jwtUtils(0);
+        token = cached.generateToken("zhangsan");
+        cached.validateToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken("zhangsan");
+    }
+
+    @Benchmark
+    public boolean validateTokenCached() {
+        return cached.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean validateTokenUncached() {
+        return uncached.validateToken(token);
+    }
+
+    @Benchmark
+    public String extractUsernameCached() {
+        return cached.extractUsername(token);
+    }
+
+    @Benchmark
+    public String extractUsernameUncached() {
+        return uncached.extractUsername(token);
+    }
+}
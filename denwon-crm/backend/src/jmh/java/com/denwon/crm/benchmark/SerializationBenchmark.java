@@ -0,0 +1,135 @@
+package com.denwon.crm.benchmark;
+
+import com.denwon.crm.common.response.ApiResponse;
+import com.denwon.crm.common.response.PageResponse;
+import com.denwon.crm.module.system.dto.LoginResponse;
+import com.denwon.crm.module.system.dto.UserDTO;
+import com.denwon.crm.security.JwtUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 响应序列化基准
+ * 登录响应（含权限列表）和用户分页列表（20/100行）
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+
+    private ApiResponse<LoginResponse> loginResponse;
+
+    private PageResponse<UserDTO> userPage;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        Set<String> permissions = new LinkedHashSet<>();
+        BenchmarkFixtures.user(3).getRoles().forEach(role ->
+            role.getPermissions().forEach(permission -> permissions.add(permission.getCode())));
+        LoginResponse.UserInfo userInfo = LoginResponse.UserInfo.builder()
+            .id(1001L)
+            .username("zhangsan")
+            .name("张三")
+            .email("zhangsan@denwon.com")
+            .mobile("13800138000")
+            .avatar("https://cdn.denwon.com/avatar/1001.png")
+            .title("销售经理")
+            .orgUnit(LoginResponse.OrgUnitInfo.builder().id(10L).code("SALES-EAST").name("华东销售部").type("DEPARTMENT").build())
+            .roles(Set.of("SALES_MANAGER", "SALES", "REPORT_VIEWER"))
+            .permissions(permissions)
+            .build();
+        JwtUtils jwtUtils = BenchmarkFixtures.jwtUtils(0);
+        loginResponse = ApiResponse.success("登录成功", LoginResponse.builder()
+            .accessToken(jwtUtils.generateToken("zhangsan"))
+            .refreshToken(jwtUtils.generateRefreshToken("zhangsan"))
+            .tokenType("Bearer")
+            .expiresIn(86400L)
+            .userInfo(userInfo)
+            .build());
+
+        List<UserDTO> records = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            records.add(userDto(i));
+        }
+        userPage = PageResponse.success(12873L, 1, pageSize, records);
+    }
+
+    @Benchmark
+    public byte[] loginResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(loginResponse);
+    }
+
+    @Benchmark
+    public byte[] userPage() throws Exception {
+        return objectMapper.writeValueAsBytes(userPage);
+    }
+
+    private static UserDTO userDto(int i) {
+        UserDTO.OrgUnitDTO orgUnit = new UserDTO.OrgUnitDTO();
+        orgUnit.setId(10L + i % 5);
+        orgUnit.setCode("SALES-" + i % 5);
+        orgUnit.setName("销售" + (i % 5) + "部");
+        orgUnit.setType("DEPARTMENT");
+
+        Set<UserDTO.RoleDTO> roles = new LinkedHashSet<>();
+        for (int r = 0; r < 2; r++) {
+            UserDTO.RoleDTO role = new UserDTO.RoleDTO();
+            role.setId((long) r + 1);
+            role.setCode("SALES_" + r);
+            role.setName("销售角色" + r);
+            roles.add(role);
+        }
+
+        UserDTO dto = new UserDTO();
+        dto.setId(1000L + i);
+        dto.setUsername("user" + i);
+        dto.setName("用户" + i);
+        dto.setEmail("user" + i + "@denwon.com");
+        dto.setMobile(String.valueOf(13800000000L + i));
+        dto.setEmployeeNo("E" + (10000 + i));
+        dto.setTitle("销售代表");
+        dto.setAvatar("https://cdn.denwon.com/avatar/" + i + ".png");
+        dto.setStatus(1);
+        dto.setOrgUnit(orgUnit);
+        dto.setRoles(roles);
+        dto.setLastLoginAt(LocalDateTime.now());
+        dto.setLastLoginIp("203.0.113." + i % 255);
+        dto.setCreatedAt(LocalDateTime.now().minusDays(i));
+        dto.setUpdatedAt(LocalDateTime.now());
+        return dto;
+    }
+}
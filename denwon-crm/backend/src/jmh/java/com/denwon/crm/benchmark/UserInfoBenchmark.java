@@ -0,0 +1,60 @@
+package com.denwon.crm.benchmark;
+
+import com.denwon.crm.module.system.dto.LoginResponse;
+import com.denwon.crm.module.system.entity.User;
+import com.denwon.crm.module.system.service.impl.AuthServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录/当前用户响应组装基准（AuthServiceImpl.buildUserInfo）
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserInfoBenchmark {
+
+    @Param({"1", "3", "8"})
+    private int roleCount;
+
+    private User user;
+
+    private AuthServiceImpl authService;
+
+    private MethodHandle buildUserInfo;
+
+    @Setup
+    public void setup() throws Exception {
+        user = BenchmarkFixtures.user(roleCount);
+        authService = new AuthServiceImpl(null, null, null, null);
+
+        Method method = AuthServiceImpl.class.getDeclaredMethod("buildUserInfo", User.class);
+        method.setAccessible(true);
+        buildUserInfo = MethodHandles.lookup().unreflect(method);
+    }
+
+    @Benchmark
+    public LoginResponse.UserInfo buildUserInfo() throws Throwable {
+        return (LoginResponse.UserInfo) buildUserInfo.invoke(authService, user);
+    }
+}
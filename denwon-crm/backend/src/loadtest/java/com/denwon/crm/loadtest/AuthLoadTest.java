@@ -0,0 +1,280 @@
+package com.denwon.crm.loadtest;
+
+import com.denwon.crm.CrmApplication;
+import com.denwon.crm.module.system.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 认证接口压测
+ * 启动内嵌PostgreSQL和应用，在V4初始数据之上批量生成用户，按配置并发循环执行
+ * 登录 → 多次获取当前用户 → 刷新Token，输出吞吐量、延迟分位数、连接等待时间和每请求SQL数；
+ * 最后校验100行用户列表查询的p99是否达标，不达标时以非零状态退出
+ *
+ * <pre>
+ * mvn -Ploadtest verify -Dloadtest.concurrency=100 -Dloadtest.virtualThreads=true
+ * </pre>
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public final class AuthLoadTest {
+
+    private static final String PASSWORD = "LoadTest@123";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 50);
+    private final int userCount = Integer.getInteger("loadtest.users", 1000);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmup", 15);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration", 60);
+    private final int currentPerLogin = Integer.getInteger("loadtest.currentPerLogin", 10);
+    private final boolean virtualThreads = Boolean.getBoolean("loadtest.virtualThreads");
+    private final long listP99MaxMillis = Long.getLong("loadtest.listP99Max", 1500);
+    private final long currentP99MaxMillis = Long.getLong("loadtest.currentP99Max", 0);
+
+    private final LatencyRecorder login = new LatencyRecorder("login");
+    private final LatencyRecorder current = new LatencyRecorder("current");
+    private final LatencyRecorder refresh = new LatencyRecorder("refresh");
+    private final LatencyRecorder list = new LatencyRecorder("list100");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private String baseUrl;
+
+    private double listSeconds;
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new AuthLoadTest().run());
+    }
+
+    private int run() throws Exception {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             ConfigurableApplicationContext context = startApplication(postgres)) {
+
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            seedUsers(context);
+
+            System.out.printf("压测配置: concurrency=%d, users=%d, warmup=%ds, duration=%ds, currentPerLogin=%d, virtualThreads=%s%n",
+                concurrency, userCount, warmupSeconds, durationSeconds, currentPerLogin, virtualThreads);
+
+            drive(warmupSeconds);
+            login.reset();
+            current.reset();
+            refresh.reset();
+
+            Statistics statistics = context.getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            TimerSnapshot hikariBefore = TimerSnapshot.of(meterRegistry.find("hikaricp.connections.acquire").timer());
+            TimerSnapshot permitBefore = TimerSnapshot.of(meterRegistry.find("crm.datasource.permit.wait").timer());
+
+            drive(durationSeconds);
+
+            long requests = login.count() + current.count() + refresh.count();
+            long statements = statistics.getPrepareStatementCount();
+            TimerSnapshot hikari = TimerSnapshot.of(meterRegistry.find("hikaricp.connections.acquire").timer()).minus(hikariBefore);
+            TimerSnapshot permit = TimerSnapshot.of(meterRegistry.find("crm.datasource.permit.wait").timer()).minus(permitBefore);
+
+            measureList(context.getBean(UserService.class));
+
+            System.out.println();
+            System.out.println(LatencyRecorder.header());
+            System.out.println(login.format(durationSeconds));
+            System.out.println(current.format(durationSeconds));
+            System.out.println(refresh.format(durationSeconds));
+            System.out.println(list.format(listSeconds));
+            System.out.println();
+            System.out.printf("总吞吐量: %.1f req/s%n", requests / (double) durationSeconds);
+            System.out.printf("Hikari获取连接: %d次, 平均%.3fms, 最大%.3fms%n", hikari.count, hikari.meanMillis(), hikari.maxMillis);
+            if (permit.count > 0) {
+                System.out.printf("连接许可等待: %d次, 平均%.3fms, 最大%.3fms%n", permit.count, permit.meanMillis(), permit.maxMillis);
+            }
+            System.out.printf("Hibernate SQL: %d条, 每请求%.2f条, 实体加载%d, 集合加载%d（不含JdbcTemplate异步写入）%n",
+                statements, requests > 0 ? statements / (double) requests : 0,
+                statistics.getEntityLoadCount(), statistics.getCollectionLoadCount());
+
+            return checkGates();
+        }
+    }
+
+    private ConfigurableApplicationContext startApplication(EmbeddedPostgres postgres) {
+        return new SpringApplicationBuilder(CrmApplication.class)
+            .properties(Map.of(
+                "spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"),
+                "spring.datasource.username", "postgres",
+                "spring.datasource.password", "postgres",
+                "spring.jpa.hibernate.ddl-auto", "none",
+                "spring.jpa.properties.hibernate.generate_statistics", "true",
+                "spring.threads.virtual.enabled", String.valueOf(virtualThreads),
+                "app.datasource.concurrency-limit.enabled", String.valueOf(virtualThreads),
+                "server.port", "0",
+                "logging.level.root", "WARN"))
+            .run();
+    }
+
+    /**
+     * 在V4初始数据基础上批量生成销售用户
+     */
+    private void seedUsers(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        List<Object[]> rows = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            rows.add(new Object[] {
+                "loaduser" + i, hash, "loaduser" + i + "@denwon.com", String.valueOf(15000000000L + i),
+                "压测用户" + i, "LT" + i
+            });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO users (username, password, email, mobile, name, employee_no, org_unit_id, title, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 2, '销售员', 1)", rows);
+        jdbcTemplate.update(
+            "INSERT INTO user_roles (user_id, role_id, assigned_by) " +
+                "SELECT u.id, r.id, 1 FROM users u, roles r WHERE u.username LIKE 'loaduser%' AND r.code = 'SALES'");
+    }
+
+    private void drive(int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    session(deadline);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 单个用户会话：登录 → 获取当前用户 → 刷新Token
+     */
+    private void session(long deadline) {
+        String username = "loaduser" + ThreadLocalRandom.current().nextInt(userCount);
+        JsonNode tokens = call(login, post("/api/auth/login",
+            "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}"));
+        if (tokens == null) {
+            return;
+        }
+
+        String accessToken = tokens.path("accessToken").asText();
+        for (int i = 0; i < currentPerLogin && System.nanoTime() < deadline; i++) {
+            call(current, HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/current"))
+                .header("Authorization", "Bearer " + accessToken)
+                .GET()
+                .build());
+        }
+
+        call(refresh, post("/api/auth/refresh",
+            "{\"refreshToken\":\"" + tokens.path("refreshToken").asText() + "\"}"));
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private JsonNode call(LatencyRecorder recorder, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            long elapsed = System.nanoTime() - start;
+            JsonNode body = response.statusCode() == 200 ? MAPPER.readTree(response.body()) : null;
+            boolean success = body != null && body.path("success").asBoolean(false);
+            recorder.record(elapsed, success);
+            return success ? body.path("data") : null;
+        } catch (Exception ex) {
+            recorder.record(System.nanoTime() - start, false);
+            return null;
+        }
+    }
+
+    /**
+     * 100行用户列表查询（当前没有对应的HTTP接口，直接调用服务层）
+     */
+    private void measureList(UserService userService) {
+        long begin = 0;
+        for (int i = 0; i < 60; i++) {
+            if (i == 10) {
+                begin = System.nanoTime();
+            }
+            long start = System.nanoTime();
+            boolean success = true;
+            try {
+                userService.getUserList(Map.of(), PageRequest.of(i % 5, 100));
+            } catch (RuntimeException ex) {
+                success = false;
+            }
+            if (i >= 10) {
+                list.record(System.nanoTime() - start, success);
+            }
+        }
+        listSeconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+    }
+
+    private int checkGates() {
+        int failures = 0;
+        if (list.percentileMillis(0.99) > listP99MaxMillis || list.errors() > 0) {
+            System.out.printf("未达标: 100行列表p99 %.2fms > %dms%n", list.percentileMillis(0.99), listP99MaxMillis);
+            failures++;
+        }
+        if (currentP99MaxMillis > 0 && current.percentileMillis(0.99) > currentP99MaxMillis) {
+            System.out.printf("未达标: /api/auth/current p99 %.2fms > %dms%n", current.percentileMillis(0.99), currentP99MaxMillis);
+            failures++;
+        }
+        return failures == 0 ? 0 : 1;
+    }
+
+    /**
+     * Timer快照，用于计算压测区间内的增量
+     */
+    private record TimerSnapshot(long count, double totalMillis, double maxMillis) {
+
+        static TimerSnapshot of(Timer timer) {
+            if (timer == null) {
+                return new TimerSnapshot(0, 0, 0);
+            }
+            return new TimerSnapshot(timer.count(), timer.totalTime(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS));
+        }
+
+        TimerSnapshot minus(TimerSnapshot before) {
+            return new TimerSnapshot(count - before.count, totalMillis - before.totalMillis, maxMillis);
+        }
+
+        double meanMillis() {
+            return count > 0 ? totalMillis / count : 0;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.denwon.crm.loadtest;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * 插入压测用行，列与contacts的常用列一致；两个子类只有主键生成方式不同
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+@MappedSuperclass
+public abstract class BenchRow {
+
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(length = 100)
+    private String name;
+
+    @Column(length = 20)
+    private String mobile;
+
+    @Column(length = 100)
+    private String email;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    /**
+     * 改造前：IDENTITY，每行插入后立即回读主键，无法批量
+     */
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    @Entity
+    @Table(name = "bench_identity_rows")
+    public static class Identity extends BenchRow {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+    }
+
+    /**
+     * 改造后：与BaseEntity相同的序列（pooled-lo）
+     */
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    @Entity
+    @Table(name = "bench_pooled_rows")
+    public static class Pooled extends BenchRow {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE)
+        private Long id;
+    }
+}
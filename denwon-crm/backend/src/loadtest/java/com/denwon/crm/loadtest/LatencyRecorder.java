@@ -0,0 +1,73 @@
+package com.denwon.crm.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * 延迟记录器
+ * 保存每次请求耗时（纳秒），结束后排序计算分位数
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+final class LatencyRecorder {
+
+    private final String name;
+
+    private long[] samples = new long[1 << 16];
+
+    private int size;
+
+    private int errors;
+
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    synchronized void record(long nanos, boolean success) {
+        if (!success) {
+            errors++;
+            return;
+        }
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size << 1);
+        }
+        samples[size++] = nanos;
+    }
+
+    synchronized void reset() {
+        size = 0;
+        errors = 0;
+    }
+
+    synchronized int count() {
+        return size;
+    }
+
+    synchronized int errors() {
+        return errors;
+    }
+
+    /**
+     * 分位数（毫秒），q取值0~1
+     */
+    synchronized double percentileMillis(double q) {
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.min(size - 1, Math.ceil(q * size) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    String format(double seconds) {
+        return String.format("%-10s %10d %8d %10.1f %9.2f %9.2f %9.2f",
+            name, count(), errors(), count() / seconds,
+            percentileMillis(0.50), percentileMillis(0.95), percentileMillis(0.99));
+    }
+
+    static String header() {
+        return String.format("%-10s %10s %8s %10s %9s %9s %9s",
+            "endpoint", "requests", "errors", "req/s", "p50(ms)", "p95(ms)", "p99(ms)");
+    }
+}
@@ -22,8 +22,11 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public abstract class BaseEntity {
     
+    /**
+     * 序列“表名_id_seq”，每次取50个号（pooled-lo），插入可批量执行
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
     
     @Column(name = "status", columnDefinition = "integer default 1")
@@ -0,0 +1,26 @@
+package com.denwon.crm.common.entity;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 受数据范围控制的实体
+ * 列表查询按当前用户的数据范围自动过滤：负责人（ownerId）、所属组织（orgUnitId）及下级、协作人，
+ * 由 {@link com.denwon.crm.security.DataScopeFilter} 生成条件
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DataScoped {
+
+    /**
+     * 实体是否有collaborators列（JSONB用户ID数组），协作人可见
+     */
+    boolean collaborators() default false;
+}
@@ -0,0 +1,119 @@
+package com.denwon.crm.common.pagination;
+
+import com.denwon.crm.common.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 分页游标
+ * 记录上一页最后一行的排序字段值和ID，编码为Base64URL的JSON，对前端不透明；
+ * 同时记录排序签名，排序条件变化后旧游标失效。
+ * 游标末尾附带HMAC-SHA256校验码（payload.mac），被篡改或伪造的游标在解析前即被拒绝
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+final class Cursor {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    
+    private static final String HMAC = "HmacSHA256";
+    
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    
+    private final String sortSignature;
+    
+    private final JsonNode values;
+    
+    private final JsonNode id;
+    
+    private Cursor(String sortSignature, JsonNode values, JsonNode id) {
+        this.sortSignature = sortSignature;
+        this.values = values;
+        this.id = id;
+    }
+    
+    static String encode(byte[] key, String sortSignature, List<Object> values, Object id) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("s", sortSignature);
+        ArrayNode array = node.putArray("v");
+        values.forEach(value -> array.add(MAPPER.valueToTree(value)));
+        node.set("i", MAPPER.valueToTree(id));
+        try {
+            String payload = ENCODER.encodeToString(MAPPER.writeValueAsBytes(node));
+            return payload + "." + ENCODER.encodeToString(mac(key, payload));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("分页游标编码失败", ex);
+        }
+    }
+    
+    static Cursor decode(byte[] key, String cursor, String expectedSignature, int valueCount) {
+        int separator = cursor.lastIndexOf('.');
+        if (separator <= 0) {
+            throw new BusinessException("无效的分页游标");
+        }
+        String payload = cursor.substring(0, separator);
+        try {
+            byte[] actual = Base64.getUrlDecoder().decode(cursor.substring(separator + 1));
+            if (!MessageDigest.isEqual(mac(key, payload), actual)) {
+                throw new BusinessException("无效的分页游标");
+            }
+            JsonNode node = MAPPER.readTree(new String(Base64.getUrlDecoder().decode(payload), StandardCharsets.UTF_8));
+            Cursor decoded = new Cursor(node.path("s").asText(), node.path("v"), node.path("i"));
+            if (!expectedSignature.equals(decoded.sortSignature) || decoded.values.size() != valueCount
+                    || decoded.id.isMissingNode() || decoded.id.isNull()) {
+                throw new BusinessException("分页游标与查询条件不匹配");
+            }
+            return decoded;
+        } catch (IllegalArgumentException | JsonProcessingException ex) {
+            throw new BusinessException("无效的分页游标");
+        }
+    }
+    
+    private static byte[] mac(byte[] key, String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(new SecretKeySpec(key, HMAC));
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("分页游标签名失败", ex);
+        }
+    }
+    
+    /**
+     * 按属性类型还原第index个排序值
+     */
+    Object value(int index, Class<?> type) {
+        JsonNode node = values.get(index);
+        return node == null || node.isNull() ? null : convert(node, type);
+    }
+    
+    Object id(Class<?> type) {
+        return convert(id, type);
+    }
+    
+    private static Object convert(JsonNode node, Class<?> type) {
+        JavaType javaType = MAPPER.getTypeFactory().constructType(type);
+        try {
+            return MAPPER.convertValue(node, javaType);
+        } catch (IllegalArgumentException ex) {
+            throw new BusinessException("无效的分页游标");
+        }
+    }
+}
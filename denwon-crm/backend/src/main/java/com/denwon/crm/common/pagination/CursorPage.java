@@ -0,0 +1,34 @@
+package com.denwon.crm.common.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 游标分页结果
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    
+    private List<T> records;
+    
+    private String nextCursor;
+    
+    private Boolean hasMore;
+    
+    /**
+     * 转换记录类型，游标不变
+     */
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(records.stream().map(mapper).collect(Collectors.toList()), nextCursor, hasMore);
+    }
+}
@@ -0,0 +1,27 @@
+package com.denwon.crm.common.pagination;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * 带总数精度标记的分页结果
+ * totalExact为false时总数为估算值（或下限），前端可显示为“约xx条”
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public class EstimatedPage<T> extends PageImpl<T> {
+    
+    private final boolean totalExact;
+    
+    public EstimatedPage(List<T> content, Pageable pageable, long total, boolean totalExact) {
+        super(content, pageable, total);
+        this.totalExact = totalExact;
+    }
+    
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+}
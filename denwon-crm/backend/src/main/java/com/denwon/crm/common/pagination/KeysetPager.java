@@ -0,0 +1,202 @@
+package com.denwon.crm.common.pagination;
+
+import com.denwon.crm.security.DataScopeFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 游标（Keyset）分页
+ * 按排序字段加ID组成的复合键定位下一页，只取size+1行判断是否还有下一页，不执行COUNT。
+ * 各字段方向可以不同且允许空值，因此定位条件展开为OR链而不是行值比较(k1, id) > (v1, lastId)；
+ * 首个排序字段的游标值非空且其后不会再出现空值时，额外加上k1 >= v1（降序为<=）的范围条件，
+ * 使索引可以直接从游标位置开始扫描，深分页耗时与页码无关。
+ * 空值排序与PostgreSQL默认一致：升序NULLS LAST，降序NULLS FIRST。
+ * 游标带HMAC签名，被篡改或伪造的游标会被拒绝。
+ * 小表仍可使用基于Pageable的偏移分页。过滤条件会合并当前用户的数据范围。
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class KeysetPager {
+    
+    private static final int MAX_PAGE_SIZE = 500;
+    
+    private static final String ID = "id";
+    
+    private final DataScopeFilter dataScopeFilter;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${app.pagination.cursor-secret:${app.jwt.secret}}")
+    private String cursorSecret;
+    
+    /**
+     * 查询一页
+     * 
+     * @param spec   过滤条件，可为null
+     * @param sort   排序，只支持实体自身的属性；末尾自动追加ID作为唯一键
+     * @param size   每页行数
+     * @param cursor 上一页返回的nextCursor，首页传null
+     */
+    @Transactional(readOnly = true)
+    public <T> CursorPage<T> find(Class<T> type, Specification<T> spec, Sort sort, int size, String cursor) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        List<Sort.Order> orders = keyOrders(sort);
+        String signature = orders.stream()
+            .map(order -> order.getProperty() + ":" + order.getDirection())
+            .collect(Collectors.joining(","));
+        
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        
+        List<Predicate> predicates = new ArrayList<>();
+        Specification<T> scoped = dataScopeFilter.restrict(type, spec);
+        if (scoped != null) {
+            Predicate predicate = scoped.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor decoded = Cursor.decode(cursorKey(), cursor, signature, orders.size() - 1);
+            predicates.add(seek(cb, root, orders, decoded, entityManager.getMetamodel().entity(type)));
+        }
+        
+        query.select(root)
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(orders.stream().map(order -> toOrder(cb, root, order)).collect(Collectors.toList()));
+        
+        List<T> rows = entityManager.createQuery(query).setMaxResults(limit + 1).getResultList();
+        boolean hasMore = rows.size() > limit;
+        List<T> records = hasMore ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        
+        String nextCursor = hasMore ? nextCursor(records.get(records.size() - 1), orders, signature) : null;
+        return new CursorPage<>(records, nextCursor, hasMore);
+    }
+    
+    /**
+     * 排序字段加ID（ID方向与最后一个排序字段一致）
+     */
+    private static List<Sort.Order> keyOrders(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        Sort.Direction idDirection = Sort.Direction.ASC;
+        if (sort != null) {
+            for (Sort.Order order : sort) {
+                if (ID.equals(order.getProperty())) {
+                    idDirection = order.getDirection();
+                    break;
+                }
+                orders.add(order);
+                idDirection = order.getDirection();
+            }
+        }
+        orders.add(new Sort.Order(idDirection, ID));
+        return orders;
+    }
+    
+    /**
+     * 构造定位谓词：(k1 后于 v1) OR (k1 = v1 AND k2 后于 v2) OR ... OR (k1..kn = v1..vn AND id 后于 lastId)，
+     * 可行时在前面加上首字段的范围条件
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate seek(CriteriaBuilder cb, Root<?> root, List<Sort.Order> orders, Cursor cursor,
+                                  EntityType<?> entity) {
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalPrefix = new ArrayList<>();
+        Predicate leadingBound = null;
+        
+        for (int i = 0; i < orders.size(); i++) {
+            Sort.Order order = orders.get(i);
+            Path<Comparable<Object>> path = root.get(order.getProperty());
+            boolean last = i == orders.size() - 1;
+            Object value = last ? cursor.id(path.getJavaType()) : cursor.value(i, path.getJavaType());
+            boolean nullable = entity.getSingularAttribute(order.getProperty()).isOptional();
+            
+            if (i == 0 && value != null && (!order.isAscending() || !nullable)) {
+                // 降序时空值已排在前面，非空列升序时没有空值，游标之后的行都落在该范围内
+                leadingBound = order.isAscending()
+                    ? cb.greaterThanOrEqualTo((Path) path, (Comparable) value)
+                    : cb.lessThanOrEqualTo((Path) path, (Comparable) value);
+            }
+            
+            Predicate after = after(cb, path, value, order.isAscending(), nullable);
+            if (after != null) {
+                List<Predicate> branch = new ArrayList<>(equalPrefix);
+                branch.add(after);
+                alternatives.add(cb.and(branch.toArray(new Predicate[0])));
+            }
+            
+            if (!last) {
+                equalPrefix.add(value == null ? cb.isNull(path) : cb.equal(path, value));
+            }
+        }
+        
+        if (alternatives.isEmpty()) {
+            return cb.disjunction();
+        }
+        Predicate chain = cb.or(alternatives.toArray(new Predicate[0]));
+        return leadingBound == null ? chain : cb.and(leadingBound, chain);
+    }
+    
+    /**
+     * 排在value之后的条件，不存在时返回null
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(CriteriaBuilder cb, Path<Comparable<Object>> path, Object value, boolean ascending,
+                                   boolean nullable) {
+        if (ascending) {
+            // NULLS LAST：非空值之后是更大的值和空值，空值之后没有更多
+            if (value == null) {
+                return null;
+            }
+            Predicate greater = cb.greaterThan((Path) path, (Comparable) value);
+            return nullable ? cb.or(greater, cb.isNull(path)) : greater;
+        }
+        // NULLS FIRST：空值之后是全部非空值
+        return value == null ? cb.isNotNull(path) : cb.lessThan((Path) path, (Comparable) value);
+    }
+    
+    private static Order toOrder(CriteriaBuilder cb, Root<?> root, Sort.Order order) {
+        Path<?> path = root.get(order.getProperty());
+        return order.isAscending() ? cb.asc(path) : cb.desc(path);
+    }
+    
+    private String nextCursor(Object last, List<Sort.Order> orders, String signature) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(last);
+        List<Object> values = new ArrayList<>(orders.size() - 1);
+        for (int i = 0; i < orders.size() - 1; i++) {
+            values.add(wrapper.getPropertyValue(orders.get(i).getProperty()));
+        }
+        PersistenceUnitUtil util = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        return Cursor.encode(cursorKey(), signature, values, util.getIdentifier(last));
+    }
+    
+    private byte[] cursorKey() {
+        return cursorSecret.getBytes(StandardCharsets.UTF_8);
+    }
+}
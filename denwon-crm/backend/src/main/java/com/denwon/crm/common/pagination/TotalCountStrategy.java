@@ -0,0 +1,287 @@
+package com.denwon.crm.common.pagination;
+
+import com.denwon.crm.security.DataScopeFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分页总数策略
+ * <ul>
+ *   <li>无过滤条件：读取pg_class.reltuples估算，表行数低于阈值时精确计数</li>
+ *   <li>有过滤条件：最多探测阈值+1行，不超过阈值即为精确值；超过时返回缓存的精确值，
+ *       没有缓存则以阈值作为下限返回并在后台计算精确值</li>
+ * </ul>
+ * 精确值按“实体+规范化过滤条件+数据范围”短时缓存。适用于所有实现JpaSpecificationExecutor的实体。
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TotalCountStrategy {
+    
+    private static final String CACHE_NAME = "page.count";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final DataScopeFilter dataScopeFilter;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${app.pagination.exact-count-threshold:10000}")
+    private int exactThreshold;
+    
+    @Value("${app.pagination.count-cache.ttl:60}")
+    private long cacheTtlSeconds;
+    
+    @Value("${app.pagination.count-cache.max-size:10000}")
+    private long cacheMaxSize;
+    
+    private Cache<String, Long> exactCounts;
+    
+    private final Set<String> counting = ConcurrentHashMap.newKeySet();
+    
+    private ThreadPoolExecutor countExecutor;
+    
+    @PostConstruct
+    public void init() {
+        exactCounts = Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, exactCounts, CACHE_NAME);
+        
+        countExecutor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(100),
+            runnable -> {
+                Thread thread = new Thread(runnable, "page-count");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        countExecutor.shutdownNow();
+    }
+    
+    /**
+     * 分页查询，总数按策略计算
+     * 
+     * @param filters 原始过滤参数，用于判断是否有过滤条件和生成缓存键
+     */
+    @Transactional(readOnly = true)
+    public <T> EstimatedPage<T> findPage(Class<T> type, Specification<T> spec, Map<String, Object> filters,
+                                         Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        Specification<T> scoped = dataScopeFilter.restrict(type, spec);
+        Predicate predicate = scoped != null ? scoped.toPredicate(root, query, cb) : null;
+        query.select(root);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        return toPage(typedQuery.getResultList(), type, spec, filters, pageable);
+    }
+    
+    /**
+     * 为已查出的一页内容（实体或DTO投影）补充总数
+     * 
+     * @param type 计数所用的实体类型
+     */
+    @Transactional(readOnly = true)
+    public <T, R> EstimatedPage<R> toPage(List<R> content, Class<T> type, Specification<T> spec,
+                                          Map<String, Object> filters, Pageable pageable) {
+        // 末页或内容不足一页时可直接得到精确总数
+        if (pageable.isPaged() && content.size() < pageable.getPageSize() && (!content.isEmpty() || pageable.getOffset() == 0)) {
+            return new EstimatedPage<>(content, pageable, pageable.getOffset() + content.size(), true);
+        }
+        
+        Count count = count(type, spec, filters);
+        return new EstimatedPage<>(content, pageable, Math.max(count.value, pageable.getOffset() + content.size()), count.exact);
+    }
+    
+    /**
+     * 计算总数
+     */
+    @Transactional(readOnly = true)
+    public <T> Count count(Class<T> type, Specification<T> spec, Map<String, Object> filters) {
+        String scopeKey = dataScopeFilter.scopeKey(type);
+        String key = cacheKey(type, filters) + scopeKey;
+        Long cached = exactCounts.getIfPresent(key);
+        if (cached != null) {
+            return new Count(cached, true);
+        }
+        
+        // 数据范围在调用线程上解析，后台计数沿用同一条件
+        spec = dataScopeFilter.restrict(type, spec);
+        if (!hasFilters(filters) && scopeKey.isEmpty()) {
+            long estimate = reltuples(type);
+            if (estimate >= exactThreshold) {
+                return new Count(estimate, false);
+            }
+            long exact = exactCount(type, spec);
+            exactCounts.put(key, exact);
+            return new Count(exact, true);
+        }
+        
+        long probed = probe(type, spec, exactThreshold + 1);
+        if (probed <= exactThreshold) {
+            exactCounts.put(key, probed);
+            return new Count(probed, true);
+        }
+        
+        countInBackground(key, type, spec);
+        return new Count(probed, false);
+    }
+    
+    private <T> void countInBackground(String key, Class<T> type, Specification<T> spec) {
+        if (!counting.add(key)) {
+            return;
+        }
+        try {
+            countExecutor.execute(() -> {
+                try {
+                    exactCounts.put(key, exactCount(type, spec));
+                } catch (RuntimeException ex) {
+                    log.warn("后台计数失败: {}", key, ex);
+                } finally {
+                    counting.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // 后台计数已饱和，本次只返回下限
+            counting.remove(key);
+        }
+    }
+    
+    private <T> long exactCount(Class<T> type, Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        query.select(cb.count(root));
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+    
+    /**
+     * 最多读取limit行ID，返回实际行数
+     */
+    private <T> long probe(Class<T> type, Specification<T> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        query.select(root.get("id"));
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList().size();
+    }
+    
+    /**
+     * 表的统计行数，表未分析过或无法确定表名时返回-1
+     */
+    private long reltuples(Class<?> type) {
+        Table table = type.getAnnotation(Table.class);
+        if (table == null || table.name().isEmpty()) {
+            return -1;
+        }
+        Long estimate = jdbcTemplate.query(
+            "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)",
+            rs -> rs.next() ? rs.getLong(1) : null,
+            table.name());
+        return estimate != null ? estimate : -1;
+    }
+    
+    private static boolean hasFilters(Map<String, Object> filters) {
+        if (filters == null) {
+            return false;
+        }
+        return filters.values().stream()
+            .anyMatch(value -> value != null && !(value instanceof String && ((String) value).isBlank()));
+    }
+    
+    private static String cacheKey(Class<?> type, Map<String, Object> filters) {
+        TreeMap<String, String> normalized = new TreeMap<>();
+        if (filters != null) {
+            filters.forEach((key, value) -> {
+                if (value != null && !(value instanceof String && ((String) value).isBlank())) {
+                    normalized.put(key, String.valueOf(value).trim());
+                }
+            });
+        }
+        return type.getName() + normalized;
+    }
+    
+    /**
+     * 总数及是否精确
+     */
+    public static final class Count {
+        
+        private final long value;
+        
+        private final boolean exact;
+        
+        private Count(long value, boolean exact) {
+            this.value = value;
+            this.exact = exact;
+        }
+        
+        public long getValue() {
+            return value;
+        }
+        
+        public boolean isExact() {
+            return exact;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.denwon.crm.common.response;
+
+import com.denwon.crm.common.pagination.CursorPage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * 游标分页响应格式
+ * 不返回总数，通过nextCursor获取下一页
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    
+    private Integer code;
+    private Boolean success;
+    private String message;
+    private CursorData<T> data;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CursorData<T> {
+        private Integer pageSize;
+        private String nextCursor;
+        private Boolean hasMore;
+        private List<T> records;
+    }
+    
+    public static <T> CursorPageResponse<T> success(CursorPage<T> page) {
+        return CursorPageResponse.<T>builder()
+                .code(200)
+                .success(true)
+                .message("查询成功")
+                .data(CursorData.<T>builder()
+                        .pageSize(page.getRecords().size())
+                        .nextCursor(page.getNextCursor())
+                        .hasMore(page.getHasMore())
+                        .records(page.getRecords())
+                        .build())
+                .build();
+    }
+}
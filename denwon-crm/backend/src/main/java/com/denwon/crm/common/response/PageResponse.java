@@ -29,6 +29,7 @@ public class PageResponse<T> {
     @AllArgsConstructor
     public static class PageData<T> {
         private Long totalCount;
+        private Boolean totalExact; // false: totalCount为估算值
         private Integer pageIndex;
         private Integer pageCount;
         private List<T> records;
@@ -36,12 +37,18 @@ public class PageResponse<T> {
     
     public static <T> PageResponse<T> success(Long totalCount, Integer pageIndex, 
                                                Integer pageCount, List<T> records) {
+        return success(totalCount, true, pageIndex, pageCount, records);
+    }
+    
+    public static <T> PageResponse<T> success(Long totalCount, Boolean totalExact, Integer pageIndex, 
+                                               Integer pageCount, List<T> records) {
         return PageResponse.<T>builder()
                 .code(200)
                 .success(true)
                 .message("查询成功")
                 .data(PageData.<T>builder()
                         .totalCount(totalCount)
+                        .totalExact(totalExact)
                         .pageIndex(pageIndex)
                         .pageCount(pageCount)
                         .records(records)
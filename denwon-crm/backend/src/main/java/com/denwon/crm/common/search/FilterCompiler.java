@@ -0,0 +1,195 @@
+package com.denwon.crm.common.search;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 列表过滤条件编译器
+ * 把前端传入的过滤参数编译为可走索引的查询条件：精确匹配走B树索引，
+ * 前缀/包含/模糊匹配走pg_trgm GIN索引（见V6__Trigram_Search.sql）。
+ * <p>
+ * 参数名可带运算符后缀，如 {@code name:fuzzy}、{@code mobile:prefix}，不带后缀时使用字段的默认运算符；
+ * 未声明的参数忽略。存在包含/模糊条件且分页未指定排序时按相似度倒序排列。
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public final class FilterCompiler<T> {
+    
+    private static final char ESCAPE = '\\';
+    
+    private final Map<String, Field> fields;
+    
+    private FilterCompiler(Map<String, Field> fields) {
+        this.fields = Collections.unmodifiableMap(fields);
+    }
+    
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+    
+    /**
+     * 编译过滤参数
+     */
+    public Specification<T> compile(Map<String, Object> filters) {
+        if (filters == null || filters.isEmpty()) {
+            return (root, query, cb) -> cb.conjunction();
+        }
+        
+        List<Condition> conditions = new ArrayList<>();
+        filters.forEach((key, value) -> {
+            if (value == null || (value instanceof String && ((String) value).isBlank())) {
+                return;
+            }
+            
+            int separator = key.indexOf(':');
+            Field field = fields.get(separator < 0 ? key : key.substring(0, separator));
+            if (field == null) {
+                return;
+            }
+            
+            SearchOperator operator = separator < 0 ? field.defaultOperator
+                : SearchOperator.parse(key.substring(separator + 1));
+            if (operator == null || (!field.text && operator != SearchOperator.EQ)) {
+                operator = field.defaultOperator;
+            }
+            conditions.add(new Condition(field, operator, value));
+        });
+        
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>(conditions.size());
+            List<Order> similarity = new ArrayList<>();
+            
+            for (Condition condition : conditions) {
+                Path<String> path = path(root, condition.field.path);
+                String text = String.valueOf(condition.value).trim();
+                
+                switch (condition.operator) {
+                    case EQ:
+                        predicates.add(cb.equal(path, condition.field.text ? text : condition.value));
+                        break;
+                    case PREFIX:
+                        predicates.add(cb.like(path, escape(text) + "%", ESCAPE));
+                        break;
+                    case CONTAINS:
+                        predicates.add(cb.like(path, "%" + escape(text) + "%", ESCAPE));
+                        similarity.add(cb.desc(similarity(cb, path, text)));
+                        break;
+                    case FUZZY:
+                        predicates.add(cb.isTrue(cb.function("trgm_match", Boolean.class, path, cb.literal(text))));
+                        similarity.add(cb.desc(similarity(cb, path, text)));
+                        break;
+                    default:
+                        break;
+                }
+            }
+            
+            // 计数查询不排序
+            if (!similarity.isEmpty() && query.getResultType() != Long.class && query.getResultType() != long.class) {
+                query.orderBy(similarity);
+            }
+            
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+    
+    private static Expression<Double> similarity(CriteriaBuilder cb, Path<String> path, String text) {
+        return cb.function("similarity", Double.class, path, cb.literal(text));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <Y> Path<Y> path(Root<?> root, String[] attributes) {
+        Path<?> path = root;
+        for (String attribute : attributes) {
+            path = path.get(attribute);
+        }
+        return (Path<Y>) path;
+    }
+    
+    /**
+     * 转义LIKE通配符，用户输入的 % 和 _ 按字面匹配
+     */
+    private static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                sb.append(ESCAPE);
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+    
+    private static final class Field {
+        
+        private final String[] path;
+        
+        private final SearchOperator defaultOperator;
+        
+        private final boolean text;
+        
+        private Field(String path, SearchOperator defaultOperator, boolean text) {
+            this.path = path.split("\\.");
+            this.defaultOperator = defaultOperator;
+            this.text = text;
+        }
+    }
+    
+    private static final class Condition {
+        
+        private final Field field;
+        
+        private final SearchOperator operator;
+        
+        private final Object value;
+        
+        private Condition(Field field, SearchOperator operator, Object value) {
+            this.field = field;
+            this.operator = operator;
+            this.value = value;
+        }
+    }
+    
+    /**
+     * 过滤字段声明
+     */
+    public static final class Builder<T> {
+        
+        private final Map<String, Field> fields = new LinkedHashMap<>();
+        
+        private Builder() {
+        }
+        
+        /**
+         * 文本字段，支持全部运算符
+         */
+        public Builder<T> text(String key, String path, SearchOperator defaultOperator) {
+            fields.put(key, new Field(path, defaultOperator, true));
+            return this;
+        }
+        
+        /**
+         * 非文本字段（状态、外键等），只支持精确匹配
+         */
+        public Builder<T> exact(String key, String path) {
+            fields.put(key, new Field(path, SearchOperator.EQ, false));
+            return this;
+        }
+        
+        public FilterCompiler<T> build() {
+            return new FilterCompiler<>(new LinkedHashMap<>(fields));
+        }
+    }
+}
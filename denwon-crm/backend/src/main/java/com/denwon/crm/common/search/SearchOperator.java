@@ -0,0 +1,42 @@
+package com.denwon.crm.common.search;
+
+/**
+ * 查询条件运算符
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public enum SearchOperator {
+    
+    /**
+     * 精确匹配，使用B树索引
+     */
+    EQ,
+    
+    /**
+     * 前缀匹配 LIKE 'v%'
+     */
+    PREFIX,
+    
+    /**
+     * 包含匹配 LIKE '%v%'，由pg_trgm GIN索引支持
+     */
+    CONTAINS,
+    
+    /**
+     * 三元组相似度匹配（pg_trgm的 % 运算符），容忍错别字，结果按相似度排序
+     */
+    FUZZY;
+    
+    /**
+     * 解析运算符名称，忽略大小写，无法识别时返回null
+     */
+    public static SearchOperator parse(String name) {
+        for (SearchOperator operator : values()) {
+            if (operator.name().equalsIgnoreCase(name)) {
+                return operator;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,83 @@
+package com.denwon.crm.common.task;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 后台任务执行器
+ * 管理端手动触发的全量扫描、重建、校正等耗时任务在这里执行，不占用请求线程和定时任务线程；
+ * 同名任务排队或执行中时不再重复提交
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class BackgroundTasks {
+
+    @Value("${app.background-tasks.pool-size:2}")
+    private int poolSize;
+
+    @Value("${app.background-tasks.queue-capacity:16}")
+    private int queueCapacity;
+
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "background-" + sequence.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 提交后台任务，同名任务尚未结束或队列已满时返回false
+     */
+    public boolean submit(String name, Runnable task) {
+        if (!active.add(name)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    task.run();
+                    log.info("后台任务{}完成，耗时{}ms", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                } catch (Exception e) {
+                    log.error("后台任务{}失败: {}", name, e.getMessage(), e);
+                } finally {
+                    active.remove(name);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            active.remove(name);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.denwon.crm.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限制并发连接数的数据源
+ * 虚拟线程模式下请求线程数不受Tomcat线程池约束，获取连接前先按公平顺序领取许可，
+ * 超出连接池容量的请求在这里排队而不是全部压到连接池上；连接关闭时归还许可
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+
+    private final long timeoutMillis;
+
+    private final Timer waitTimer;
+
+    public ConcurrencyLimitedDataSource(DataSource target, int maxConcurrency, long timeoutMillis,
+                                        MeterRegistry meterRegistry) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.timeoutMillis = timeoutMillis;
+        this.waitTimer = Timer.builder("crm.datasource.permit.wait")
+            .description("获取数据库连接许可的等待时间")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        Gauge.builder("crm.datasource.permit.waiting", permits, Semaphore::getQueueLength)
+            .description("等待数据库连接许可的线程数")
+            .register(meterRegistry);
+        Gauge.builder("crm.datasource.permit.available", permits, Semaphore::availablePermits)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return wrap(super.getConnection());
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return wrap(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("等待数据库连接许可被中断", ex);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        if (!acquired) {
+            throw new SQLTransientConnectionException("等待数据库连接许可超时(" + timeoutMillis + "ms)");
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, new PermitReleasingHandler(connection));
+    }
+
+    /**
+     * 连接关闭时归还许可，重复关闭只归还一次
+     */
+    private final class PermitReleasingHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private boolean released;
+
+        private PermitReleasingHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    try {
+                        target.close();
+                    } finally {
+                        release();
+                    }
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+        }
+
+        private synchronized void release() {
+            if (!released) {
+                released = true;
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.denwon.crm.config;
+
+import com.denwon.crm.security.DataScopeFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.lang.Nullable;
+
+/**
+ * 仓库基类
+ * findAll/count/exists/delete 等按条件查询时自动合并当前用户的数据范围
+ * （实体需标注 {@link com.denwon.crm.common.entity.DataScoped}）。
+ * 按ID读取不过滤，修改、删除前由业务层校验权限
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public class DataScopedJpaRepository<T, ID> extends SimpleJpaRepository<T, ID> {
+
+    public DataScopedJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+    }
+
+    @Override
+    protected <S extends T> TypedQuery<S> getQuery(@Nullable Specification<S> spec, Class<S> domainClass, Sort sort) {
+        return super.getQuery(scoped(domainClass, spec), domainClass, sort);
+    }
+
+    @Override
+    protected <S extends T> TypedQuery<Long> getCountQuery(@Nullable Specification<S> spec, Class<S> domainClass) {
+        return super.getCountQuery(scoped(domainClass, spec), domainClass);
+    }
+
+    @Override
+    public boolean exists(Specification<T> spec) {
+        return super.exists(scoped(getDomainClass(), spec));
+    }
+
+    @Override
+    public long delete(@Nullable Specification<T> spec) {
+        return super.delete(scoped(getDomainClass(), spec));
+    }
+
+    private static <S> Specification<S> scoped(Class<S> domainClass, Specification<S> spec) {
+        DataScopeFilter filter = DataScopeFilter.instance();
+        return filter != null ? filter.restrict(domainClass, spec) : spec;
+    }
+}
@@ -0,0 +1,46 @@
+package com.denwon.crm.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * 数据源配置
+ * 开启后在连接池前增加并发许可，默认与虚拟线程模式一同开启
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.concurrency-limit.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(Environment environment,
+                                                                      ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+
+                int maxConcurrency = environment.getProperty("app.datasource.concurrency-limit.max-concurrency",
+                    Integer.class, environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                long timeout = environment.getProperty("app.datasource.concurrency-limit.timeout",
+                    Long.class, environment.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30000L));
+
+                log.info("数据源并发限制已开启: maxConcurrency={}, timeout={}ms", maxConcurrency, timeout);
+                return new ConcurrencyLimitedDataSource((DataSource) bean, maxConcurrency, timeout, meterRegistry.getObject());
+            }
+        };
+    }
+}
@@ -9,17 +9,19 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import com.denwon.crm.module.system.entity.User;
+import com.denwon.crm.security.AuthenticatedPrincipal;
 
 import java.util.Optional;
 
 /**
  * JPA配置
+ * 仓库基类为 {@link DataScopedJpaRepository}，按条件查询时合并当前用户的数据范围
  * 
  * @author Denwon Team
  * @since 1.0.0
  */
 @Configuration
-@EnableJpaRepositories(basePackages = "com.denwon.crm.module.*.repository")
+@EnableJpaRepositories(basePackages = "com.denwon.crm.module.*.repository", repositoryBaseClass = DataScopedJpaRepository.class)
 @EnableJpaAuditing(auditorAwareRef = "auditorProvider")
 @EnableTransactionManagement
 public class JpaConfig {
@@ -43,6 +45,9 @@ public class JpaConfig {
             }
             
             Object principal = authentication.getPrincipal();
+            if (principal instanceof AuthenticatedPrincipal) {
+                return Optional.of(((AuthenticatedPrincipal) principal).getUserId());
+            }
             if (principal instanceof User) {
                 return Optional.of(((User) principal).getId());
             }
@@ -1,6 +1,7 @@
 package com.denwon.crm.module.contract.entity;
 
 import com.denwon.crm.common.entity.BaseEntity;
+import com.denwon.crm.common.entity.DataScoped;
 import com.denwon.crm.module.customer.entity.Customer;
 import com.denwon.crm.module.opportunity.entity.Opportunity;
 import com.denwon.crm.module.system.entity.User;
@@ -19,6 +20,7 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "sales_contracts")
+@DataScoped(collaborators = true)
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -0,0 +1,146 @@
+package com.denwon.crm.module.customer.controller;
+
+import com.denwon.crm.common.response.ApiResponse;
+import com.denwon.crm.common.task.BackgroundTasks;
+import com.denwon.crm.module.customer.dto.CustomerMergeRequest;
+import com.denwon.crm.module.customer.dto.IdRequest;
+import com.denwon.crm.module.customer.dto.MergeCandidateDTO;
+import com.denwon.crm.module.customer.dto.PoolClaimRequest;
+import com.denwon.crm.module.customer.dto.PoolClaimResultDTO;
+import com.denwon.crm.module.customer.service.CustomerMergeService;
+import com.denwon.crm.module.customer.service.CustomerPoolService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 客户控制器
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/customers")
+@RequiredArgsConstructor
+public class CustomerController {
+
+    private final CustomerMergeService customerMergeService;
+    private final CustomerPoolService customerPoolService;
+    private final BackgroundTasks backgroundTasks;
+
+    /**
+     * 查询客户的合并建议
+     */
+    @PostMapping("/merge-candidates")
+    @PreAuthorize("hasPermission(null, 'customer.view')")
+    public ApiResponse<List<MergeCandidateDTO>> getMergeCandidates(@Valid @RequestBody IdRequest request) {
+        try {
+            return ApiResponse.success(customerMergeService.getCandidates(request.getId()));
+        } catch (Exception e) {
+            log.error("查询合并建议失败: {}", e.getMessage());
+            return ApiResponse.error("查询合并建议失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 重新计算单个客户的合并建议
+     */
+    @PostMapping("/merge-candidates/refresh")
+    @PreAuthorize("hasPermission(null, 'customer.view')")
+    public ApiResponse<List<MergeCandidateDTO>> refreshMergeCandidates(@Valid @RequestBody IdRequest request) {
+        try {
+            return ApiResponse.success(customerMergeService.match(request.getId()));
+        } catch (Exception e) {
+            log.error("计算合并建议失败: {}", e.getMessage());
+            return ApiResponse.error("计算合并建议失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 驳回合并建议，id为合并建议ID
+     */
+    @PostMapping("/merge-candidates/reject")
+    @PreAuthorize("hasPermission(null, 'customer.update')")
+    public ApiResponse<Void> rejectMergeCandidate(@Valid @RequestBody IdRequest request) {
+        try {
+            customerMergeService.reject(request.getId());
+            return ApiResponse.success("已驳回", null);
+        } catch (Exception e) {
+            log.error("驳回合并建议失败: {}", e.getMessage());
+            return ApiResponse.error("驳回合并建议失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 全量扫描合并建议（后台执行）
+     */
+    @PostMapping("/merge-candidates/scan")
+    @PreAuthorize("hasPermission(null, 'system.manage')")
+    public ApiResponse<Void> scanMergeCandidates() {
+        if (!backgroundTasks.submit("customer-match-scan", customerMergeService::scanAll)) {
+            return ApiResponse.error("客户查重扫描正在进行，请稍后再试");
+        }
+        return ApiResponse.success("客户查重扫描已开始", null);
+    }
+
+    /**
+     * 把其他客户合并到目标客户
+     */
+    @PostMapping("/merge")
+    @PreAuthorize("hasPermission(null, 'customer.update') and hasPermission(null, 'customer.delete')")
+    public ApiResponse<Void> merge(@Valid @RequestBody CustomerMergeRequest request) {
+        try {
+            customerMergeService.merge(request.getTargetId(), request.getSourceIds());
+            return ApiResponse.success("客户合并成功", null);
+        } catch (Exception e) {
+            log.error("客户合并失败: {}", e.getMessage());
+            return ApiResponse.error("客户合并失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 认领公海客户
+     */
+    @PostMapping("/pool/claim")
+    @PreAuthorize("hasPermission(null, 'customer.pool.claim')")
+    public ApiResponse<PoolClaimResultDTO> claim(@Valid @RequestBody PoolClaimRequest request) {
+        try {
+            return ApiResponse.success(customerPoolService.claim(request));
+        } catch (Exception e) {
+            log.error("认领公海客户失败: {}", e.getMessage());
+            return ApiResponse.error("认领公海客户失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 把自己负责的客户释放到公海
+     */
+    @PostMapping("/pool/release")
+    @PreAuthorize("hasPermission(null, 'customer.pool.release')")
+    public ApiResponse<Void> release(@Valid @RequestBody IdRequest request) {
+        try {
+            customerPoolService.release(request.getId());
+            return ApiResponse.success("已释放到公海", null);
+        } catch (Exception e) {
+            log.error("释放客户失败: {}", e.getMessage());
+            return ApiResponse.error("释放客户失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 立即执行公海回收（后台执行）
+     */
+    @PostMapping("/pool/recycle")
+    @PreAuthorize("hasPermission(null, 'system.manage')")
+    public ApiResponse<Void> recycle() {
+        if (!backgroundTasks.submit("customer-pool-recycle", customerPoolService::recycle)) {
+            return ApiResponse.error("公海回收正在进行，请稍后再试");
+        }
+        return ApiResponse.success("公海回收已开始", null);
+    }
+}
@@ -0,0 +1,23 @@
+package com.denwon.crm.module.customer.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 客户合并请求，sourceIds中的客户并入targetId客户
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+public class CustomerMergeRequest {
+    
+    @NotNull(message = "请选择目标客户")
+    private Long targetId;
+    
+    @NotEmpty(message = "请选择要合并的客户")
+    private List<Long> sourceIds;
+}
@@ -0,0 +1,17 @@
+package com.denwon.crm.module.customer.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * 按ID操作单条数据的请求
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+public class IdRequest {
+    
+    @NotNull(message = "ID不能为空")
+    private Long id;
+}
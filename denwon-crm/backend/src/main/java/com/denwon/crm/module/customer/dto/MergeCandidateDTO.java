@@ -0,0 +1,44 @@
+package com.denwon.crm.module.customer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 客户合并候选DTO，从当前客户的角度描述另一方
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MergeCandidateDTO {
+    
+    private Long id;
+    
+    private Long customerId;
+    
+    private String code;
+    
+    private String name;
+    
+    private String shortName;
+    
+    private String uscc;
+    
+    private String region;
+    
+    private Long ownerId;
+    
+    private BigDecimal score;
+    
+    private List<String> reasons; // USCC, NAME, PINYIN, ABBREVIATION, REGION
+    
+    private String status; // PENDING, MERGED, REJECTED
+}
@@ -0,0 +1,25 @@
+package com.denwon.crm.module.customer.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 公海认领请求：指定客户ID，或按进入公海的先后认领count个
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+public class PoolClaimRequest {
+    
+    @Size(max = 100, message = "单次最多认领100个客户")
+    private List<Long> customerIds;
+    
+    @Min(value = 1, message = "认领数量至少为1")
+    @Max(value = 100, message = "单次最多认领100个客户")
+    private Integer count;
+}
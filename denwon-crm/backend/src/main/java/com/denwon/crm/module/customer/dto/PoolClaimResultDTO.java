@@ -0,0 +1,35 @@
+package com.denwon.crm.module.customer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 公海认领结果DTO
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PoolClaimResultDTO {
+    
+    /**
+     * 认领成功的客户ID
+     */
+    private List<Long> customerIds;
+    
+    private Integer requested;
+    
+    private Integer claimed;
+    
+    /**
+     * 今日剩余认领配额，-1表示不限
+     */
+    private Integer remainingQuota;
+}
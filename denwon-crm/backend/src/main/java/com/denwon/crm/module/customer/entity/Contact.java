@@ -1,6 +1,7 @@
 package com.denwon.crm.module.customer.entity;
 
 import com.denwon.crm.common.entity.BaseEntity;
+import com.denwon.crm.module.duplicate.service.DuplicateIndexListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -13,6 +14,7 @@ import java.time.LocalDate;
  * @since 1.0.0
  */
 @Entity
+@EntityListeners(DuplicateIndexListener.class)
 @Table(name = "contacts")
 @Data
 @EqualsAndHashCode(callSuper = true)
@@ -1,6 +1,8 @@
 package com.denwon.crm.module.customer.entity;
 
 import com.denwon.crm.common.entity.BaseEntity;
+import com.denwon.crm.common.entity.DataScoped;
+import com.denwon.crm.module.duplicate.service.DuplicateIndexListener;
 import com.denwon.crm.module.system.entity.User;
 import jakarta.persistence.*;
 import lombok.*;
@@ -14,7 +16,9 @@ import java.time.LocalDateTime;
  * @since 1.0.0
  */
 @Entity
+@EntityListeners(DuplicateIndexListener.class)
 @Table(name = "customers")
+@DataScoped(collaborators = true)
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -75,12 +79,18 @@ public class Customer extends BaseEntity {
     @Column(name = "pool_entered_at")
     private LocalDateTime poolEnteredAt;
     
+    @Column(name = "owner_assigned_at")
+    private LocalDateTime ownerAssignedAt; // 当前负责人接手时间，公海回收按此计算
+    
     @Column(columnDefinition = "jsonb")
     private String collaborators;
     
     @Column(columnDefinition = "jsonb")
     private String tags;
     
+    @Column(name = "merged_into_id")
+    private Long mergedIntoId; // 被合并时指向保留的客户
+    
     @Transient
     private Integer contactCount;
     
@@ -0,0 +1,21 @@
+package com.denwon.crm.module.customer.repository;
+
+import com.denwon.crm.module.customer.entity.Contact;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 联系人数据访问层
+ * 列表过滤条件见 {@link CustomerSpecifications#CONTACT_FILTERS}
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+public interface ContactRepository extends JpaRepository<Contact, Long>, JpaSpecificationExecutor<Contact> {
+    
+    List<Contact> findByCustomerId(Long customerId);
+}
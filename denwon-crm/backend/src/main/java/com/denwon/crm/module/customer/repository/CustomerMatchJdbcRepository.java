@@ -0,0 +1,176 @@
+package com.denwon.crm.module.customer.repository;
+
+import com.denwon.crm.module.customer.dto.MergeCandidateDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * 客户查重数据访问
+ * 全量扫描流式读取客户；单个客户用信用代码和pg_trgm词相似度（GIN索引）取候选；
+ * 合并候选按“客户对”存储，较小的ID在customer_id
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerMatchJdbcRepository {
+
+    private static final int FETCH_SIZE = 5000;
+
+    private static final String COLUMNS = "id, name, short_name, uscc, region";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 流式读取全部未删除的客户（PostgreSQL只在事务内按fetchSize分批返回）
+     */
+    @Transactional(readOnly = true)
+    public void streamActive(Consumer<CustomerRow> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                "SELECT " + COLUMNS + " FROM customers WHERE deleted IS NOT TRUE ORDER BY id");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            consumer.accept(mapRow(rs));
+        });
+    }
+
+    public Optional<CustomerRow> findActive(long id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM customers WHERE id = ? AND deleted IS NOT TRUE",
+            (rs, i) -> mapRow(rs), id).stream().findFirst();
+    }
+
+    /**
+     * 单个客户的候选：信用代码相同，或名称主体/简称与对方名称、简称词相似（pg_trgm的 &lt;% 运算符）。
+     * upper(uscc)走表达式索引，名称走trgm GIN索引，三个条件合并为BitmapOr，不扫全表
+     */
+    public List<CustomerRow> findSimilar(long id, String uscc, String core, String shortCore, int limit) {
+        return jdbcTemplate.query(
+            "SELECT " + COLUMNS + " FROM customers " +
+                "WHERE deleted IS NOT TRUE AND id <> ? " +
+                "AND (upper(uscc) = ? OR ? <% name OR ? <% short_name OR ? <% name) " +
+                "LIMIT ?",
+            (rs, i) -> mapRow(rs),
+            id, uscc, core, core, shortCore != null ? shortCore : core, limit);
+    }
+
+    /**
+     * 写入或刷新候选；已处理（合并、驳回）的客户对保持不变
+     */
+    public void upsert(List<Candidate> candidates, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO customer_merge_candidates (customer_id, candidate_id, score, reasons, status, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, 'PENDING', ?, ?) " +
+                "ON CONFLICT (customer_id, candidate_id) DO UPDATE SET score = EXCLUDED.score, " +
+                "reasons = EXCLUDED.reasons, updated_at = EXCLUDED.updated_at " +
+                "WHERE customer_merge_candidates.status = 'PENDING'",
+            candidates, 1000, (ps, candidate) -> {
+                ps.setLong(1, Math.min(candidate.customerId(), candidate.candidateId()));
+                ps.setLong(2, Math.max(candidate.customerId(), candidate.candidateId()));
+                ps.setDouble(3, candidate.score());
+                ps.setString(4, candidate.reasons());
+                ps.setTimestamp(5, timestamp);
+                ps.setTimestamp(6, timestamp);
+            });
+    }
+
+    /**
+     * 删除本次扫描没有再命中的待处理候选
+     */
+    public int deleteStale(LocalDateTime before) {
+        return jdbcTemplate.update(
+            "DELETE FROM customer_merge_candidates WHERE status = 'PENDING' AND updated_at < ?",
+            Timestamp.valueOf(before));
+    }
+
+    /**
+     * 删除指定客户本次没有再命中的待处理候选
+     */
+    public int deleteStale(long customerId, LocalDateTime before) {
+        return jdbcTemplate.update(
+            "DELETE FROM customer_merge_candidates WHERE status = 'PENDING' " +
+                "AND (customer_id = ? OR candidate_id = ?) AND updated_at < ?",
+            customerId, customerId, Timestamp.valueOf(before));
+    }
+
+    /**
+     * 指定客户的候选，按分数从高到低
+     */
+    public List<MergeCandidateDTO> findByCustomer(long customerId, boolean pendingOnly) {
+        return jdbcTemplate.query(
+            "SELECT m.id, m.score, m.reasons, m.status, c.id AS other_id, c.code, c.name, c.short_name, " +
+                "c.uscc, c.region, c.owner_id " +
+                "FROM customer_merge_candidates m " +
+                "JOIN customers c ON c.id = CASE WHEN m.customer_id = ? THEN m.candidate_id ELSE m.customer_id END " +
+                "WHERE (m.customer_id = ? OR m.candidate_id = ?) AND c.deleted IS NOT TRUE " +
+                (pendingOnly ? "AND m.status = 'PENDING' " : "") +
+                "ORDER BY m.score DESC, c.id",
+            (rs, i) -> MergeCandidateDTO.builder()
+                .id(rs.getLong("id"))
+                .customerId(rs.getLong("other_id"))
+                .code(rs.getString("code"))
+                .name(rs.getString("name"))
+                .shortName(rs.getString("short_name"))
+                .uscc(rs.getString("uscc"))
+                .region(rs.getString("region"))
+                .ownerId((Long) rs.getObject("owner_id"))
+                .score(rs.getBigDecimal("score"))
+                .reasons(rs.getString("reasons") != null ? Arrays.asList(rs.getString("reasons").split(",")) : List.of())
+                .status(rs.getString("status"))
+                .build(),
+            customerId, customerId, customerId);
+    }
+
+    public boolean reject(long candidateId) {
+        return jdbcTemplate.update(
+            "UPDATE customer_merge_candidates SET status = 'REJECTED', updated_at = now() " +
+                "WHERE id = ? AND status = 'PENDING'",
+            candidateId) == 1;
+    }
+
+    /**
+     * 合并后：目标与被合并客户之间的候选标记为已合并，被合并客户的其余待处理候选删除
+     */
+    public void resolveMerged(long targetId, Long[] sourceIds) {
+        jdbcTemplate.update(
+            "UPDATE customer_merge_candidates SET status = 'MERGED', updated_at = now() " +
+                "WHERE (customer_id = ? AND candidate_id = ANY(?)) OR (candidate_id = ? AND customer_id = ANY(?))",
+            targetId, sourceIds, targetId, sourceIds);
+        jdbcTemplate.update(
+            "DELETE FROM customer_merge_candidates WHERE status = 'PENDING' " +
+                "AND (customer_id = ANY(?) OR candidate_id = ANY(?))",
+            sourceIds, sourceIds);
+    }
+
+    private static CustomerRow mapRow(ResultSet rs) throws SQLException {
+        return new CustomerRow(rs.getLong("id"), rs.getString("name"), rs.getString("short_name"),
+            rs.getString("uscc"), rs.getString("region"));
+    }
+
+    /**
+     * 参与比较的客户字段
+     */
+    public record CustomerRow(long id, String name, String shortName, String uscc, String region) {
+    }
+
+    /**
+     * 待写入的候选，reasons为逗号分隔的命中原因
+     */
+    public record Candidate(long customerId, long candidateId, double score, String reasons) {
+    }
+}
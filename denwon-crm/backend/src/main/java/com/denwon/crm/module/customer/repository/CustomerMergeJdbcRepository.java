@@ -0,0 +1,121 @@
+package com.denwon.crm.module.customer.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 客户合并数据访问
+ * 引用customers的外键从系统目录读取，新增业务表后无需修改合并逻辑
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerMergeJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile List<ForeignKey> references;
+
+    /**
+     * 锁定参与合并的客户（按ID顺序加锁，避免并发合并死锁），返回未删除的客户ID
+     */
+    public List<Long> lockActive(Long[] ids) {
+        return jdbcTemplate.queryForList(
+            "SELECT id FROM customers WHERE id = ANY(?) AND deleted IS NOT TRUE ORDER BY id FOR UPDATE",
+            Long.class, (Object) ids);
+    }
+
+    /**
+     * 所有引用customers(id)的单列外键（合并候选表除外）
+     */
+    public List<ForeignKey> references() {
+        List<ForeignKey> cached = references;
+        if (cached == null) {
+            cached = jdbcTemplate.query(
+                "SELECT cl.relname AS table_name, a.attname AS column_name " +
+                    "FROM pg_constraint c " +
+                    "JOIN pg_class cl ON cl.oid = c.conrelid " +
+                    "JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1] " +
+                    "WHERE c.contype = 'f' AND c.confrelid = 'customers'::regclass " +
+                    "AND array_length(c.conkey, 1) = 1 AND cl.relname <> 'customer_merge_candidates' " +
+                    "ORDER BY cl.relname, a.attname",
+                (rs, i) -> new ForeignKey(rs.getString("table_name"), rs.getString("column_name")));
+            references = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * 合并后会落到同一客户下的重名同手机号联系人只保留一个（优先目标客户的，其次ID最小的），
+     * 其余软删除，避免违反联系人唯一索引；手机号为空的联系人不受唯一索引约束，全部保留
+     */
+    public int deleteConflictingContacts(long targetId, Long[] sourceIds) {
+        return jdbcTemplate.update(
+            "UPDATE contacts c SET deleted = TRUE, deleted_at = now(), updated_at = now() FROM (" +
+                "    SELECT id, ROW_NUMBER() OVER (PARTITION BY name, mobile " +
+                "        ORDER BY (customer_id = ?) DESC, id) AS rn " +
+                "    FROM contacts WHERE (customer_id = ? OR customer_id = ANY(?)) " +
+                "    AND deleted IS NOT TRUE AND mobile IS NOT NULL" +
+                ") d WHERE c.id = d.id AND d.rn > 1",
+            targetId, targetId, sourceIds);
+    }
+
+    /**
+     * 把外键从被合并客户改指向目标客户
+     */
+    public int moveReferences(ForeignKey reference, long targetId, Long[] sourceIds) {
+        String table = quote(reference.table());
+        String column = quote(reference.column());
+        String sql = "UPDATE " + table + " SET " + column + " = ? WHERE " + column + " = ANY(?)";
+        if ("customers".equals(reference.table())) {
+            return jdbcTemplate.update(sql + " AND id <> ?", targetId, sourceIds, targetId);
+        }
+        return jdbcTemplate.update(sql, targetId, sourceIds);
+    }
+
+    /**
+     * 软删除被合并客户并记录合并去向
+     */
+    public int markMerged(long targetId, Long[] sourceIds, Long operatorId) {
+        return jdbcTemplate.update(
+            "UPDATE customers SET deleted = TRUE, deleted_at = now(), deleted_by = ?, merged_into_id = ?, " +
+                "updated_at = now(), version = COALESCE(version, 0) + 1 WHERE id = ANY(?)",
+            operatorId, targetId, sourceIds);
+    }
+
+    /**
+     * 目标客户为空的字段用被合并客户的值补齐（按ID顺序取第一个非空值）
+     */
+    public int fillMissing(long targetId, Long[] sourceIds, Long operatorId) {
+        return jdbcTemplate.update(
+            "UPDATE customers t SET " +
+                "short_name = COALESCE(t.short_name, s.short_name), uscc = COALESCE(t.uscc, s.uscc), " +
+                "industry = COALESCE(t.industry, s.industry), region = COALESCE(t.region, s.region), " +
+                "address = COALESCE(t.address, s.address), website = COALESCE(t.website, s.website), " +
+                "updated_by = ?, updated_at = now(), version = COALESCE(t.version, 0) + 1 " +
+                "FROM (SELECT (array_agg(short_name ORDER BY id) FILTER (WHERE short_name IS NOT NULL))[1] AS short_name, " +
+                "             (array_agg(uscc ORDER BY id) FILTER (WHERE uscc IS NOT NULL))[1] AS uscc, " +
+                "             (array_agg(industry ORDER BY id) FILTER (WHERE industry IS NOT NULL))[1] AS industry, " +
+                "             (array_agg(region ORDER BY id) FILTER (WHERE region IS NOT NULL))[1] AS region, " +
+                "             (array_agg(address ORDER BY id) FILTER (WHERE address IS NOT NULL))[1] AS address, " +
+                "             (array_agg(website ORDER BY id) FILTER (WHERE website IS NOT NULL))[1] AS website " +
+                "      FROM customers WHERE id = ANY(?)) s " +
+                "WHERE t.id = ?",
+            operatorId, sourceIds, targetId);
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * 引用customers(id)的外键列
+     */
+    public record ForeignKey(String table, String column) {
+    }
+}
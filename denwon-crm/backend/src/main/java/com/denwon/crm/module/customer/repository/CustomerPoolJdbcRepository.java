@@ -0,0 +1,129 @@
+package com.denwon.crm.module.customer.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 客户公海数据访问
+ * 回收、认领、释放都是一条语句：CTE中 FOR UPDATE SKIP LOCKED 选出行，UPDATE后同时写入公海日志。
+ * 被其他事务锁住的行直接跳过，并发认领互不等待，也不会重复认领
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerPoolJdbcRepository {
+
+    public static final String CLAIM = "CLAIM";
+    public static final String RELEASE = "RELEASE";
+    public static final String RECYCLE = "RECYCLE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 回收一段ID大于afterId的私海客户：接手时间和最近跟进都早于cutoff、没有进行中的商机、非重点客户。
+     * 返回回收的客户ID（升序）
+     */
+    public List<Long> recycleChunk(long afterId, LocalDateTime cutoff, int limit) {
+        Timestamp before = Timestamp.valueOf(cutoff);
+        return jdbcTemplate.queryForList(
+            "WITH candidates AS ( " +
+                "    SELECT c.id, c.owner_id FROM customers c " +
+                "    WHERE c.pool_status = 'PRIVATE' AND c.deleted IS NOT TRUE AND c.id > ? " +
+                "    AND c.owner_id IS NOT NULL AND c.is_key IS NOT TRUE " +
+                "    AND COALESCE(c.owner_assigned_at, c.created_at) < ? " +
+                "    AND NOT EXISTS (SELECT 1 FROM activities a WHERE a.customer_id = c.id " +
+                "                    AND a.deleted IS NOT TRUE AND a.start_at >= ?) " +
+                "    AND NOT EXISTS (SELECT 1 FROM opportunities o WHERE o.customer_id = c.id " +
+                "                    AND o.deleted IS NOT TRUE AND (o.current_stage IS NULL OR o.current_stage NOT IN ('WON', 'LOST'))) " +
+                "    ORDER BY c.id LIMIT ? " +
+                "    FOR UPDATE OF c SKIP LOCKED " +
+                "), recycled AS ( " +
+                "    UPDATE customers c SET pool_status = 'PUBLIC', pool_entered_at = now(), owner_id = NULL, " +
+                "        owner_assigned_at = NULL, updated_at = now(), version = COALESCE(c.version, 0) + 1 " +
+                "    FROM candidates WHERE c.id = candidates.id " +
+                "    RETURNING c.id, candidates.owner_id " +
+                ") " +
+                "INSERT INTO customer_pool_logs (customer_id, user_id, action, created_at) " +
+                "SELECT id, owner_id, 'RECYCLE', now() FROM recycled ORDER BY id " +
+                "RETURNING customer_id",
+            Long.class, afterId, before, before, limit);
+    }
+
+    /**
+     * 认领指定的公海客户，被锁住或已不在公海的跳过，返回认领成功的客户ID
+     */
+    public List<Long> claim(Long[] customerIds, long userId) {
+        return jdbcTemplate.queryForList(
+            "WITH target AS ( " +
+                "    SELECT id FROM customers " +
+                "    WHERE id = ANY(?) AND pool_status = 'PUBLIC' AND deleted IS NOT TRUE " +
+                "    ORDER BY id LIMIT ? " +
+                "    FOR UPDATE SKIP LOCKED " +
+                ")" + claimTail(),
+            Long.class, customerIds, customerIds.length, userId, userId, userId, userId);
+    }
+
+    /**
+     * 从公海按进入时间先后认领count个客户，返回认领成功的客户ID
+     */
+    public List<Long> claimNext(int count, long userId) {
+        return jdbcTemplate.queryForList(
+            "WITH target AS ( " +
+                "    SELECT id FROM customers " +
+                "    WHERE pool_status = 'PUBLIC' AND deleted IS NOT TRUE " +
+                "    ORDER BY pool_entered_at, id LIMIT ? " +
+                "    FOR UPDATE SKIP LOCKED " +
+                ")" + claimTail(),
+            Long.class, count, userId, userId, userId, userId);
+    }
+
+    private static String claimTail() {
+        return ", claimed AS ( " +
+            "    UPDATE customers c SET pool_status = 'PRIVATE', pool_entered_at = NULL, owner_id = ?, " +
+            "        org_unit_id = COALESCE((SELECT org_unit_id FROM users WHERE id = ?), c.org_unit_id), " +
+            "        owner_assigned_at = now(), updated_by = ?, updated_at = now(), version = COALESCE(c.version, 0) + 1 " +
+            "    FROM target WHERE c.id = target.id " +
+            "    RETURNING c.id " +
+            ") " +
+            "INSERT INTO customer_pool_logs (customer_id, user_id, action, created_at) " +
+            "SELECT id, ?, 'CLAIM', now() FROM claimed " +
+            "RETURNING customer_id";
+    }
+
+    /**
+     * 负责人把自己的客户释放到公海
+     */
+    public boolean release(long customerId, long userId) {
+        List<Long> released = jdbcTemplate.queryForList(
+            "WITH released AS ( " +
+                "    UPDATE customers SET pool_status = 'PUBLIC', pool_entered_at = now(), owner_id = NULL, " +
+                "        owner_assigned_at = NULL, updated_by = ?, updated_at = now(), version = COALESCE(version, 0) + 1 " +
+                "    WHERE id = ? AND owner_id = ? AND pool_status = 'PRIVATE' AND deleted IS NOT TRUE " +
+                "    RETURNING id " +
+                ") " +
+                "INSERT INTO customer_pool_logs (customer_id, user_id, action, created_at) " +
+                "SELECT id, ?, 'RELEASE', now() FROM released " +
+                "RETURNING customer_id",
+            Long.class, userId, customerId, userId, userId);
+        return !released.isEmpty();
+    }
+
+    /**
+     * 用户当天已认领数
+     */
+    public int countClaims(long userId, LocalDate day) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM customer_pool_logs WHERE user_id = ? AND action = 'CLAIM' " +
+                "AND created_at >= ? AND created_at < ?",
+            Integer.class, userId, Timestamp.valueOf(day.atStartOfDay()), Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.denwon.crm.module.customer.repository;
+
+import com.denwon.crm.module.customer.entity.Customer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * 客户数据访问层
+ * 列表过滤条件见 {@link CustomerSpecifications#CUSTOMER_FILTERS}
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+public interface CustomerRepository extends JpaRepository<Customer, Long>, JpaSpecificationExecutor<Customer> {
+    
+    Optional<Customer> findByCode(String code);
+    
+    boolean existsByCode(String code);
+}
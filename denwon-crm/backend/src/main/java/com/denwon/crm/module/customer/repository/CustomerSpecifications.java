@@ -0,0 +1,42 @@
+package com.denwon.crm.module.customer.repository;
+
+import com.denwon.crm.common.search.FilterCompiler;
+import com.denwon.crm.common.search.SearchOperator;
+import com.denwon.crm.module.customer.entity.Contact;
+import com.denwon.crm.module.customer.entity.Customer;
+
+/**
+ * 客户、联系人查询条件
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public final class CustomerSpecifications {
+    
+    public static final FilterCompiler<Customer> CUSTOMER_FILTERS = FilterCompiler.<Customer>builder()
+        .text("code", "code", SearchOperator.PREFIX)
+        .text("name", "name", SearchOperator.CONTAINS)
+        .text("shortName", "shortName", SearchOperator.CONTAINS)
+        .text("uscc", "uscc", SearchOperator.EQ)
+        .exact("industry", "industry")
+        .exact("region", "region")
+        .exact("level", "level")
+        .exact("source", "source")
+        .exact("poolStatus", "poolStatus")
+        .exact("ownerId", "ownerId")
+        .exact("orgUnitId", "orgUnitId")
+        .exact("status", "status")
+        .build();
+    
+    public static final FilterCompiler<Contact> CONTACT_FILTERS = FilterCompiler.<Contact>builder()
+        .text("name", "name", SearchOperator.CONTAINS)
+        .text("mobile", "mobile", SearchOperator.CONTAINS)
+        .text("email", "email", SearchOperator.CONTAINS)
+        .exact("customerId", "customer.id")
+        .exact("roleTag", "roleTag")
+        .exact("status", "status")
+        .build();
+    
+    private CustomerSpecifications() {
+    }
+}
@@ -0,0 +1,39 @@
+package com.denwon.crm.module.customer.service;
+
+import com.denwon.crm.module.customer.dto.MergeCandidateDTO;
+
+import java.util.List;
+
+/**
+ * 客户查重与合并服务接口
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public interface CustomerMergeService {
+    
+    /**
+     * 全量扫描所有客户，刷新合并候选
+     */
+    void scanAll();
+    
+    /**
+     * 重新计算单个客户的合并候选（新建或修改客户后调用）
+     */
+    List<MergeCandidateDTO> match(Long customerId);
+    
+    /**
+     * 查询客户的待处理合并候选，按相似度从高到低
+     */
+    List<MergeCandidateDTO> getCandidates(Long customerId);
+    
+    /**
+     * 驳回合并候选，之后的扫描不再提示
+     */
+    void reject(Long candidateId);
+    
+    /**
+     * 把sourceIds中的客户并入目标客户：关联数据改指向目标客户，被合并客户软删除
+     */
+    void merge(Long targetId, List<Long> sourceIds);
+}
@@ -0,0 +1,28 @@
+package com.denwon.crm.module.customer.service;
+
+import com.denwon.crm.module.customer.dto.PoolClaimRequest;
+import com.denwon.crm.module.customer.dto.PoolClaimResultDTO;
+
+/**
+ * 客户公海服务接口
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public interface CustomerPoolService {
+    
+    /**
+     * 回收长期未跟进的私海客户到公海，返回回收数
+     */
+    int recycle();
+    
+    /**
+     * 当前用户认领公海客户，受每日配额限制
+     */
+    PoolClaimResultDTO claim(PoolClaimRequest request);
+    
+    /**
+     * 当前用户把自己负责的客户释放到公海
+     */
+    void release(Long customerId);
+}
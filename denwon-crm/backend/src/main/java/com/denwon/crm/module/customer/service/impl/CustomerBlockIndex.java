@@ -0,0 +1,211 @@
+package com.denwon.crm.module.customer.service.impl;
+
+import com.denwon.crm.module.customer.service.impl.CustomerMatcher.Profile;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 客户分块索引，避免两两比较
+ * 分块键：统一社会信用代码、名称/简称拼音、名称/简称的字二元组。
+ * 所有“键 << 32 | 下标”排序后存在一个long数组里，同一个键的记录连续存放，按二分查找取块。
+ * 每个客户只使用最稀有的若干个二元组（“科技”“贸易”这类常见词不参与分块），
+ * 超过块大小上限的键一律不用，比较次数与客户数近似线性
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+final class CustomerBlockIndex {
+
+    private static final int USCC = 1;
+    private static final int PINYIN = 2;
+    private static final int BIGRAM = 3;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final long[] entries;
+
+    /**
+     * 每个客户的全部分块键（升序）
+     */
+    private final int[][] keys;
+
+    /**
+     * 每个客户实际使用的分块键
+     */
+    private final int[][] chosen;
+
+    private CustomerBlockIndex(long[] entries, int[][] keys, int[][] chosen) {
+        this.entries = entries;
+        this.keys = keys;
+        this.chosen = chosen;
+    }
+
+    static CustomerBlockIndex build(List<Profile> profiles, int bigramsPerRecord, int maxBlockSize) {
+        int[][] keys = new int[profiles.size()][];
+        int total = 0;
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = keys(profiles.get(i));
+            total += keys[i].length;
+        }
+
+        long[] entries = new long[total];
+        int position = 0;
+        for (int i = 0; i < keys.length; i++) {
+            for (int key : keys[i]) {
+                entries[position++] = pack(key, i);
+            }
+        }
+        Arrays.parallelSort(entries);
+
+        int[][] chosen = new int[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            chosen[i] = choose(entries, profiles.get(i), keys[i], bigramsPerRecord, maxBlockSize);
+        }
+        return new CustomerBlockIndex(entries, keys, chosen);
+    }
+
+    /**
+     * 第i个客户的候选（下标，升序去重）。
+     * 同一对客户只由其中一方产生：对方下标更小、且对方使用的分块键中有i的键时，由对方产生
+     */
+    int[] candidates(int i) {
+        int[] result = new int[16];
+        int size = 0;
+        for (int key : chosen[i]) {
+            int from = lowerBound(entries, pack(key, 0));
+            for (int p = from; p < entries.length && (int) (entries[p] >>> 32) == key; p++) {
+                int j = (int) entries[p];
+                if (j == i || (j < i && intersects(chosen[j], keys[i]))) {
+                    continue;
+                }
+                if (size == result.length) {
+                    result = Arrays.copyOf(result, size << 1);
+                }
+                result[size++] = j;
+            }
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+        Arrays.sort(result, 0, size);
+        int unique = 1;
+        for (int p = 1; p < size; p++) {
+            if (result[p] != result[unique - 1]) {
+                result[unique++] = result[p];
+            }
+        }
+        return Arrays.copyOf(result, unique);
+    }
+
+    private static int[] keys(Profile profile) {
+        int[] shortGrams = CustomerMatcher.bigrams(profile.shortCore());
+        int[] keys = new int[3 + profile.bigrams().length + shortGrams.length];
+        int size = 0;
+        if (profile.uscc() != null) {
+            keys[size++] = key(USCC, profile.uscc().hashCode());
+        }
+        if (profile.pinyin() != null) {
+            keys[size++] = key(PINYIN, profile.pinyin().hashCode());
+        }
+        if (profile.shortPinyin() != null) {
+            keys[size++] = key(PINYIN, profile.shortPinyin().hashCode());
+        }
+        for (int gram : profile.bigrams()) {
+            keys[size++] = key(BIGRAM, gram);
+        }
+        for (int gram : shortGrams) {
+            keys[size++] = key(BIGRAM, gram);
+        }
+        return distinct(keys, size);
+    }
+
+    /**
+     * 信用代码和拼音键全部使用，二元组按出现次数从少到多取前几个；只有自己的键和超过上限的键不用
+     */
+    private static int[] choose(long[] entries, Profile profile, int[] keys, int bigramsPerRecord, int maxBlockSize) {
+        int[] chosen = new int[keys.length];
+        long[] grams = new long[keys.length];
+        int size = 0;
+        int gramCount = 0;
+        for (int key : keys) {
+            int blockSize = blockSize(entries, key);
+            if (blockSize < 2 || blockSize > maxBlockSize) {
+                continue;
+            }
+            if (isBigram(profile, key)) {
+                grams[gramCount++] = (long) blockSize << 32 | (key & 0xffffffffL);
+            } else {
+                chosen[size++] = key;
+            }
+        }
+        Arrays.sort(grams, 0, gramCount);
+        for (int g = 0; g < Math.min(gramCount, bigramsPerRecord); g++) {
+            chosen[size++] = (int) grams[g];
+        }
+        return Arrays.copyOf(chosen, size);
+    }
+
+    private static boolean isBigram(Profile profile, int key) {
+        return !(profile.uscc() != null && key == key(USCC, profile.uscc().hashCode()))
+            && !(profile.pinyin() != null && key == key(PINYIN, profile.pinyin().hashCode()))
+            && !(profile.shortPinyin() != null && key == key(PINYIN, profile.shortPinyin().hashCode()));
+    }
+
+    private static int blockSize(long[] entries, int key) {
+        int from = lowerBound(entries, pack(key, 0));
+        int to = key == Integer.MAX_VALUE ? entries.length : lowerBound(entries, pack(key + 1, 0));
+        return to - from;
+    }
+
+    /**
+     * 第一个不小于target的位置；键按有符号int排序，与pack一致
+     */
+    private static int lowerBound(long[] entries, long target) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long pack(int key, int index) {
+        return (long) key << 32 | index;
+    }
+
+    private static int key(int kind, int value) {
+        int h = value * 0x9e3779b9 + kind;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int[] distinct(int[] values, int size) {
+        Arrays.sort(values, 0, size);
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (unique == 0 || values[i] != values[unique - 1]) {
+                values[unique++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, unique);
+    }
+
+    private static boolean intersects(int[] values, int[] sorted) {
+        for (int value : values) {
+            if (Arrays.binarySearch(sorted, value) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,180 @@
+package com.denwon.crm.module.customer.service.impl;
+
+import com.denwon.crm.util.NormalizeUtils;
+import com.denwon.crm.util.PinyinUtils;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 客户相似度计算
+ * 名称先取主体（去掉标点、开头省市、“有限公司”等后缀），再按以下规则打分（0~1）：
+ * <ul>
+ *   <li>统一社会信用代码：双方都有时相同即为1，不同则不是同一主体</li>
+ *   <li>名称：主体字二元组的Dice系数</li>
+ *   <li>拼音：主体拼音相同（繁简体、同音错字）</li>
+ *   <li>简称：一方简称与另一方名称或简称相同，或主体互相包含</li>
+ *   <li>地区：都填写且不同时降权，相同时略加分</li>
+ * </ul>
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+final class CustomerMatcher {
+
+    /**
+     * 命中原因
+     */
+    enum Reason {
+        USCC, NAME, PINYIN, ABBREVIATION, REGION
+    }
+
+    private static final double PINYIN_SCORE = 0.95;
+
+    private static final double ABBREVIATION_SCORE = 0.85;
+
+    private static final double CONTAINMENT_SCORE = 0.8;
+
+    private static final double REGION_MISMATCH_FACTOR = 0.85;
+
+    private static final double REGION_MATCH_BONUS = 0.03;
+
+    private CustomerMatcher() {
+    }
+
+    /**
+     * 客户的比较特征，构建时一次性计算，打分时不再做字符串规范化
+     */
+    record Profile(long id, String core, String shortCore, String pinyin, String shortPinyin,
+                   String uscc, String region, int[] bigrams) {
+    }
+
+    record Match(double score, Set<Reason> reasons) {
+    }
+
+    static Profile profile(long id, String name, String shortName, String uscc, String region) {
+        String core = NormalizeUtils.companyCore(name);
+        String shortCore = NormalizeUtils.companyCore(shortName);
+        if (shortCore != null && shortCore.equals(core)) {
+            shortCore = null;
+        }
+        return new Profile(id, core, shortCore,
+            emptyToNull(PinyinUtils.fold(core)), emptyToNull(PinyinUtils.fold(shortCore)),
+            uscc(uscc), NormalizeUtils.regionKey(region), bigrams(core));
+    }
+
+    /**
+     * 计算两个客户的相似度，低于阈值返回null
+     */
+    static Match score(Profile a, Profile b, double threshold) {
+        if (a.uscc() != null && b.uscc() != null) {
+            return a.uscc().equals(b.uscc()) ? new Match(1.0, EnumSet.of(Reason.USCC)) : null;
+        }
+        if (a.core() == null || b.core() == null) {
+            return null;
+        }
+
+        Set<Reason> reasons = EnumSet.noneOf(Reason.class);
+        double score = dice(a.bigrams(), b.bigrams());
+        if (score >= threshold) {
+            reasons.add(Reason.NAME);
+        }
+        if (score < PINYIN_SCORE && same(a.pinyin(), b.pinyin())) {
+            score = PINYIN_SCORE;
+            reasons.add(Reason.PINYIN);
+        }
+        if (score < ABBREVIATION_SCORE && abbreviates(a, b)) {
+            score = ABBREVIATION_SCORE;
+            reasons.add(Reason.ABBREVIATION);
+        } else if (score < CONTAINMENT_SCORE && contains(a.core(), b.core())) {
+            score = CONTAINMENT_SCORE;
+            reasons.add(Reason.ABBREVIATION);
+        }
+
+        if (a.region() != null && b.region() != null) {
+            if (a.region().equals(b.region())) {
+                score = Math.min(1.0, score + REGION_MATCH_BONUS);
+                reasons.add(Reason.REGION);
+            } else {
+                score *= REGION_MISMATCH_FACTOR;
+            }
+        }
+        return score >= threshold ? new Match(score, reasons) : null;
+    }
+
+    /**
+     * 名称主体的字二元组，两个char拼成一个int，排序去重；单字名称用单字本身
+     */
+    static int[] bigrams(String text) {
+        if (text == null || text.isEmpty()) {
+            return new int[0];
+        }
+        if (text.length() == 1) {
+            return new int[]{text.charAt(0) << 16};
+        }
+        int[] grams = new int[text.length() - 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = text.charAt(i) << 16 | text.charAt(i + 1);
+        }
+        Arrays.sort(grams);
+        int size = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[size - 1]) {
+                grams[size++] = grams[i];
+            }
+        }
+        return size == grams.length ? grams : Arrays.copyOf(grams, size);
+    }
+
+    private static double dice(int[] a, int[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return 0;
+        }
+        int common = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return 2.0 * common / (a.length + b.length);
+    }
+
+    private static boolean abbreviates(Profile a, Profile b) {
+        return same(a.shortCore(), b.core()) || same(b.shortCore(), a.core()) || same(a.shortCore(), b.shortCore())
+            || same(a.shortPinyin(), b.pinyin()) || same(b.shortPinyin(), a.pinyin());
+    }
+
+    private static boolean same(String a, String b) {
+        return a != null && a.equals(b);
+    }
+
+    /**
+     * 较短的主体被较长的包含，且至少占一半长度（避免“科技”之类的短词）
+     */
+    private static boolean contains(String a, String b) {
+        String shorter = a.length() <= b.length() ? a : b;
+        String longer = shorter == a ? b : a;
+        return shorter.length() >= 2 && shorter.length() * 2 >= longer.length() && longer.contains(shorter);
+    }
+
+    private static String uscc(String uscc) {
+        String value = NormalizeUtils.text(uscc);
+        if (value == null) {
+            return null;
+        }
+        value = value.replace(" ", "").toUpperCase(Locale.ROOT);
+        return value.length() == 18 ? value : null;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
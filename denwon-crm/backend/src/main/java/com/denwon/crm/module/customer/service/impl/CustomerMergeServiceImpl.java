@@ -0,0 +1,274 @@
+package com.denwon.crm.module.customer.service.impl;
+
+import com.denwon.crm.common.exception.BusinessException;
+import com.denwon.crm.module.customer.dto.MergeCandidateDTO;
+import com.denwon.crm.module.customer.repository.CustomerMatchJdbcRepository;
+import com.denwon.crm.module.customer.repository.CustomerMatchJdbcRepository.Candidate;
+import com.denwon.crm.module.customer.repository.CustomerMatchJdbcRepository.CustomerRow;
+import com.denwon.crm.module.customer.repository.CustomerMergeJdbcRepository;
+import com.denwon.crm.module.customer.service.CustomerMergeService;
+import com.denwon.crm.module.customer.service.impl.CustomerMatcher.Match;
+import com.denwon.crm.module.customer.service.impl.CustomerMatcher.Profile;
+import com.denwon.crm.module.customer.service.impl.CustomerMatcher.Reason;
+import com.denwon.crm.security.AuthenticatedPrincipal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 客户查重与合并服务实现
+ * <ul>
+ *   <li>全量扫描：流式加载客户特征，按 {@link CustomerBlockIndex} 分块生成候选对，
+ *       ForkJoin并行打分，每个客户最多保留若干个最相似的候选后批量写入</li>
+ *   <li>单个客户：信用代码和pg_trgm索引取候选，用同一套规则打分，毫秒级返回</li>
+ *   <li>合并：关联数据改指向目标客户，被合并客户软删除并记录去向</li>
+ * </ul>
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CustomerMergeServiceImpl implements CustomerMergeService {
+
+    /**
+     * 每个ForkJoin叶子任务处理的客户数
+     */
+    private static final int LEAF_SIZE = 1024;
+
+    private final CustomerMatchJdbcRepository matchRepository;
+    private final CustomerMergeJdbcRepository mergeRepository;
+
+    @Value("${app.customer-match.threshold:0.75}")
+    private double threshold;
+
+    @Value("${app.customer-match.bigrams-per-customer:4}")
+    private int bigramsPerCustomer;
+
+    @Value("${app.customer-match.max-block-size:500}")
+    private int maxBlockSize;
+
+    @Value("${app.customer-match.max-candidates:20}")
+    private int maxCandidates;
+
+    @Value("${app.customer-match.lookup-limit:200}")
+    private int lookupLimit;
+
+    @Value("${app.customer-match.parallelism:0}")
+    private int parallelism;
+
+    private final AtomicBoolean scanning = new AtomicBoolean();
+
+    @Override
+    @Scheduled(cron = "${app.customer-match.scan-cron:0 0 2 * * ?}")
+    public void scanAll() {
+        if (!scanning.compareAndSet(false, true)) {
+            log.info("客户查重扫描正在进行，跳过本次");
+            return;
+        }
+
+        try {
+            long start = System.nanoTime();
+            LocalDateTime startedAt = LocalDateTime.now();
+
+            List<Profile> profiles = new ArrayList<>();
+            matchRepository.streamActive(row -> profiles.add(profile(row)));
+            CustomerBlockIndex index = CustomerBlockIndex.build(profiles, bigramsPerCustomer, maxBlockSize);
+            long loaded = System.nanoTime();
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+            List<Pair> pairs;
+            try {
+                pairs = pool.invoke(new ScoreTask(profiles, index, 0, profiles.size()));
+            } finally {
+                pool.shutdown();
+            }
+            long scored = System.nanoTime();
+
+            List<Candidate> candidates = rank(profiles, pairs);
+            matchRepository.upsert(candidates, startedAt);
+            int stale = matchRepository.deleteStale(startedAt);
+
+            log.info("客户查重扫描完成: {}个客户，{}对相似，保留{}对，清理{}对；加载{}ms，打分{}ms，写入{}ms",
+                profiles.size(), pairs.size(), candidates.size(), stale,
+                TimeUnit.NANOSECONDS.toMillis(loaded - start),
+                TimeUnit.NANOSECONDS.toMillis(scored - loaded),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - scored));
+        } finally {
+            scanning.set(false);
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<MergeCandidateDTO> match(Long customerId) {
+        CustomerRow row = matchRepository.findActive(customerId)
+            .orElseThrow(() -> new BusinessException("客户不存在"));
+        Profile self = profile(row);
+        if (self.core() == null && self.uscc() == null) {
+            return List.of();
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Candidate> candidates = matchRepository
+            .findSimilar(customerId, self.uscc(), self.core(), self.shortCore(), lookupLimit).stream()
+            .map(other -> {
+                Match match = CustomerMatcher.score(self, profile(other), threshold);
+                return match != null ? candidate(customerId, other.id(), match.score(), match.reasons()) : null;
+            })
+            .filter(Objects::nonNull)
+            .sorted(Comparator.comparingDouble(Candidate::score).reversed())
+            .limit(maxCandidates)
+            .toList();
+
+        matchRepository.upsert(candidates, startedAt);
+        matchRepository.deleteStale(customerId, startedAt);
+        return getCandidates(customerId);
+    }
+
+    @Override
+    public List<MergeCandidateDTO> getCandidates(Long customerId) {
+        return matchRepository.findByCustomer(customerId, true);
+    }
+
+    @Override
+    public void reject(Long candidateId) {
+        if (!matchRepository.reject(candidateId)) {
+            throw new BusinessException("合并候选不存在或已处理");
+        }
+    }
+
+    @Override
+    @Transactional
+    public void merge(Long targetId, List<Long> sourceIds) {
+        Set<Long> sources = new LinkedHashSet<>(sourceIds);
+        sources.remove(null);
+        if (sources.isEmpty()) {
+            throw new BusinessException("请选择要合并的客户");
+        }
+        if (sources.contains(targetId)) {
+            throw new BusinessException("不能把客户合并到自身");
+        }
+
+        Long[] sourceArray = sources.toArray(new Long[0]);
+        Set<Long> all = new LinkedHashSet<>(sources);
+        all.add(targetId);
+        if (mergeRepository.lockActive(all.toArray(new Long[0])).size() != all.size()) {
+            throw new BusinessException("客户不存在或已被合并");
+        }
+
+        Long operatorId = currentUserId();
+        int contacts = mergeRepository.deleteConflictingContacts(targetId, sourceArray);
+        int moved = 0;
+        for (CustomerMergeJdbcRepository.ForeignKey reference : mergeRepository.references()) {
+            moved += mergeRepository.moveReferences(reference, targetId, sourceArray);
+        }
+        mergeRepository.markMerged(targetId, sourceArray, operatorId);
+        mergeRepository.fillMissing(targetId, sourceArray, operatorId);
+        matchRepository.resolveMerged(targetId, sourceArray);
+
+        log.info("客户{}合并到{}: 迁移关联数据{}条，重复联系人{}个，操作人{}",
+            sources, targetId, moved, contacts, operatorId);
+    }
+
+    /**
+     * 按分数从高到低保留，每个客户最多出现在maxCandidates对中，避免通用名称产生大量候选
+     */
+    private List<Candidate> rank(List<Profile> profiles, List<Pair> pairs) {
+        pairs.sort(Comparator.comparingDouble(Pair::score).reversed());
+        int[] counts = new int[profiles.size()];
+        List<Candidate> candidates = new ArrayList<>();
+        for (Pair pair : pairs) {
+            if (counts[pair.a()] < maxCandidates && counts[pair.b()] < maxCandidates) {
+                counts[pair.a()]++;
+                counts[pair.b()]++;
+                candidates.add(candidate(profiles.get(pair.a()).id(), profiles.get(pair.b()).id(),
+                    pair.score(), pair.reasons()));
+            }
+        }
+        return candidates;
+    }
+
+    private static Candidate candidate(long customerId, long candidateId, double score, Set<Reason> reasons) {
+        return new Candidate(customerId, candidateId, Math.round(score * 10000) / 10000.0,
+            reasons.stream().map(Reason::name).collect(Collectors.joining(",")));
+    }
+
+    private static Profile profile(CustomerRow row) {
+        return CustomerMatcher.profile(row.id(), row.name(), row.shortName(), row.uscc(), row.region());
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthenticatedPrincipal principal
+            ? principal.getUserId() : null;
+    }
+
+    /**
+     * 候选对（客户下标）
+     */
+    private record Pair(int a, int b, double score, Set<Reason> reasons) {
+    }
+
+    /**
+     * 按客户下标区间拆分的打分任务
+     */
+    private final class ScoreTask extends RecursiveTask<List<Pair>> {
+
+        private final List<Profile> profiles;
+        private final CustomerBlockIndex index;
+        private final int from;
+        private final int to;
+
+        ScoreTask(List<Profile> profiles, CustomerBlockIndex index, int from, int to) {
+            this.profiles = profiles;
+            this.index = index;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Pair> compute() {
+            if (to - from <= LEAF_SIZE) {
+                List<Pair> pairs = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    Profile profile = profiles.get(i);
+                    for (int j : index.candidates(i)) {
+                        Match match = CustomerMatcher.score(profile, profiles.get(j), threshold);
+                        if (match != null) {
+                            pairs.add(new Pair(i, j, match.score(), match.reasons()));
+                        }
+                    }
+                }
+                return pairs;
+            }
+
+            int middle = (from + to) >>> 1;
+            ScoreTask left = new ScoreTask(profiles, index, from, middle);
+            left.fork();
+            List<Pair> right = new ScoreTask(profiles, index, middle, to).compute();
+            List<Pair> pairs = left.join();
+            pairs.addAll(right);
+            return pairs;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.denwon.crm.module.customer.service.impl;
+
+import com.denwon.crm.common.exception.BusinessException;
+import com.denwon.crm.module.customer.dto.PoolClaimRequest;
+import com.denwon.crm.module.customer.dto.PoolClaimResultDTO;
+import com.denwon.crm.module.customer.repository.CustomerPoolJdbcRepository;
+import com.denwon.crm.module.customer.service.CustomerPoolService;
+import com.denwon.crm.security.AuthenticatedPrincipal;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 客户公海服务实现
+ * <ul>
+ *   <li>回收：按ID分段，每段一条语句选出并回收（SKIP LOCKED），每段单独提交，不长时间持有行锁</li>
+ *   <li>认领：先在内存中预占当天配额，再用一条 SKIP LOCKED 语句认领，未认领到的配额退回</li>
+ * </ul>
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CustomerPoolServiceImpl implements CustomerPoolService {
+
+    private final CustomerPoolJdbcRepository poolRepository;
+
+    @Value("${app.customer-pool.inactive-days:30}")
+    private int inactiveDays;
+
+    @Value("${app.customer-pool.recycle-chunk-size:1000}")
+    private int recycleChunkSize;
+
+    @Value("${app.customer-pool.recycle-pause:50}")
+    private long recyclePauseMillis;
+
+    @Value("${app.customer-pool.daily-claim-limit:20}")
+    private int dailyClaimLimit;
+
+    private final AtomicBoolean recycling = new AtomicBoolean();
+
+    private PoolClaimQuota quota;
+
+    @PostConstruct
+    public void init() {
+        quota = new PoolClaimQuota(dailyClaimLimit, poolRepository::countClaims);
+    }
+
+    @Override
+    @Scheduled(cron = "${app.customer-pool.recycle-cron:0 0 1 * * ?}")
+    public int recycle() {
+        if (inactiveDays <= 0) {
+            return 0;
+        }
+        if (!recycling.compareAndSet(false, true)) {
+            log.info("公海回收正在进行，跳过本次");
+            return 0;
+        }
+
+        try {
+            long start = System.nanoTime();
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(inactiveDays);
+            long afterId = 0;
+            int recycled = 0;
+            while (true) {
+                List<Long> ids = poolRepository.recycleChunk(afterId, cutoff, recycleChunkSize);
+                recycled += ids.size();
+                if (ids.size() < recycleChunkSize) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+                pause();
+            }
+            log.info("公海回收完成: 回收{}个客户，耗时{}ms", recycled,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return recycled;
+        } finally {
+            recycling.set(false);
+        }
+    }
+
+    @Override
+    public PoolClaimResultDTO claim(PoolClaimRequest request) {
+        long userId = requireUserId();
+        LocalDate today = LocalDate.now();
+
+        Set<Long> ids = new LinkedHashSet<>();
+        if (request.getCustomerIds() != null) {
+            ids.addAll(request.getCustomerIds());
+            ids.remove(null);
+        }
+        int requested = !ids.isEmpty() ? ids.size() : request.getCount() != null ? request.getCount() : 0;
+        if (requested <= 0) {
+            throw new BusinessException("请选择要认领的客户或认领数量");
+        }
+
+        int granted = quota.acquire(userId, requested, today);
+        if (granted == 0) {
+            throw new BusinessException("今日认领数量已达上限（" + quota.dailyLimit() + "个）");
+        }
+
+        List<Long> claimed;
+        try {
+            claimed = !ids.isEmpty()
+                ? poolRepository.claim(ids.stream().limit(granted).toArray(Long[]::new), userId)
+                : poolRepository.claimNext(granted, userId);
+        } catch (RuntimeException e) {
+            quota.refund(userId, granted, today);
+            throw e;
+        }
+        quota.refund(userId, granted - claimed.size(), today);
+
+        return PoolClaimResultDTO.builder()
+            .customerIds(claimed)
+            .requested(requested)
+            .claimed(claimed.size())
+            .remainingQuota(quota.remaining(userId, today))
+            .build();
+    }
+
+    @Override
+    public void release(Long customerId) {
+        if (!poolRepository.release(customerId, requireUserId())) {
+            throw new BusinessException("客户不存在、不在私海或不是您负责的客户");
+        }
+    }
+
+    private void pause() {
+        if (recyclePauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(recyclePauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("公海回收已中断");
+        }
+    }
+
+    private static long requireUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedPrincipal principal) {
+            return principal.getUserId();
+        }
+        throw new BusinessException("用户未登录");
+    }
+}
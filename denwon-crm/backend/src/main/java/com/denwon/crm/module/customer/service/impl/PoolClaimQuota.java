@@ -0,0 +1,97 @@
+package com.denwon.crm.module.customer.service.impl;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * 公海每日认领配额（内存计数）
+ * 每个用户一个当天计数器，首次使用时从认领日志恢复；预占用CAS完成，认领失败的部分退回
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+final class PoolClaimQuota {
+
+    private final int dailyLimit;
+
+    /**
+     * (用户ID, 日期) -> 当天已认领数
+     */
+    private final ToIntBiFunction<Long, LocalDate> loader;
+
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    PoolClaimQuota(int dailyLimit, ToIntBiFunction<Long, LocalDate> loader) {
+        this.dailyLimit = dailyLimit;
+        this.loader = loader;
+    }
+
+    boolean isLimited() {
+        return dailyLimit > 0;
+    }
+
+    int dailyLimit() {
+        return dailyLimit;
+    }
+
+    /**
+     * 预占最多requested个配额，返回实际预占数
+     */
+    int acquire(long userId, int requested, LocalDate day) {
+        if (!isLimited()) {
+            return requested;
+        }
+        Counter counter = counter(userId, day);
+        while (true) {
+            int used = counter.used.get();
+            int granted = Math.min(requested, dailyLimit - used);
+            if (granted <= 0) {
+                return 0;
+            }
+            if (counter.used.compareAndSet(used, used + granted)) {
+                return granted;
+            }
+        }
+    }
+
+    /**
+     * 退回未用掉的配额
+     */
+    void refund(long userId, int count, LocalDate day) {
+        Counter counter = counters.get(userId);
+        if (count > 0 && counter != null && counter.day.equals(day)) {
+            counter.used.addAndGet(-count);
+        }
+    }
+
+    /**
+     * 当天剩余配额，不限制时返回-1
+     */
+    int remaining(long userId, LocalDate day) {
+        return isLimited() ? Math.max(0, dailyLimit - counter(userId, day).used.get()) : -1;
+    }
+
+    private Counter counter(long userId, LocalDate day) {
+        Counter counter = counters.get(userId);
+        if (counter != null && counter.day.equals(day)) {
+            return counter;
+        }
+        // 在映射外查库，避免阻塞同一分段上的其他用户
+        Counter loaded = new Counter(day, loader.applyAsInt(userId, day));
+        return counters.merge(userId, loaded, (existing, fresh) -> existing.day.equals(day) ? existing : fresh);
+    }
+
+    private static final class Counter {
+
+        private final LocalDate day;
+
+        private final AtomicInteger used;
+
+        private Counter(LocalDate day, int used) {
+            this.day = day;
+            this.used = new AtomicInteger(used);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.denwon.crm.module.duplicate.controller;
+
+import com.denwon.crm.common.response.ApiResponse;
+import com.denwon.crm.common.task.BackgroundTasks;
+import com.denwon.crm.module.duplicate.dto.DuplicateCheckRequest;
+import com.denwon.crm.module.duplicate.dto.DuplicateCheckResult;
+import com.denwon.crm.module.duplicate.service.DuplicateIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 查重控制器
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/duplicates")
+@RequiredArgsConstructor
+public class DuplicateController {
+    
+    private final DuplicateIndexService duplicateIndexService;
+    private final BackgroundTasks backgroundTasks;
+    
+    /**
+     * 线索、联系人表单的“可能重复”提示，只查内存索引
+     */
+    @PostMapping("/check")
+    @PreAuthorize("hasPermission(null, 'lead.view') or hasPermission(null, 'customer.view')")
+    public ApiResponse<DuplicateCheckResult> check(@RequestBody DuplicateCheckRequest request) {
+        try {
+            return ApiResponse.success(duplicateIndexService.check(request));
+        } catch (Exception e) {
+            log.error("查重失败: {}", e.getMessage());
+            return ApiResponse.error("查重失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 全量重建查重索引（后台执行）
+     */
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasPermission(null, 'system.manage')")
+    public ApiResponse<Void> rebuild() {
+        if (!backgroundTasks.submit("duplicate-index-rebuild", duplicateIndexService::rebuild)) {
+            return ApiResponse.error("查重索引重建正在进行，请稍后再试");
+        }
+        return ApiResponse.success("查重索引重建已开始", null);
+    }
+}
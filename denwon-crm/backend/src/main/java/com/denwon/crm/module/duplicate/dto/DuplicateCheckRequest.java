@@ -0,0 +1,31 @@
+package com.denwon.crm.module.duplicate.dto;
+
+import com.denwon.crm.module.duplicate.service.DuplicateIndexService.RecordType;
+import lombok.Data;
+
+/**
+ * 查重请求，字段为表单上的原始输入
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+public class DuplicateCheckRequest {
+    
+    private String mobile;
+    
+    private String phone;
+    
+    private String email;
+    
+    private String companyName;
+    
+    private String region;
+    
+    /**
+     * 编辑已有记录时排除自身
+     */
+    private RecordType excludeType;
+    
+    private Long excludeId;
+}
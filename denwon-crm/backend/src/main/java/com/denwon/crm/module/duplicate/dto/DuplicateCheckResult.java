@@ -0,0 +1,41 @@
+package com.denwon.crm.module.duplicate.dto;
+
+import com.denwon.crm.module.duplicate.service.DuplicateIndexService.RecordType;
+import com.denwon.crm.module.duplicate.service.DuplicateKeys;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 查重结果，只包含命中记录的类型和ID，详情由前端按需加载
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateCheckResult {
+    
+    /**
+     * 索引是否已完成加载，未完成时结果可能不全
+     */
+    private boolean ready;
+    
+    private List<Hit> hits;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hit {
+        
+        private RecordType type;
+        
+        private Long id;
+        
+        private Set<DuplicateKeys.Field> matchedOn;
+    }
+}
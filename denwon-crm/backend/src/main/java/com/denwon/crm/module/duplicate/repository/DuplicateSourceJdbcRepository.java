@@ -0,0 +1,77 @@
+package com.denwon.crm.module.duplicate.repository;
+
+import com.denwon.crm.module.duplicate.service.DuplicateIndexService.RecordType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * 查重索引数据源
+ * 以游标方式流式读取线索、联系人、客户的查重字段，不把整表加载到内存
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class DuplicateSourceJdbcRepository {
+
+    private static final int FETCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 读取全部未删除的记录（PostgreSQL只在事务内按fetchSize分批返回）
+     */
+    @Transactional(readOnly = true)
+    public void streamActive(RecordType type, Consumer<SourceRow> consumer) {
+        stream(select(type) + " WHERE deleted IS NOT TRUE", null, consumer);
+    }
+
+    /**
+     * 读取指定时间之后变更的记录，包括已软删除的
+     */
+    @Transactional(readOnly = true)
+    public void streamChangedSince(RecordType type, LocalDateTime since, Consumer<SourceRow> consumer) {
+        stream(select(type) + " WHERE updated_at >= ?", Timestamp.valueOf(since), consumer);
+    }
+
+    private void stream(String sql, Timestamp since, Consumer<SourceRow> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            if (since != null) {
+                statement.setTimestamp(1, since);
+            }
+            return statement;
+        }, rs -> {
+            consumer.accept(new SourceRow(rs.getLong("id"), rs.getBoolean("deleted"),
+                rs.getString("mobile"), rs.getString("phone"), rs.getString("email"),
+                rs.getString("company_name"), rs.getString("region")));
+        });
+    }
+
+    private static String select(RecordType type) {
+        return switch (type) {
+            case LEAD -> "SELECT id, COALESCE(deleted, FALSE) AS deleted, mobile, phone, email, " +
+                "customer_name AS company_name, region FROM leads";
+            case CONTACT -> "SELECT id, COALESCE(deleted, FALSE) AS deleted, mobile, phone, email, " +
+                "NULL AS company_name, NULL AS region FROM contacts";
+            case CUSTOMER -> "SELECT id, COALESCE(deleted, FALSE) AS deleted, NULL AS mobile, NULL AS phone, " +
+                "NULL AS email, name AS company_name, region FROM customers";
+        };
+    }
+
+    /**
+     * 查重字段（原始值）
+     */
+    public record SourceRow(long id, boolean deleted, String mobile, String phone, String email,
+                            String companyName, String region) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.denwon.crm.module.duplicate.service;
+
+import com.denwon.crm.common.entity.BaseEntity;
+import com.denwon.crm.module.customer.entity.Contact;
+import com.denwon.crm.module.customer.entity.Customer;
+import com.denwon.crm.module.duplicate.service.DuplicateIndexService.RecordType;
+import com.denwon.crm.module.lead.entity.Lead;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 线索/联系人/客户实体监听器
+ * 写入时按当时的字段计算查重键，事务提交后再更新查重索引，回滚的修改不会进入索引
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class DuplicateIndexListener {
+
+    private final DuplicateIndexService duplicateIndexService;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(BaseEntity entity) {
+        if (entity.getId() == null) {
+            return;
+        }
+        if (Boolean.TRUE.equals(entity.getDeleted())) {
+            onRemove(entity);
+            return;
+        }
+
+        long id = entity.getId();
+        if (entity instanceof Lead lead) {
+            long[] keys = DuplicateKeys.of(lead.getMobile(), lead.getPhone(), lead.getEmail(),
+                lead.getCustomerName(), lead.getRegion());
+            afterCommit(() -> duplicateIndexService.index(RecordType.LEAD, id, keys));
+        } else if (entity instanceof Contact contact) {
+            long[] keys = DuplicateKeys.of(contact.getMobile(), contact.getPhone(), contact.getEmail(), null, null);
+            afterCommit(() -> duplicateIndexService.index(RecordType.CONTACT, id, keys));
+        } else if (entity instanceof Customer customer) {
+            long[] keys = DuplicateKeys.of(null, null, null, customer.getName(), customer.getRegion());
+            afterCommit(() -> duplicateIndexService.index(RecordType.CUSTOMER, id, keys));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(BaseEntity entity) {
+        RecordType type = entity instanceof Lead ? RecordType.LEAD
+            : entity instanceof Contact ? RecordType.CONTACT
+            : entity instanceof Customer ? RecordType.CUSTOMER : null;
+        if (type != null && entity.getId() != null) {
+            long id = entity.getId();
+            afterCommit(() -> duplicateIndexService.remove(type, id));
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.denwon.crm.module.duplicate.service;
+
+import com.denwon.crm.module.duplicate.dto.DuplicateCheckRequest;
+import com.denwon.crm.module.duplicate.dto.DuplicateCheckResult;
+
+/**
+ * 查重索引服务接口
+ * 线索、联系人、客户的查重键常驻内存，表单上的“可能重复”提示不访问数据库
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public interface DuplicateIndexService {
+    
+    /**
+     * 参与查重的记录类型
+     */
+    enum RecordType {
+        LEAD, CONTACT, CUSTOMER
+    }
+    
+    /**
+     * 按表单输入查找可能重复的记录
+     */
+    DuplicateCheckResult check(DuplicateCheckRequest request);
+    
+    /**
+     * 新增或更新一条记录的查重键，keys为 {@link DuplicateKeys} 计算的结果，0会被忽略
+     */
+    void index(RecordType type, long id, long... keys);
+    
+    /**
+     * 移除一条记录
+     */
+    void remove(RecordType type, long id);
+    
+    /**
+     * 从数据库全量重建索引
+     */
+    void rebuild();
+}
@@ -0,0 +1,96 @@
+package com.denwon.crm.module.duplicate.service;
+
+import com.denwon.crm.util.NormalizeUtils;
+import com.denwon.crm.util.PinyinUtils;
+
+import java.util.regex.Pattern;
+
+/**
+ * 查重键
+ * 各字段规范化后计算64位哈希，0表示字段为空或无效：
+ * <ul>
+ *   <li>电话：手机号去掉+86等前缀后取11位，座机只保留数字；手机号写在电话栏也能命中</li>
+ *   <li>邮箱：去空白并转小写</li>
+ *   <li>公司：去掉标点、开头的省市和“有限公司”等后缀后折叠为拼音，与地区（去掉省、市后缀）组合，
+ *       同音错字、全半角、括号差异都落在同一个键上</li>
+ * </ul>
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public final class DuplicateKeys {
+
+    /**
+     * 查重字段
+     */
+    public enum Field {
+        PHONE, EMAIL, COMPANY
+    }
+
+    private static final Pattern NON_DIGIT = Pattern.compile("\\D+");
+
+    private DuplicateKeys() {
+    }
+
+    /**
+     * 一条记录的全部查重键，顺序为手机、电话、邮箱、公司
+     */
+    public static long[] of(String mobile, String phone, String email, String companyName, String region) {
+        return new long[]{phone(mobile), phone(phone), email(email), company(companyName, region)};
+    }
+
+    /**
+     * 手机号或座机
+     */
+    public static long phone(String value) {
+        String mobile = NormalizeUtils.mobile(value);
+        if (mobile != null) {
+            return hash('p', mobile);
+        }
+        if (value == null) {
+            return 0;
+        }
+        String digits = NON_DIGIT.matcher(value).replaceAll("");
+        if (digits.startsWith("0086")) {
+            digits = "0" + digits.substring(4);
+        } else if (digits.startsWith("86") && digits.length() > 11) {
+            digits = "0" + digits.substring(2);
+        }
+        return digits.length() >= 7 && digits.length() <= 12 ? hash('p', digits) : 0;
+    }
+
+    public static long email(String value) {
+        String email = NormalizeUtils.email(value);
+        return email != null ? hash('e', email) : 0;
+    }
+
+    public static long company(String name, String region) {
+        String core = NormalizeUtils.companyCore(name);
+        if (core == null) {
+            return 0;
+        }
+        String company = PinyinUtils.fold(core);
+        if (company.isEmpty()) {
+            return 0;
+        }
+        String regionKey = NormalizeUtils.regionKey(region);
+        return hash('c', company + '|' + (regionKey != null ? PinyinUtils.fold(regionKey) : ""));
+    }
+
+    /**
+     * FNV-1a后再做一次murmur3收尾混合，结果不为0
+     */
+    private static long hash(char kind, String value) {
+        long h = 0xcbf29ce484222325L;
+        h = (h ^ kind) * 0x100000001b3L;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h != 0 ? h : 1;
+    }
+}
@@ -0,0 +1,293 @@
+package com.denwon.crm.module.duplicate.service.impl;
+
+import com.denwon.crm.common.task.BackgroundTasks;
+import com.denwon.crm.module.duplicate.dto.DuplicateCheckRequest;
+import com.denwon.crm.module.duplicate.dto.DuplicateCheckResult;
+import com.denwon.crm.module.duplicate.repository.DuplicateSourceJdbcRepository;
+import com.denwon.crm.module.duplicate.repository.DuplicateSourceJdbcRepository.SourceRow;
+import com.denwon.crm.module.duplicate.service.DuplicateIndexService;
+import com.denwon.crm.module.duplicate.service.DuplicateKeys;
+import com.denwon.crm.module.duplicate.service.DuplicateKeys.Field;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 查重索引服务实现
+ * 两张 {@link LongListMap}：查重键 → 记录引用，记录引用 → 查重键（更新时据此删除旧键）。
+ * 记录引用为“类型序号 << 56 | ID”，同一张表即可容纳三种记录。
+ * <ul>
+ *   <li>启动后在后台线程全量加载，期间的增量变更先应用到旧索引并记录，加载完成后重放再切换</li>
+ *   <li>本实例的写入由实体监听器在事务提交后更新；其他实例和JDBC批量写入（如线索导入）
+ *       按updated_at定时同步；每天全量重建一次，修正物理删除等遗漏</li>
+ * </ul>
+ * 64位哈希冲突的概率可以忽略，结果仅作为提示，不用于拦截写入
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DuplicateIndexServiceImpl implements DuplicateIndexService {
+
+    private static final int TYPE_SHIFT = 56;
+
+    private static final long ID_MASK = (1L << TYPE_SHIFT) - 1;
+
+    private static final int MAX_HITS = 50;
+
+    private static final RecordType[] TYPES = RecordType.values();
+
+    private final DuplicateSourceJdbcRepository sourceRepository;
+    private final MeterRegistry meterRegistry;
+    private final BackgroundTasks backgroundTasks;
+
+    @Value("${app.duplicate-index.expected-records:100000}")
+    private int expectedRecords;
+
+    @Value("${app.duplicate-index.sync-overlap:10}")
+    private long syncOverlapSeconds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * 查重键 → 记录引用
+     */
+    private LongListMap keyIndex = new LongListMap(16);
+
+    /**
+     * 记录引用 → 查重键
+     */
+    private LongListMap recordIndex = new LongListMap(16);
+
+    /**
+     * 重建期间的增量变更，非null表示正在重建
+     */
+    private List<Mutation> pending;
+
+    private volatile boolean ready;
+
+    private volatile LocalDateTime syncedAt;
+
+    private Timer checkTimer;
+
+    @PostConstruct
+    public void init() {
+        checkTimer = Timer.builder("crm.duplicate.check")
+            .description("Duplicate hint lookup time")
+            .register(meterRegistry);
+        Gauge.builder("crm.duplicate.index.records", this, service -> service.sizeOf(true))
+            .description("Records in the duplicate index")
+            .register(meterRegistry);
+        Gauge.builder("crm.duplicate.index.keys", this, service -> service.sizeOf(false))
+            .description("Distinct keys in the duplicate index")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 启动完成后在后台加载，不阻塞启动
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!backgroundTasks.submit("duplicate-index-rebuild", this::rebuild)) {
+            log.warn("查重索引初始加载未能提交，将在下次定时重建时加载");
+        }
+    }
+
+    @Override
+    public DuplicateCheckResult check(DuplicateCheckRequest request) {
+        long start = System.nanoTime();
+
+        long[] keys = {
+            DuplicateKeys.phone(request.getMobile()),
+            DuplicateKeys.phone(request.getPhone()),
+            DuplicateKeys.email(request.getEmail()),
+            DuplicateKeys.company(request.getCompanyName(), request.getRegion())
+        };
+        Field[] fields = {Field.PHONE, Field.PHONE, Field.EMAIL, Field.COMPANY};
+        long exclude = request.getExcludeType() != null && request.getExcludeId() != null
+            ? ref(request.getExcludeType(), request.getExcludeId()) : 0;
+
+        Map<Long, Set<Field>> matches = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == 0) {
+                    continue;
+                }
+                for (long ref : keyIndex.get(keys[i])) {
+                    if (ref != exclude && (matches.size() < MAX_HITS || matches.containsKey(ref))) {
+                        matches.computeIfAbsent(ref, r -> EnumSet.noneOf(Field.class)).add(fields[i]);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<DuplicateCheckResult.Hit> hits = new ArrayList<>(matches.size());
+        matches.forEach((ref, matchedOn) ->
+            hits.add(new DuplicateCheckResult.Hit(TYPES[(int) (ref >>> TYPE_SHIFT) - 1], ref & ID_MASK, matchedOn)));
+        checkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new DuplicateCheckResult(ready, hits);
+    }
+
+    @Override
+    public void index(RecordType type, long id, long... keys) {
+        long ref = ref(type, id);
+        apply((keyMap, recordMap) -> put(keyMap, recordMap, ref, keys));
+    }
+
+    @Override
+    public void remove(RecordType type, long id) {
+        long ref = ref(type, id);
+        apply((keyMap, recordMap) -> put(keyMap, recordMap, ref, LongListMap.EMPTY));
+    }
+
+    @Override
+    @Scheduled(cron = "${app.duplicate-index.rebuild-cron:0 0 4 * * ?}")
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        LocalDateTime startedAt = LocalDateTime.now();
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            LongListMap keys = new LongListMap(expectedRecords * 3);
+            LongListMap records = new LongListMap(expectedRecords);
+            for (RecordType type : TYPES) {
+                sourceRepository.streamActive(type, row -> put(keys, records, ref(type, row.id()), keysOf(row)));
+            }
+
+            lock.writeLock().lock();
+            try {
+                pending.forEach(mutation -> mutation.apply(keys, records));
+                keyIndex = keys;
+                recordIndex = records;
+                ready = true;
+            } finally {
+                pending = null;
+                lock.writeLock().unlock();
+            }
+            syncedAt = startedAt;
+            log.info("查重索引已重建: {}条记录，{}个键，耗时{}ms",
+                records.size(), keys.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("查重索引重建失败", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 同步最近变更的记录（其他实例写入、JDBC批量写入、软删除）。
+     * 向前多取一段重叠时间，覆盖提交晚于updated_at的事务；重复应用没有副作用
+     */
+    @Scheduled(fixedDelayString = "${app.duplicate-index.sync-interval:5000}")
+    public void sync() {
+        LocalDateTime since = syncedAt;
+        if (!ready || since == null || rebuilding.get()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (RecordType type : TYPES) {
+            sourceRepository.streamChangedSince(type, since.minusSeconds(syncOverlapSeconds), row -> {
+                if (row.deleted()) {
+                    remove(type, row.id());
+                } else {
+                    index(type, row.id(), keysOf(row));
+                }
+            });
+        }
+        syncedAt = now;
+    }
+
+    /**
+     * 指标采集线程读取索引大小，与写入同样需要加锁
+     */
+    private int sizeOf(boolean records) {
+        lock.readLock().lock();
+        try {
+            return records ? recordIndex.size() : keyIndex.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Mutation mutation) {
+        lock.writeLock().lock();
+        try {
+            mutation.apply(keyIndex, recordIndex);
+            if (pending != null) {
+                pending.add(mutation);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void put(LongListMap keyMap, LongListMap recordMap, long ref, long[] keys) {
+        for (long oldKey : recordMap.removeAll(ref)) {
+            keyMap.remove(oldKey, ref);
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                keyMap.add(key, ref);
+                recordMap.add(ref, key);
+            }
+        }
+    }
+
+    private static long[] keysOf(SourceRow row) {
+        return DuplicateKeys.of(row.mobile(), row.phone(), row.email(), row.companyName(), row.region());
+    }
+
+    private static long ref(RecordType type, long id) {
+        return ((long) (type.ordinal() + 1) << TYPE_SHIFT) | (id & ID_MASK);
+    }
+
+    /**
+     * 对索引的一次修改，重建期间会在新索引上重放
+     */
+    @FunctionalInterface
+    private interface Mutation {
+        void apply(LongListMap keyMap, LongListMap recordMap);
+    }
+}
@@ -0,0 +1,251 @@
+package com.denwon.crm.module.duplicate.service.impl;
+
+import java.util.Arrays;
+
+/**
+ * long → long列表的开放寻址哈希表（线性探测，删除时回移，无墓碑）
+ * 绝大多数键只对应一个值，直接存放在槽位中；多个值时由并行的listSlots记录溢出列表的下标（加1，0表示单值），
+ * 因此值可以是任意long（包括负数的哈希键）。
+ * 键不能为0；非线程安全，由调用方加锁
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+final class LongListMap {
+
+    static final long[] EMPTY = new long[0];
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+
+    private long[] values;
+
+    /**
+     * 溢出列表下标加1，0表示槽位中直接存放单个值
+     */
+    private int[] listSlots;
+
+    private int mask;
+
+    private int size;
+
+    private int threshold;
+
+    private long[][] lists = new long[16][];
+
+    private int[] freeLists = new int[16];
+
+    private int freeCount;
+
+    private int listCount;
+
+    LongListMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 返回键对应值的副本
+     */
+    long[] get(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return EMPTY;
+        }
+        int list = listSlots[slot];
+        return list == 0 ? new long[]{values[slot]} : lists[list - 1].clone();
+    }
+
+    void add(long key, long value) {
+        int slot = find(key);
+        if (slot < 0) {
+            insert(key, value);
+            return;
+        }
+        if (listSlots[slot] == 0) {
+            long current = values[slot];
+            if (current != value) {
+                listSlots[slot] = newList(new long[]{current, value}) + 1;
+                values[slot] = 0;
+            }
+            return;
+        }
+        int listIndex = listSlots[slot] - 1;
+        long[] list = lists[listIndex];
+        for (long existing : list) {
+            if (existing == value) {
+                return;
+            }
+        }
+        long[] grown = Arrays.copyOf(list, list.length + 1);
+        grown[list.length] = value;
+        lists[listIndex] = grown;
+    }
+
+    void remove(long key, long value) {
+        int slot = find(key);
+        if (slot < 0) {
+            return;
+        }
+        if (listSlots[slot] == 0) {
+            if (values[slot] == value) {
+                delete(slot);
+            }
+            return;
+        }
+
+        int listIndex = listSlots[slot] - 1;
+        long[] list = lists[listIndex];
+        int position = -1;
+        for (int i = 0; i < list.length; i++) {
+            if (list[i] == value) {
+                position = i;
+                break;
+            }
+        }
+        if (position < 0) {
+            return;
+        }
+        if (list.length == 2) {
+            values[slot] = list[1 - position];
+            listSlots[slot] = 0;
+            freeList(listIndex);
+            return;
+        }
+        long[] shrunk = new long[list.length - 1];
+        System.arraycopy(list, 0, shrunk, 0, position);
+        System.arraycopy(list, position + 1, shrunk, position, list.length - position - 1);
+        lists[listIndex] = shrunk;
+    }
+
+    /**
+     * 删除键并返回原来的值
+     */
+    long[] removeAll(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return EMPTY;
+        }
+        int list = listSlots[slot];
+        long[] removed;
+        if (list == 0) {
+            removed = new long[]{values[slot]};
+        } else {
+            removed = lists[list - 1];
+            freeList(list - 1);
+        }
+        delete(slot);
+        return removed;
+    }
+
+    private int find(long key) {
+        int slot = slot(key);
+        while (true) {
+            long current = keys[slot];
+            if (current == key) {
+                return slot;
+            }
+            if (current == 0) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void insert(long key, long value) {
+        if (size >= threshold) {
+            rehash(keys.length << 1);
+        }
+        int slot = slot(key);
+        while (keys[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * 删除槽位，并把后面探测链上可以前移的条目回填到空位，保证查找不中断
+     */
+    private void delete(int slot) {
+        size--;
+        int gap = slot;
+        int i = slot;
+        while (true) {
+            i = (i + 1) & mask;
+            long key = keys[i];
+            if (key == 0) {
+                break;
+            }
+            int home = slot(key);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = key;
+                values[gap] = values[i];
+                listSlots[gap] = listSlots[i];
+                gap = i;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = 0;
+        listSlots[gap] = 0;
+    }
+
+    private int newList(long[] list) {
+        int index;
+        if (freeCount > 0) {
+            index = freeLists[--freeCount];
+        } else {
+            if (listCount == lists.length) {
+                lists = Arrays.copyOf(lists, listCount << 1);
+            }
+            index = listCount++;
+        }
+        lists[index] = list;
+        return index;
+    }
+
+    private void freeList(int index) {
+        lists[index] = null;
+        if (freeCount == freeLists.length) {
+            freeLists = Arrays.copyOf(freeLists, freeCount << 1);
+        }
+        freeLists[freeCount++] = index;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        int[] oldListSlots = listSlots;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                listSlots[slot] = oldListSlots[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        listSlots = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9e3779b97f4a7c15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,129 @@
+package com.denwon.crm.module.lead.controller;
+
+import com.denwon.crm.common.exception.BusinessException;
+import com.denwon.crm.common.response.ApiResponse;
+import com.denwon.crm.module.lead.dto.LeadAssignRequest;
+import com.denwon.crm.module.lead.dto.LeadAssignResultDTO;
+import com.denwon.crm.module.lead.dto.LeadImportDTO;
+import com.denwon.crm.module.lead.dto.LeadImportQueryRequest;
+import com.denwon.crm.module.lead.service.LeadAssignmentService;
+import com.denwon.crm.module.lead.service.LeadImportService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+/**
+ * 线索控制器
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/leads")
+@RequiredArgsConstructor
+public class LeadController {
+
+    private final LeadImportService leadImportService;
+    private final LeadAssignmentService leadAssignmentService;
+
+    /**
+     * 上传文件批量导入线索，立即返回任务，进度通过任务接口查询
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasPermission(null, 'lead.create')")
+    public ApiResponse<LeadImportDTO> importLeads(@RequestParam("file") MultipartFile file,
+                                                  @RequestParam String source,
+                                                  @RequestParam(required = false) String channel,
+                                                  @RequestParam(required = false) String charset,
+                                                  HttpServletResponse httpResponse) {
+        try {
+            LeadImportDTO job = leadImportService.submit(file, source, channel, charset);
+            httpResponse.setStatus(HttpStatus.ACCEPTED.value());
+            return ApiResponse.success("导入任务已创建", job);
+        } catch (BusinessException e) {
+            return ApiResponse.error(e.getCode(), "导入失败: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("线索导入失败: {}", e.getMessage());
+            return ApiResponse.error("导入失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 查询导入进度
+     */
+    @PostMapping("/import/get")
+    @PreAuthorize("hasPermission(null, 'lead.create')")
+    public ApiResponse<LeadImportDTO> getImport(@Valid @RequestBody LeadImportQueryRequest request) {
+        try {
+            return ApiResponse.success(leadImportService.getProgress(request.getId()));
+        } catch (Exception e) {
+            log.error("查询导入任务失败: {}", e.getMessage());
+            return ApiResponse.error("查询导入任务失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 分页查询错误和重复行
+     */
+    @PostMapping("/import/errors")
+    @PreAuthorize("hasPermission(null, 'lead.create')")
+    public ApiResponse<List<LeadImportDTO.RowError>> getImportErrors(@Valid @RequestBody LeadImportQueryRequest request) {
+        try {
+            return ApiResponse.success(leadImportService.getErrors(request.getId(), request.getPage(), request.getSize()));
+        } catch (Exception e) {
+            log.error("查询导入错误失败: {}", e.getMessage());
+            return ApiResponse.error("查询导入错误失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 从断点继续失败的导入任务
+     */
+    @PostMapping("/import/resume")
+    @PreAuthorize("hasPermission(null, 'lead.create')")
+    public ApiResponse<LeadImportDTO> resumeImport(@Valid @RequestBody LeadImportQueryRequest request) {
+        try {
+            return ApiResponse.success("导入任务已继续", leadImportService.resume(request.getId()));
+        } catch (Exception e) {
+            log.error("继续导入任务失败: {}", e.getMessage());
+            return ApiResponse.error("继续导入任务失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 按分配规则批量分配线索
+     */
+    @PostMapping("/assign")
+    @PreAuthorize("hasPermission(null, 'lead.assign')")
+    public ApiResponse<LeadAssignResultDTO> assign(@Valid @RequestBody LeadAssignRequest request) {
+        try {
+            return ApiResponse.success(leadAssignmentService.assign(request.getLeadIds()));
+        } catch (Exception e) {
+            log.error("线索分配失败: {}", e.getMessage());
+            return ApiResponse.error("线索分配失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 修改分配规则后立即重新编译（其他节点定时同步）
+     */
+    @PostMapping("/assignment-rules/reload")
+    @PreAuthorize("hasPermission(null, 'system.manage')")
+    public ApiResponse<Void> reloadAssignmentRules() {
+        try {
+            leadAssignmentService.reload();
+            return ApiResponse.success("分配规则已重新加载", null);
+        } catch (Exception e) {
+            log.error("重新加载分配规则失败: {}", e.getMessage());
+            return ApiResponse.error("重新加载分配规则失败: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.denwon.crm.module.lead.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 线索批量分配请求
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+public class LeadAssignRequest {
+    
+    @NotEmpty(message = "请选择要分配的线索")
+    @Size(max = 10000, message = "单次最多分配10000条线索")
+    private List<Long> leadIds;
+}
@@ -0,0 +1,39 @@
+package com.denwon.crm.module.lead.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 线索分配结果DTO
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadAssignResultDTO {
+    
+    /**
+     * 请求分配的线索数
+     */
+    private Integer requested;
+    
+    /**
+     * 本次分配成功的线索数
+     */
+    private Integer assigned;
+    
+    /**
+     * 没有规则命中的线索数
+     */
+    private Integer unmatched;
+    
+    /**
+     * 不存在、已删除或已分配而跳过的线索数
+     */
+    private Integer skipped;
+}
@@ -0,0 +1,91 @@
+package com.denwon.crm.module.lead.dto;
+
+import com.denwon.crm.module.lead.entity.LeadImportJob;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 线索导入进度DTO
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadImportDTO {
+    
+    private Long id;
+    
+    private String fileName;
+    
+    private String status; // PENDING, PARSING, DEDUPING, INSERTING, COMPLETED, FAILED
+    
+    /**
+     * 已解析行数（含错误行）
+     */
+    private Integer parsedRows;
+    
+    private Integer errorRows;
+    
+    private Integer duplicateRows;
+    
+    private Integer insertedRows;
+    
+    /**
+     * 已解析但尚未入库的有效行
+     */
+    private Integer pendingRows;
+    
+    private String errorMessage;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startedAt;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime finishedAt;
+    
+    public static LeadImportDTO of(LeadImportJob job) {
+        int parsed = job.getParsedRows() != null ? job.getParsedRows() : 0;
+        int errors = job.getErrorRows() != null ? job.getErrorRows() : 0;
+        int duplicates = job.getDuplicateRows() != null ? job.getDuplicateRows() : 0;
+        int inserted = job.getInsertedRows() != null ? job.getInsertedRows() : 0;
+        return LeadImportDTO.builder()
+            .id(job.getId())
+            .fileName(job.getFileName())
+            .status(job.getStatus())
+            .parsedRows(parsed)
+            .errorRows(errors)
+            .duplicateRows(duplicates)
+            .insertedRows(inserted)
+            .pendingRows(Math.max(0, parsed - errors - duplicates - inserted))
+            .errorMessage(job.getErrorMessage())
+            .startedAt(job.getStartedAt())
+            .finishedAt(job.getFinishedAt())
+            .build();
+    }
+    
+    /**
+     * 错误或重复行
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private Integer rowNo;
+        private String status; // INVALID, DUPLICATE
+        private String error;
+        private String customerName;
+        private String contactName;
+        private String mobile;
+        private String email;
+        private Long leadId; // 重复时为已有线索ID
+    }
+}
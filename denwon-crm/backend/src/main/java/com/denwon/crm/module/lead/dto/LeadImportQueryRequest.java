@@ -0,0 +1,29 @@
+package com.denwon.crm.module.lead.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * 导入任务请求：查询进度、分页查询错误行、继续任务
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+public class LeadImportQueryRequest {
+    
+    @NotNull(message = "导入任务ID不能为空")
+    private Long id;
+    
+    /**
+     * 错误行页码，从0开始
+     */
+    @Min(value = 0, message = "页码不能小于0")
+    private int page = 0;
+    
+    @Min(value = 1, message = "每页至少1行")
+    @Max(value = 1000, message = "每页最多1000行")
+    private int size = 100;
+}
@@ -1,7 +1,9 @@
 package com.denwon.crm.module.lead.entity;
 
 import com.denwon.crm.common.entity.BaseEntity;
+import com.denwon.crm.common.entity.DataScoped;
 import com.denwon.crm.module.customer.entity.Customer;
+import com.denwon.crm.module.duplicate.service.DuplicateIndexListener;
 import com.denwon.crm.module.system.entity.User;
 import jakarta.persistence.*;
 import lombok.*;
@@ -15,7 +17,9 @@ import java.time.LocalDateTime;
  * @since 1.0.0
  */
 @Entity
+@EntityListeners(DuplicateIndexListener.class)
 @Table(name = "leads")
+@DataScoped
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -0,0 +1,104 @@
+package com.denwon.crm.module.lead.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 线索导入任务实体
+ * 同时作为断点：last_row_no及之前的行已提交到暂存表，重启后从下一行继续
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "lead_import_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeadImportJob {
+    
+    public static final String PENDING = "PENDING";
+    public static final String PARSING = "PARSING";
+    public static final String DEDUPING = "DEDUPING";
+    public static final String INSERTING = "INSERTING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+    
+    @Column(name = "file_type", nullable = false, length = 10)
+    private String fileType; // CSV, XLSX
+    
+    @Column(name = "file_path", nullable = false, length = 500)
+    private String filePath;
+    
+    @Column(length = 20)
+    private String charset;
+    
+    @Column(nullable = false, length = 50)
+    private String source;
+    
+    @Column(length = 50)
+    private String channel;
+    
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private String status = PENDING;
+    
+    @Column(name = "last_row_no")
+    @Builder.Default
+    private Integer lastRowNo = 0;
+    
+    @Column(name = "parsed_rows")
+    @Builder.Default
+    private Integer parsedRows = 0;
+    
+    @Column(name = "error_rows")
+    @Builder.Default
+    private Integer errorRows = 0;
+    
+    @Column(name = "duplicate_rows")
+    @Builder.Default
+    private Integer duplicateRows = 0;
+    
+    @Column(name = "inserted_rows")
+    @Builder.Default
+    private Integer insertedRows = 0;
+    
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+    
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    @Column(name = "owner_id")
+    private Long ownerId;
+    
+    @Column(name = "org_unit_id")
+    private Long orgUnitId;
+    
+    @Column(name = "created_by", updatable = false)
+    private Long createdBy;
+    
+    @Column(name = "created_at", updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    @Column(name = "updated_at")
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
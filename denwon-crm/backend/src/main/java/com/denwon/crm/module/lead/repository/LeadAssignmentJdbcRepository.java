@@ -0,0 +1,118 @@
+package com.denwon.crm.module.lead.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 线索分配数据访问
+ * 规则、轮转游标和批量分配均用JDBC，分配结果用一条 UPDATE ... FROM unnest 写入
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class LeadAssignmentJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<RuleRow> findActiveRules() {
+        return jdbcTemplate.query(
+            "SELECT id, name, type, conditions::text AS conditions, assignments::text AS assignments, priority " +
+                "FROM lead_assignment_rules WHERE is_active IS TRUE ORDER BY priority DESC, id",
+            (rs, i) -> new RuleRow(rs.getLong("id"), rs.getString("name"), rs.getString("type"),
+                rs.getString("conditions"), rs.getString("assignments"), rs.getInt("priority")));
+    }
+
+    /**
+     * 规则表的变更签名，用于发现其他节点的修改
+     */
+    public String rulesSignature() {
+        return jdbcTemplate.queryForObject(
+            "SELECT count(*) || ':' || COALESCE(max(updated_at)::text, '') || ':' || COALESCE(sum(id), 0) " +
+                "FROM lead_assignment_rules WHERE is_active IS TRUE",
+            String.class);
+    }
+
+    /**
+     * 可分配的（启用、未删除）用户
+     */
+    public List<Long> findActiveUserIds(Long[] userIds) {
+        return jdbcTemplate.queryForList(
+            "SELECT id FROM users WHERE id = ANY(?) AND status = 1 AND deleted IS NOT TRUE",
+            Long.class, (Object) userIds);
+    }
+
+    /**
+     * 租用count个游标位置，返回区间起始位置；多节点并发时由行锁串行化
+     */
+    public long leaseCursor(long ruleId, long count) {
+        Long start = jdbcTemplate.queryForObject(
+            "INSERT INTO lead_assignment_cursors (rule_id, position, updated_at) VALUES (?, ?, now()) " +
+                "ON CONFLICT (rule_id) DO UPDATE SET position = lead_assignment_cursors.position + EXCLUDED.position, " +
+                "updated_at = now() " +
+                "RETURNING position - ?",
+            Long.class, ruleId, count, count);
+        return start != null ? start : 0;
+    }
+
+    /**
+     * 指定线索中未分配、未删除的
+     */
+    public List<LeadRow> findUnassigned(Long[] leadIds) {
+        return jdbcTemplate.query(
+            "SELECT id, region, source FROM leads " +
+                "WHERE id = ANY(?) AND assigned_to IS NULL AND deleted IS NOT TRUE ORDER BY id",
+            (rs, i) -> new LeadRow(rs.getLong("id"), rs.getString("region"), rs.getString("source")),
+            (Object) leadIds);
+    }
+
+    /**
+     * 导入任务写入的、行号大于afterRowNo的未分配线索，按行号排列
+     */
+    public List<ImportedRow> findUnassignedImported(long jobId, int afterRowNo, int limit) {
+        return jdbcTemplate.query(
+            "SELECT s.row_no, l.id, l.region, l.source FROM lead_import_staging s JOIN leads l ON l.id = s.lead_id " +
+                "WHERE s.job_id = ? AND s.status = 'INSERTED' AND s.row_no > ? " +
+                "AND l.assigned_to IS NULL AND l.deleted IS NOT TRUE " +
+                "ORDER BY s.row_no LIMIT ?",
+            (rs, i) -> new ImportedRow(rs.getInt("row_no"),
+                new LeadRow(rs.getLong("id"), rs.getString("region"), rs.getString("source"))),
+            jobId, afterRowNo, limit);
+    }
+
+    /**
+     * 批量分配：负责人和所属组织改为被分配人；期间已被分配的线索不覆盖
+     */
+    public int assign(Long[] leadIds, Long[] userIds, Long operatorId) {
+        return jdbcTemplate.update(
+            "UPDATE leads l SET assigned_to = v.user_id, assigned_at = now(), owner_id = v.user_id, " +
+                "org_unit_id = COALESCE(u.org_unit_id, l.org_unit_id), " +
+                "status = CASE WHEN l.status = 'NEW' THEN 'ASSIGNED' ELSE l.status END, " +
+                "updated_by = ?, updated_at = now(), version = COALESCE(l.version, 0) + 1 " +
+                "FROM unnest(?::bigint[], ?::bigint[]) AS v(id, user_id) JOIN users u ON u.id = v.user_id " +
+                "WHERE l.id = v.id AND l.assigned_to IS NULL",
+            operatorId, leadIds, userIds);
+    }
+
+    /**
+     * 分配规则，conditions/assignments为JSON原文
+     */
+    public record RuleRow(long id, String name, String type, String conditions, String assignments, int priority) {
+    }
+
+    /**
+     * 参与匹配的线索字段
+     */
+    public record LeadRow(long id, String region, String source) {
+    }
+
+    /**
+     * 导入暂存行对应的线索
+     */
+    public record ImportedRow(int rowNo, LeadRow lead) {
+    }
+}
@@ -0,0 +1,302 @@
+package com.denwon.crm.module.lead.repository;
+
+import com.denwon.crm.module.lead.entity.LeadImportJob;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.StringReader;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 线索导入暂存表访问
+ * 解析结果用COPY写入暂存表，查重和入库都是基于集合的SQL，不逐行往返；
+ * 所有方法都可在同一事务内与任务断点一起提交，重复执行不会产生重复数据。
+ * 任务表的进度写入都以抢占时写入的claim_token为条件，返回false表示任务已被其他实例接管
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class LeadImportJdbcRepository {
+
+    public static final String PENDING = "PENDING";
+    public static final String INVALID = "INVALID";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String INSERTED = "INSERTED";
+
+    private static final String COPY_SQL =
+        "COPY lead_import_staging (job_id, row_no, customer_name, contact_name, mobile, phone, email, region, " +
+            "industry, channel, product_intent, summary, norm_customer_name, status, error) FROM STDIN WITH (FORMAT csv)";
+
+    /**
+     * 文件内查重的键，按顺序执行，保留每组中行号最小的一行
+     */
+    private static final String[][] FILE_KEYS = {
+        {"mobile", "mobile IS NOT NULL", "手机号"},
+        {"email", "email IS NOT NULL", "邮箱"},
+        {"norm_customer_name, region", "norm_customer_name IS NOT NULL", "客户名称+地区"}
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 用COPY写入一批暂存行（使用当前事务的连接）
+     */
+    public long copy(long jobId, List<StagingRow> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder csv = new StringBuilder(rows.size() * 128);
+        for (StagingRow row : rows) {
+            csv.append(jobId).append(',').append(row.rowNo());
+            appendCsv(csv, row.customerName());
+            appendCsv(csv, row.contactName());
+            appendCsv(csv, row.mobile());
+            appendCsv(csv, row.phone());
+            appendCsv(csv, row.email());
+            appendCsv(csv, row.region());
+            appendCsv(csv, row.industry());
+            appendCsv(csv, row.channel());
+            appendCsv(csv, row.productIntent());
+            appendCsv(csv, row.summary());
+            appendCsv(csv, row.normCustomerName());
+            appendCsv(csv, row.status());
+            appendCsv(csv, row.error());
+            csv.append('\n');
+        }
+
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection ->
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(csv.toString())));
+    }
+
+    /**
+     * 文件内查重：同一手机号、邮箱或客户名称+地区只保留第一行
+     */
+    public int markDuplicatesInFile(long jobId) {
+        int marked = 0;
+        for (String[] key : FILE_KEYS) {
+            marked += jdbcTemplate.update(
+                "UPDATE lead_import_staging s SET status = 'DUPLICATE', " +
+                    "error = '与文件第' || d.first_row || '行重复（" + key[2] + "）' " +
+                    "FROM (SELECT row_no, first_value(row_no) OVER (PARTITION BY " + key[0] + " ORDER BY row_no) AS first_row " +
+                    "      FROM lead_import_staging WHERE job_id = ? AND status = 'PENDING' AND " + key[1] + ") d " +
+                    "WHERE s.job_id = ? AND s.row_no = d.row_no AND d.row_no <> d.first_row",
+                jobId, jobId);
+        }
+        return marked;
+    }
+
+    /**
+     * 与已有线索查重，lead_id记录命中的线索
+     */
+    public int markDuplicatesInLeads(long jobId) {
+        int marked = jdbcTemplate.update(
+            "UPDATE lead_import_staging s SET status = 'DUPLICATE', error = '与已有线索重复（手机号）', lead_id = l.id " +
+                "FROM leads l " +
+                "WHERE s.job_id = ? AND s.status = 'PENDING' AND s.mobile IS NOT NULL " +
+                "AND l.mobile = s.mobile AND l.deleted = false",
+            jobId);
+        marked += jdbcTemplate.update(
+            "UPDATE lead_import_staging s SET status = 'DUPLICATE', error = '与已有线索重复（邮箱）', lead_id = l.id " +
+                "FROM leads l " +
+                "WHERE s.job_id = ? AND s.status = 'PENDING' AND s.email IS NOT NULL " +
+                "AND lower(l.email) = s.email AND l.deleted = false",
+            jobId);
+        marked += jdbcTemplate.update(
+            "UPDATE lead_import_staging s SET status = 'DUPLICATE', error = '与已有线索重复（客户名称+地区）', lead_id = l.id " +
+                "FROM leads l " +
+                "WHERE s.job_id = ? AND s.status = 'PENDING' AND s.norm_customer_name IS NOT NULL " +
+                "AND lead_name_key(l.customer_name) = s.norm_customer_name " +
+                "AND l.region IS NOT DISTINCT FROM s.region AND l.deleted = false",
+            jobId);
+        return marked;
+    }
+
+    /**
+     * 将最多chunkSize条待入库行写入leads并标记为已入库，返回写入行数（0表示已全部入库）。
+     * 待入库行加锁并跳过其他事务已锁定的行，同一任务不会被两个事务重复写入。
+     * 主键按pooled-lo规则从leads_id_seq成块分配，与实体插入共用同一序列；
+     * 线索编号为IMP{任务ID}-{行号}，可据此追溯来源行
+     */
+    public int insertChunk(LeadImportJob job, int chunkSize) {
+        return jdbcTemplate.update(
+            "WITH locked AS ( " +
+                "    SELECT s.* FROM lead_import_staging s " +
+                "    WHERE s.job_id = ? AND s.status = 'PENDING' " +
+                "    ORDER BY s.row_no LIMIT ? " +
+                "    FOR UPDATE SKIP LOCKED " +
+                "), batch AS ( " +
+                "    SELECT locked.*, row_number() OVER (ORDER BY locked.row_no) - 1 AS i FROM locked " +
+                "), blocks AS ( " +
+                "    SELECT row_number() OVER () - 1 AS k, nextval('leads_id_seq') AS lo " +
+                "    FROM generate_series(1, (SELECT (count(*) + 49) / 50 FROM batch)) " +
+                "), inserted AS ( " +
+                "    INSERT INTO leads (id, code, source, channel, customer_name, contact_name, mobile, phone, email, " +
+                "                       region, industry, product_intent, summary, score, status, owner_id, org_unit_id, " +
+                "                       created_by, created_at, updated_at, deleted, version) " +
+                "    SELECT b.lo + batch.i % 50, 'IMP' || batch.job_id || '-' || batch.row_no, ?::varchar, COALESCE(batch.channel, ?::varchar), " +
+                "           batch.customer_name, batch.contact_name, batch.mobile, batch.phone, batch.email, " +
+                "           batch.region, batch.industry, batch.product_intent, batch.summary, 0, 'NEW', ?::bigint, ?::bigint, " +
+                "           ?::bigint, now(), now(), false, 0 " +
+                "    FROM batch JOIN blocks b ON b.k = batch.i / 50 " +
+                "    RETURNING id, code " +
+                ") " +
+                "UPDATE lead_import_staging s SET status = 'INSERTED', lead_id = inserted.id " +
+                "FROM inserted " +
+                "WHERE s.job_id = ? AND s.row_no = split_part(inserted.code, '-', 2)::int",
+            job.getId(), chunkSize, job.getSource(), job.getChannel(), job.getOwnerId(), job.getOrgUnitId(),
+            job.getCreatedBy(), job.getId());
+    }
+
+    /**
+     * 按状态统计暂存行
+     */
+    public int countByStatus(long jobId, String status) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM lead_import_staging WHERE job_id = ? AND status = ?", Integer.class, jobId, status);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 查询错误和重复行，按行号排序
+     */
+    public List<ErrorRow> findErrors(long jobId, int offset, int limit) {
+        return jdbcTemplate.query(
+            "SELECT row_no, status, error, customer_name, contact_name, mobile, email, lead_id " +
+                "FROM lead_import_staging WHERE job_id = ? AND status IN ('INVALID', 'DUPLICATE') " +
+                "ORDER BY row_no OFFSET ? LIMIT ?",
+            (rs, i) -> new ErrorRow(rs.getInt("row_no"), rs.getString("status"), rs.getString("error"),
+                rs.getString("customer_name"), rs.getString("contact_name"), rs.getString("mobile"),
+                rs.getString("email"), (Long) rs.getObject("lead_id")),
+            jobId, offset, limit);
+    }
+
+    /**
+     * 抢占任务：未结束且心跳已过期（或从未开始）时写入心跳和抢占令牌，返回是否抢占成功
+     */
+    public boolean claim(long jobId, String token, LocalDateTime staleBefore) {
+        return jdbcTemplate.update(
+            "UPDATE lead_import_jobs SET claim_token = ?, heartbeat_at = now(), started_at = COALESCE(started_at, now()), " +
+                "updated_at = now() " +
+                "WHERE id = ? AND status NOT IN ('COMPLETED', 'FAILED') " +
+                "AND (heartbeat_at IS NULL OR heartbeat_at < ?)",
+            token, jobId, Timestamp.valueOf(staleBefore)) == 1;
+    }
+
+    /**
+     * 刷新心跳，长时间的查重或入库期间由定时任务调用
+     */
+    public boolean heartbeat(long jobId, String token) {
+        return jdbcTemplate.update(
+            "UPDATE lead_import_jobs SET heartbeat_at = now() WHERE id = ? AND claim_token = ?",
+            jobId, token) == 1;
+    }
+
+    /**
+     * 写入解析断点和计数，与对应的COPY在同一事务内提交
+     */
+    public boolean checkpoint(long jobId, String token, int lastRowNo, int parsedRows, int errorRows) {
+        return jdbcTemplate.update(
+            "UPDATE lead_import_jobs SET last_row_no = ?, parsed_rows = parsed_rows + ?, error_rows = error_rows + ?, " +
+                "heartbeat_at = now(), updated_at = now() WHERE id = ? AND claim_token = ?",
+            lastRowNo, parsedRows, errorRows, jobId, token) == 1;
+    }
+
+    /**
+     * 累加入库行数
+     */
+    public boolean addInserted(long jobId, String token, int inserted) {
+        return jdbcTemplate.update(
+            "UPDATE lead_import_jobs SET inserted_rows = inserted_rows + ?, heartbeat_at = now(), updated_at = now() " +
+                "WHERE id = ? AND claim_token = ?",
+            inserted, jobId, token) == 1;
+    }
+
+    /**
+     * 更新任务状态
+     */
+    public boolean updateStatus(long jobId, String token, String status) {
+        return jdbcTemplate.update(
+            "UPDATE lead_import_jobs SET status = ?, heartbeat_at = now(), updated_at = now(), " +
+                "finished_at = CASE WHEN ?::varchar IN ('COMPLETED', 'FAILED') THEN now() END " +
+                "WHERE id = ? AND claim_token = ?",
+            status, status, jobId, token) == 1;
+    }
+
+    /**
+     * 更新查重计数
+     */
+    public boolean updateDuplicates(long jobId, String token, int duplicateRows) {
+        return jdbcTemplate.update(
+            "UPDATE lead_import_jobs SET duplicate_rows = ?, heartbeat_at = now(), updated_at = now() " +
+                "WHERE id = ? AND claim_token = ?",
+            duplicateRows, jobId, token) == 1;
+    }
+
+    /**
+     * 标记失败，保留断点以便恢复；已被其他实例接管时不修改并返回false
+     */
+    public boolean fail(long jobId, String token, String message) {
+        return jdbcTemplate.update(
+            "UPDATE lead_import_jobs SET status = 'FAILED', error_message = ?, heartbeat_at = NULL, claim_token = NULL, " +
+                "finished_at = now(), updated_at = now() WHERE id = ? AND claim_token = ?",
+            message, jobId, token) == 1;
+    }
+
+    /**
+     * 释放心跳，停机时调用，使任务可被立即接管
+     */
+    public void release(long jobId, String token) {
+        jdbcTemplate.update(
+            "UPDATE lead_import_jobs SET heartbeat_at = NULL, claim_token = NULL WHERE id = ? AND claim_token = ?",
+            jobId, token);
+    }
+
+    /**
+     * 失败任务重新排队，从解析阶段开始（已提交的行会被跳过）
+     */
+    public boolean requeue(long jobId) {
+        return jdbcTemplate.update(
+            "UPDATE lead_import_jobs SET status = 'PENDING', error_message = NULL, finished_at = NULL, " +
+                "heartbeat_at = NULL, claim_token = NULL, updated_at = now() WHERE id = ? AND status = 'FAILED'",
+            jobId) == 1;
+    }
+
+    private static void appendCsv(StringBuilder csv, String value) {
+        csv.append(',');
+        if (value == null) {
+            return;
+        }
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        csv.append('"');
+    }
+
+    /**
+     * 暂存行，字段均已规范化
+     */
+    public record StagingRow(int rowNo, String customerName, String contactName, String mobile, String phone,
+                             String email, String region, String industry, String channel, String productIntent,
+                             String summary, String normCustomerName, String status, String error) {
+    }
+
+    /**
+     * 错误或重复行
+     */
+    public record ErrorRow(int rowNo, String status, String error, String customerName, String contactName,
+                           String mobile, String email, Long leadId) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.denwon.crm.module.lead.repository;
+
+import com.denwon.crm.module.lead.entity.LeadImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 线索导入任务数据访问层
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+public interface LeadImportJobRepository extends JpaRepository<LeadImportJob, Long> {
+    
+    /**
+     * 未结束且心跳过期（进程崩溃或重启）的任务
+     */
+    @Query("SELECT j.id FROM LeadImportJob j WHERE j.status NOT IN ('COMPLETED', 'FAILED') " +
+           "AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore) ORDER BY j.id")
+    List<Long> findInterrupted(@Param("staleBefore") LocalDateTime staleBefore);
+    
+    @Query("SELECT j FROM LeadImportJob j WHERE j.status IN ('COMPLETED', 'FAILED') AND j.finishedAt < :before")
+    List<LeadImportJob> findFinishedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,23 @@
+package com.denwon.crm.module.lead.repository;
+
+import com.denwon.crm.module.lead.entity.Lead;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * 线索数据访问层
+ * 列表过滤条件见 {@link LeadSpecifications#FILTERS}
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+public interface LeadRepository extends JpaRepository<Lead, Long>, JpaSpecificationExecutor<Lead> {
+    
+    Optional<Lead> findByCode(String code);
+    
+    boolean existsByCode(String code);
+}
@@ -0,0 +1,33 @@
+package com.denwon.crm.module.lead.repository;
+
+import com.denwon.crm.common.search.FilterCompiler;
+import com.denwon.crm.common.search.SearchOperator;
+import com.denwon.crm.module.lead.entity.Lead;
+
+/**
+ * 线索查询条件
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public final class LeadSpecifications {
+    
+    public static final FilterCompiler<Lead> FILTERS = FilterCompiler.<Lead>builder()
+        .text("code", "code", SearchOperator.PREFIX)
+        .text("customerName", "customerName", SearchOperator.CONTAINS)
+        .text("contactName", "contactName", SearchOperator.CONTAINS)
+        .text("mobile", "mobile", SearchOperator.CONTAINS)
+        .text("email", "email", SearchOperator.CONTAINS)
+        .exact("source", "source")
+        .exact("channel", "channel")
+        .exact("region", "region")
+        .exact("industry", "industry")
+        .exact("status", "status")
+        .exact("assignedTo", "assignedTo.id")
+        .exact("ownerId", "ownerId")
+        .exact("orgUnitId", "orgUnitId")
+        .build();
+    
+    private LeadSpecifications() {
+    }
+}
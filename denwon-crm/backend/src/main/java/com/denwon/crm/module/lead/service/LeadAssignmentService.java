@@ -0,0 +1,30 @@
+package com.denwon.crm.module.lead.service;
+
+import com.denwon.crm.module.lead.dto.LeadAssignResultDTO;
+
+import java.util.List;
+
+/**
+ * 线索自动分配服务接口
+ * 按 lead_assignment_rules 中启用的规则（ROUND_ROBIN / WEIGHTED / REGIONAL / SOURCE_BASED）分配线索
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public interface LeadAssignmentService {
+    
+    /**
+     * 按规则分配指定线索，已分配的线索跳过
+     */
+    LeadAssignResultDTO assign(List<Long> leadIds);
+    
+    /**
+     * 分配导入任务写入的未分配线索，返回分配数
+     */
+    int assignImported(Long jobId, Long operatorId);
+    
+    /**
+     * 重新加载并编译分配规则
+     */
+    void reload();
+}
@@ -0,0 +1,39 @@
+package com.denwon.crm.module.lead.service;
+
+import com.denwon.crm.module.lead.dto.LeadImportDTO;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+/**
+ * 线索批量导入服务接口
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public interface LeadImportService {
+    
+    /**
+     * 上传文件并创建导入任务，解析和入库在后台执行
+     * 
+     * @param source  线索来源，文件中没有来源列
+     * @param channel 默认渠道，文件中渠道列为空时使用
+     * @param charset CSV编码，为空时按UTF-8
+     */
+    LeadImportDTO submit(MultipartFile file, String source, String channel, String charset);
+    
+    /**
+     * 查询导入进度（仅任务创建人或系统管理员）
+     */
+    LeadImportDTO getProgress(Long jobId);
+    
+    /**
+     * 分页查询错误行和重复行
+     */
+    List<LeadImportDTO.RowError> getErrors(Long jobId, int page, int size);
+    
+    /**
+     * 失败任务从断点继续
+     */
+    LeadImportDTO resume(Long jobId);
+}
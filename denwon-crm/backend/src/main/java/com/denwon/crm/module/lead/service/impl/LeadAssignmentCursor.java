@@ -0,0 +1,73 @@
+package com.denwon.crm.module.lead.service.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * 规则的轮转游标
+ * 位置由数据库按块租用（见 lead_assignment_cursors），各节点拿到互不重叠的区间，
+ * 重启后从数据库中的位置继续；块内用原子计数分配，不加锁，只有换块时同步
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+final class LeadAssignmentCursor {
+
+    private static final Block EXHAUSTED = new Block(0, 0);
+
+    /**
+     * 参数为租用数量，返回租到区间的起始位置
+     */
+    private final LongUnaryOperator lease;
+
+    private final int blockSize;
+
+    private volatile Block block = EXHAUSTED;
+
+    LeadAssignmentCursor(LongUnaryOperator lease, int blockSize) {
+        this.lease = lease;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    /**
+     * 下一个位置
+     */
+    long next() {
+        while (true) {
+            Block current = block;
+            long position = current.next.getAndIncrement();
+            if (position < current.end) {
+                return position;
+            }
+            synchronized (this) {
+                if (block == current) {
+                    long start = lease.applyAsLong(blockSize);
+                    block = new Block(start, start + blockSize);
+                }
+            }
+        }
+    }
+
+    /**
+     * 一次取count个连续位置，返回起始位置；批量分配时直接向数据库租用，不占用当前块
+     */
+    long take(int count) {
+        return lease.applyAsLong(count);
+    }
+
+    int blockSize() {
+        return blockSize;
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.denwon.crm.module.lead.service.impl;
+
+import com.denwon.crm.util.NormalizeUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 编译后的线索分配规则（不可变）
+ * 规则按“地区 -> 来源 -> 最高优先级规则”建索引，不逐条匹配：
+ * 线索地区按前缀匹配（规则“广东”命中“广东省深圳市”），只尝试规则中出现过的前缀长度；
+ * 未限定地区或来源的规则登记在通配位置。每条线索最多查 (地区前缀数+1) x 2 次哈希表。
+ * <p>
+ * 规则内的人员按游标位置轮转：第p个位置分给 slot = p x stride mod 总权重 所在的人员，
+ * stride与总权重互质，每一轮（总权重个位置）每人恰好分到其权重数，且不同人员交错出现
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+final class LeadAssignmentRules {
+
+    static final LeadAssignmentRules EMPTY = compile(List.of());
+
+    private static final String ANY = "";
+
+    private static final Pattern REGION_STRIP = Pattern.compile("省|市|自治区|特别行政区|地区|\\s");
+
+    /**
+     * 按优先级从高到低（同优先级按ID）排列，下标即排名
+     */
+    private final Rule[] rules;
+
+    /**
+     * 地区键 -> 来源 -> 最高排名；地区和来源的通配键为空串
+     */
+    private final Map<String, Map<String, Integer>> index;
+
+    /**
+     * 规则中出现过的地区键长度
+     */
+    private final BitSet regionLengths;
+
+    private LeadAssignmentRules(Rule[] rules, Map<String, Map<String, Integer>> index, BitSet regionLengths) {
+        this.rules = rules;
+        this.index = index;
+        this.regionLengths = regionLengths;
+    }
+
+    static LeadAssignmentRules compile(List<Definition> definitions) {
+        List<Definition> sorted = new ArrayList<>(definitions);
+        sorted.removeIf(definition -> definition.userIds().length == 0);
+        sorted.sort(Comparator.comparingInt(Definition::priority).reversed().thenComparingLong(Definition::id));
+
+        Rule[] rules = new Rule[sorted.size()];
+        Map<String, Map<String, Integer>> index = new HashMap<>();
+        BitSet regionLengths = new BitSet();
+
+        for (int rank = 0; rank < rules.length; rank++) {
+            Definition definition = sorted.get(rank);
+            rules[rank] = rule(definition);
+
+            List<String> regions = keys(definition.regions(), true);
+            List<String> sources = keys(definition.sources(), false);
+            for (String region : regions) {
+                regionLengths.set(region.length());
+                Map<String, Integer> bySource = index.computeIfAbsent(region, key -> new HashMap<>());
+                for (String source : sources) {
+                    // 排名小的先登记，后登记的同键规则优先级更低
+                    bySource.putIfAbsent(source, rank);
+                }
+            }
+        }
+        return new LeadAssignmentRules(rules, index, regionLengths);
+    }
+
+    boolean isEmpty() {
+        return rules.length == 0;
+    }
+
+    int size() {
+        return rules.length;
+    }
+
+    /**
+     * 匹配线索，返回规则排名，没有规则命中时返回-1
+     */
+    int match(String region, String source) {
+        String sourceKey = sourceKey(source);
+        String regionKey = regionKey(region);
+
+        int best = best(index.get(ANY), sourceKey, Integer.MAX_VALUE);
+        if (regionKey != null) {
+            for (int length = regionLengths.previousSetBit(regionKey.length()); length > 0;
+                 length = regionLengths.previousSetBit(length - 1)) {
+                best = best(index.get(regionKey.substring(0, length)), sourceKey, best);
+            }
+        }
+        return best == Integer.MAX_VALUE ? -1 : best;
+    }
+
+    Rule rule(int rank) {
+        return rules[rank];
+    }
+
+    private static int best(Map<String, Integer> bySource, String sourceKey, int best) {
+        if (bySource == null) {
+            return best;
+        }
+        Integer any = bySource.get(ANY);
+        if (any != null && any < best) {
+            best = any;
+        }
+        if (sourceKey != null) {
+            Integer exact = bySource.get(sourceKey);
+            if (exact != null && exact < best) {
+                best = exact;
+            }
+        }
+        return best;
+    }
+
+    private static Rule rule(Definition definition) {
+        long[] userIds = definition.userIds();
+        int[] cumulative = new int[userIds.length];
+        int total = 0;
+        for (int i = 0; i < userIds.length; i++) {
+            total += definition.weights() != null ? Math.max(1, definition.weights()[i]) : 1;
+            cumulative[i] = total;
+        }
+        return new Rule(definition.id(), definition.name(), userIds, cumulative, stride(total, definition.weights() != null));
+    }
+
+    /**
+     * 加权时取接近总权重0.618倍且与之互质的步长，使同一人员的位置尽量分散；不加权时按顺序轮转
+     */
+    private static int stride(int total, boolean weighted) {
+        if (!weighted || total <= 2) {
+            return 1;
+        }
+        int stride = Math.max(1, (int) Math.round(total * 0.6180339887));
+        while (gcd(stride, total) != 1) {
+            stride++;
+        }
+        return stride;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static List<String> keys(Set<String> values, boolean region) {
+        List<String> keys = new ArrayList<>();
+        if (values != null) {
+            for (String value : values) {
+                String key = region ? regionKey(value) : sourceKey(value);
+                if (key != null && !keys.contains(key)) {
+                    keys.add(key);
+                }
+            }
+        }
+        if (keys.isEmpty()) {
+            keys.add(ANY);
+        }
+        return keys;
+    }
+
+    /**
+     * 地区键：去掉行政区划后缀和空白，“广东省深圳市”与“广东深圳”相同
+     */
+    static String regionKey(String region) {
+        String key = NormalizeUtils.companyKey(region);
+        if (key == null) {
+            return null;
+        }
+        key = REGION_STRIP.matcher(key).replaceAll("");
+        return key.isEmpty() ? null : key;
+    }
+
+    private static String sourceKey(String source) {
+        if (source == null || source.isBlank()) {
+            return null;
+        }
+        return source.trim().toUpperCase();
+    }
+
+    /**
+     * 规则定义（由数据库中的JSON解析），weights为null表示平均分配
+     */
+    record Definition(long id, String name, int priority, Set<String> regions, Set<String> sources,
+                      long[] userIds, int[] weights) {
+    }
+
+    /**
+     * 编译后的规则
+     */
+    record Rule(long id, String name, long[] userIds, int[] cumulative, int stride) {
+
+        /**
+         * 游标位置对应的人员
+         */
+        long userAt(long position) {
+            int total = cumulative[cumulative.length - 1];
+            int slot = (int) (Math.floorMod(position, total) * (long) stride % total);
+            int i = Arrays.binarySearch(cumulative, slot + 1);
+            return userIds[i >= 0 ? i : -i - 1];
+        }
+    }
+}
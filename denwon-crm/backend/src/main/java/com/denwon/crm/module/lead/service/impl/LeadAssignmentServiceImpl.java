@@ -0,0 +1,329 @@
+package com.denwon.crm.module.lead.service.impl;
+
+import com.denwon.crm.common.exception.BusinessException;
+import com.denwon.crm.module.lead.dto.LeadAssignResultDTO;
+import com.denwon.crm.module.lead.repository.LeadAssignmentJdbcRepository;
+import com.denwon.crm.module.lead.repository.LeadAssignmentJdbcRepository.ImportedRow;
+import com.denwon.crm.module.lead.repository.LeadAssignmentJdbcRepository.LeadRow;
+import com.denwon.crm.module.lead.repository.LeadAssignmentJdbcRepository.RuleRow;
+import com.denwon.crm.module.lead.service.LeadAssignmentService;
+import com.denwon.crm.module.lead.service.impl.LeadAssignmentRules.Definition;
+import com.denwon.crm.module.lead.service.impl.LeadAssignmentRules.Rule;
+import com.denwon.crm.security.AuthenticatedPrincipal;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线索自动分配服务实现
+ * <ul>
+ *   <li>启用的规则编译为 {@link LeadAssignmentRules}，按地区/来源索引匹配；规则变更由定时比对签名发现后重新编译</li>
+ *   <li>每条规则一个 {@link LeadAssignmentCursor}，位置从数据库按块租用，多节点分配互不重叠、重启后继续</li>
+ *   <li>一批线索一次匹配，同一规则命中较多时一次租用整段位置，结果用一条UPDATE写入</li>
+ * </ul>
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeadAssignmentServiceImpl implements LeadAssignmentService {
+
+    private static final String ROUND_ROBIN = "ROUND_ROBIN";
+    private static final String WEIGHTED = "WEIGHTED";
+    private static final String REGIONAL = "REGIONAL";
+    private static final String SOURCE_BASED = "SOURCE_BASED";
+
+    private final LeadAssignmentJdbcRepository assignmentRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.lead-assignment.cursor-block:100}")
+    private int cursorBlock;
+
+    @Value("${app.lead-assignment.batch-size:5000}")
+    private int batchSize;
+
+    private final ConcurrentHashMap<Long, LeadAssignmentCursor> cursors = new ConcurrentHashMap<>();
+
+    private final Object reloadLock = new Object();
+
+    private volatile LeadAssignmentRules rules;
+
+    private volatile String signature;
+
+    @Override
+    public LeadAssignResultDTO assign(List<Long> leadIds) {
+        Set<Long> ids = new LinkedHashSet<>(leadIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            throw new BusinessException("请选择要分配的线索");
+        }
+
+        List<LeadRow> rows = assignmentRepository.findUnassigned(ids.toArray(new Long[0]));
+        int[] result = assignRows(rows, currentUserId());
+        return LeadAssignResultDTO.builder()
+            .requested(ids.size())
+            .assigned(result[0])
+            .unmatched(result[1])
+            .skipped(ids.size() - result[0] - result[1])
+            .build();
+    }
+
+    @Override
+    public int assignImported(Long jobId, Long operatorId) {
+        int assigned = 0;
+        int afterRowNo = 0;
+        while (true) {
+            List<ImportedRow> page = assignmentRepository.findUnassignedImported(jobId, afterRowNo, batchSize);
+            if (page.isEmpty()) {
+                return assigned;
+            }
+            afterRowNo = page.get(page.size() - 1).rowNo();
+            assigned += assignRows(page.stream().map(ImportedRow::lead).toList(), operatorId)[0];
+        }
+    }
+
+    /**
+     * 分配一批线索，返回 [分配数, 未命中规则数]
+     */
+    private int[] assignRows(List<LeadRow> rows, Long operatorId) {
+        LeadAssignmentRules current = current();
+        if (rows.isEmpty() || current.isEmpty()) {
+            return new int[]{0, rows.size()};
+        }
+
+        int[] ranks = new int[rows.size()];
+        int[] counts = new int[current.size()];
+        for (int i = 0; i < ranks.length; i++) {
+            LeadRow row = rows.get(i);
+            ranks[i] = current.match(row.region(), row.source());
+            if (ranks[i] >= 0) {
+                counts[ranks[i]]++;
+            }
+        }
+
+        // 命中较多的规则一次租用整段位置，其余从节点当前块中取
+        long[] next = new long[counts.length];
+        Arrays.fill(next, -1);
+        for (int rank = 0; rank < counts.length; rank++) {
+            LeadAssignmentCursor cursor = counts[rank] > 0 ? cursor(current.rule(rank)) : null;
+            if (cursor != null && counts[rank] >= cursor.blockSize()) {
+                next[rank] = cursor.take(counts[rank]);
+            }
+        }
+
+        List<Long> leadIds = new ArrayList<>(rows.size());
+        List<Long> userIds = new ArrayList<>(rows.size());
+        for (int i = 0; i < ranks.length; i++) {
+            int rank = ranks[i];
+            if (rank < 0) {
+                continue;
+            }
+            Rule rule = current.rule(rank);
+            long position = next[rank] >= 0 ? next[rank]++ : cursor(rule).next();
+            leadIds.add(rows.get(i).id());
+            userIds.add(rule.userAt(position));
+        }
+
+        int assigned = leadIds.isEmpty() ? 0
+            : assignmentRepository.assign(leadIds.toArray(new Long[0]), userIds.toArray(new Long[0]), operatorId);
+        return new int[]{assigned, rows.size() - leadIds.size()};
+    }
+
+    private LeadAssignmentCursor cursor(Rule rule) {
+        return cursors.computeIfAbsent(rule.id(),
+            ruleId -> new LeadAssignmentCursor(count -> assignmentRepository.leaseCursor(ruleId, count), cursorBlock));
+    }
+
+    private LeadAssignmentRules current() {
+        LeadAssignmentRules current = rules;
+        if (current == null) {
+            synchronized (reloadLock) {
+                current = rules;
+                if (current == null) {
+                    reload();
+                    current = rules;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public void reload() {
+        synchronized (reloadLock) {
+            long start = System.nanoTime();
+            String loadedSignature = assignmentRepository.rulesSignature();
+            List<RuleRow> rows = assignmentRepository.findActiveRules();
+            List<Definition> definitions = new ArrayList<>(rows.size());
+            for (RuleRow row : rows) {
+                Definition definition = parse(row);
+                if (definition != null) {
+                    definitions.add(definition);
+                }
+            }
+
+            LeadAssignmentRules compiled = LeadAssignmentRules.compile(withActiveUsers(definitions));
+            rules = compiled;
+            signature = loadedSignature;
+            log.info("线索分配规则已编译: {}条启用，{}条有效，耗时{}ms",
+                rows.size(), compiled.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * 发现其他节点对规则的修改
+     */
+    @Scheduled(fixedDelayString = "${app.lead-assignment.sync-interval:30000}",
+        initialDelayString = "${app.lead-assignment.sync-interval:30000}")
+    public void sync() {
+        try {
+            if (rules != null && !Objects.equals(signature, assignmentRepository.rulesSignature())) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.error("线索分配规则同步失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 解析规则JSON：
+     * conditions {"regions": ["广东"], "sources": ["WEBSITE"]}，
+     * assignments [{"userId": 1, "weight": 2}] 或 {"users": [...]} 或用户ID数组
+     */
+    private Definition parse(RuleRow row) {
+        try {
+            JsonNode conditions = row.conditions() != null ? objectMapper.readTree(row.conditions()) : null;
+            JsonNode assignments = row.assignments() != null ? objectMapper.readTree(row.assignments()) : null;
+            Set<String> regions = strings(conditions, "regions", "region");
+            Set<String> sources = strings(conditions, "sources", "source");
+
+            String type = row.type() != null ? row.type().trim().toUpperCase() : "";
+            switch (type) {
+                case ROUND_ROBIN, WEIGHTED -> {
+                }
+                case REGIONAL -> {
+                    if (regions.isEmpty()) {
+                        log.warn("线索分配规则{}({})未配置地区，已忽略", row.id(), row.name());
+                        return null;
+                    }
+                }
+                case SOURCE_BASED -> {
+                    if (sources.isEmpty()) {
+                        log.warn("线索分配规则{}({})未配置来源，已忽略", row.id(), row.name());
+                        return null;
+                    }
+                }
+                default -> {
+                    log.warn("线索分配规则{}({})类型{}不支持，已忽略", row.id(), row.name(), row.type());
+                    return null;
+                }
+            }
+
+            JsonNode users = assignments != null && assignments.isObject() ? assignments.get("users") : assignments;
+            List<long[]> members = new ArrayList<>();
+            if (users != null && users.isArray()) {
+                for (JsonNode user : users) {
+                    JsonNode id = user.isObject() ? (user.has("userId") ? user.get("userId") : user.get("id")) : user;
+                    int weight = user.isObject() && user.has("weight") ? user.get("weight").asInt(1) : 1;
+                    if (id != null && id.canConvertToLong() && id.asLong() > 0 && weight > 0) {
+                        members.add(new long[]{id.asLong(), weight});
+                    }
+                }
+            }
+
+            long[] userIds = members.stream().mapToLong(member -> member[0]).toArray();
+            int[] weights = WEIGHTED.equals(type) ? members.stream().mapToInt(member -> (int) member[1]).toArray() : null;
+            return new Definition(row.id(), row.name(), row.priority(), regions, sources, userIds, weights);
+        } catch (Exception e) {
+            log.warn("线索分配规则{}({})解析失败，已忽略: {}", row.id(), row.name(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 去掉停用或已删除的用户
+     */
+    private List<Definition> withActiveUsers(List<Definition> definitions) {
+        Set<Long> all = new HashSet<>();
+        for (Definition definition : definitions) {
+            for (long userId : definition.userIds()) {
+                all.add(userId);
+            }
+        }
+        if (all.isEmpty()) {
+            return definitions;
+        }
+        Set<Long> active = new HashSet<>(assignmentRepository.findActiveUserIds(all.toArray(new Long[0])));
+
+        List<Definition> result = new ArrayList<>(definitions.size());
+        for (Definition definition : definitions) {
+            long[] userIds = definition.userIds();
+            int[] weights = definition.weights();
+            int size = 0;
+            for (int i = 0; i < userIds.length; i++) {
+                if (active.contains(userIds[i])) {
+                    userIds[size] = userIds[i];
+                    if (weights != null) {
+                        weights[size] = weights[i];
+                    }
+                    size++;
+                }
+            }
+            result.add(new Definition(definition.id(), definition.name(), definition.priority(),
+                definition.regions(), definition.sources(), Arrays.copyOf(userIds, size),
+                weights != null ? Arrays.copyOf(weights, size) : null));
+        }
+        return result;
+    }
+
+    private static Set<String> strings(JsonNode node, String arrayField, String singleField) {
+        Set<String> values = new LinkedHashSet<>();
+        if (node == null || !node.isObject()) {
+            return values;
+        }
+        JsonNode array = node.get(arrayField);
+        if (array != null && array.isArray()) {
+            array.forEach(value -> {
+                if (value.isTextual() && !value.asText().isBlank()) {
+                    values.add(value.asText());
+                }
+            });
+        }
+        JsonNode single = node.get(singleField);
+        if (single != null && single.isTextual() && !single.asText().isBlank()) {
+            values.add(single.asText());
+        }
+        return values;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthenticatedPrincipal principal
+            ? principal.getUserId() : null;
+    }
+}
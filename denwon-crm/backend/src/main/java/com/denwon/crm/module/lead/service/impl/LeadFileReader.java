@@ -0,0 +1,197 @@
+package com.denwon.crm.module.lead.service.impl;
+
+import com.denwon.crm.common.exception.BusinessException;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.io.input.BOMInputStream;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 线索导入文件流式读取
+ * CSV逐条解析；XLSX使用SAX事件模型只读第一个工作表，不构建整个工作簿。
+ * 第一行为表头，按别名映射到导入字段；行号与表格中的行号一致（表头为第1行）
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+final class LeadFileReader {
+
+    /**
+     * 导入字段及表头别名（不区分大小写）
+     */
+    enum Column {
+        CUSTOMER_NAME("客户名称", "公司名称", "公司", "企业名称", "customer_name", "company"),
+        CONTACT_NAME("联系人", "姓名", "contact_name", "name"),
+        MOBILE("手机", "手机号", "手机号码", "mobile"),
+        PHONE("电话", "座机", "phone"),
+        EMAIL("邮箱", "电子邮箱", "email"),
+        REGION("地区", "区域", "省份", "region"),
+        INDUSTRY("行业", "industry"),
+        CHANNEL("渠道", "channel"),
+        PRODUCT_INTENT("意向产品", "product_intent"),
+        SUMMARY("备注", "需求描述", "summary");
+
+        private final List<String> aliases;
+
+        Column(String... aliases) {
+            this.aliases = Arrays.stream(aliases).map(alias -> alias.toLowerCase(Locale.ROOT)).toList();
+        }
+
+        static Column of(String header) {
+            String key = header == null ? "" : header.trim().toLowerCase(Locale.ROOT);
+            for (Column column : values()) {
+                if (column.aliases.contains(key)) {
+                    return column;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 行回调，values中未出现的字段为null
+     */
+    @FunctionalInterface
+    interface RowHandler {
+        void row(int rowNo, Map<Column, String> values);
+    }
+
+    private LeadFileReader() {
+    }
+
+    static void read(Path file, String fileType, Charset charset, RowHandler handler) throws Exception {
+        if ("XLSX".equals(fileType)) {
+            readXlsx(file, handler);
+        } else {
+            readCsv(file, charset, handler);
+        }
+    }
+
+    private static void readCsv(Path file, Charset charset, RowHandler handler) throws Exception {
+        try (InputStream input = BOMInputStream.builder().setPath(file).get();
+             Reader reader = new InputStreamReader(input, charset);
+             CSVParser parser = CSVFormat.DEFAULT.builder().setIgnoreEmptyLines(true).build().parse(reader)) {
+
+            Column[] columns = null;
+            for (CSVRecord record : parser) {
+                if (columns == null) {
+                    columns = mapHeader(record.values());
+                    continue;
+                }
+                Map<Column, String> values = new EnumMap<>(Column.class);
+                for (int i = 0; i < columns.length && i < record.size(); i++) {
+                    if (columns[i] != null) {
+                        values.put(columns[i], record.get(i));
+                    }
+                }
+                handler.row((int) record.getRecordNumber(), values);
+            }
+        }
+    }
+
+    private static void readXlsx(Path file, RowHandler handler) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new BusinessException("Excel文件中没有工作表");
+            }
+
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null, strings,
+                    new SheetHandler(handler), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        }
+    }
+
+    private static Column[] mapHeader(String[] headers) {
+        Column[] columns = new Column[headers.length];
+        boolean any = false;
+        for (int i = 0; i < headers.length; i++) {
+            columns[i] = Column.of(headers[i]);
+            any |= columns[i] != null;
+        }
+        if (!any) {
+            throw new BusinessException("无法识别表头，第一行应包含客户名称、联系人、手机、邮箱等列");
+        }
+        return columns;
+    }
+
+    /**
+     * 工作表SAX回调，把单元格拼成一行后交给RowHandler
+     */
+    private static final class SheetHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+
+        private final List<String> cells = new ArrayList<>();
+
+        private Column[] columns;
+
+        private int nextColumn;
+
+        SheetHandler(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+            nextColumn = 0;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            cells.add(formattedValue);
+            nextColumn = column + 1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (cells.stream().allMatch(cell -> cell == null || cell.isBlank())) {
+                return;
+            }
+            if (columns == null) {
+                columns = mapHeader(cells.toArray(new String[0]));
+                return;
+            }
+            Map<Column, String> values = new EnumMap<>(Column.class);
+            for (int i = 0; i < columns.length && i < cells.size(); i++) {
+                if (columns[i] != null) {
+                    values.put(columns[i], cells.get(i));
+                }
+            }
+            handler.row(rowNum + 1, values);
+        }
+    }
+}
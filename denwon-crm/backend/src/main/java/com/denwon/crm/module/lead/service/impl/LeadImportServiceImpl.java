@@ -0,0 +1,544 @@
+package com.denwon.crm.module.lead.service.impl;
+
+import com.denwon.crm.common.exception.BusinessException;
+import com.denwon.crm.module.lead.dto.LeadImportDTO;
+import com.denwon.crm.module.lead.entity.LeadImportJob;
+import com.denwon.crm.module.lead.repository.LeadImportJdbcRepository;
+import com.denwon.crm.module.lead.repository.LeadImportJdbcRepository.StagingRow;
+import com.denwon.crm.module.lead.repository.LeadImportJobRepository;
+import com.denwon.crm.module.lead.service.LeadAssignmentService;
+import com.denwon.crm.module.lead.service.LeadImportService;
+import com.denwon.crm.module.lead.service.impl.LeadFileReader.Column;
+import com.denwon.crm.security.AuthenticatedPrincipal;
+import com.denwon.crm.util.NormalizeUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线索批量导入服务实现
+ * <ol>
+ *   <li>解析：流式读取文件，规范化并校验每行，按批COPY到暂存表，断点与数据同一事务提交</li>
+ *   <li>查重：文件内及与leads表按手机号、邮箱、客户名称+地区集合查重</li>
+ *   <li>入库：每次取一段待入库行INSERT ... SELECT写入leads</li>
+ *   <li>分配：按分配规则批量分配新线索（可关闭）</li>
+ * </ol>
+ * 每个阶段都可重复执行；执行中的任务定时刷新心跳，进程崩溃后心跳过期的任务由定时任务接管并从断点继续。
+ * 抢占时生成令牌，进度写入以令牌为条件，被接管的实例无法再写入或把任务标记为失败
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeadImportServiceImpl implements LeadImportService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final LeadImportJobRepository jobRepository;
+    private final LeadImportJdbcRepository importRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LeadAssignmentService leadAssignmentService;
+    private final PermissionEvaluator permissionEvaluator;
+
+    @Value("${app.file.upload-path}")
+    private String uploadPath;
+
+    @Value("${app.lead-import.workers:2}")
+    private int workers;
+
+    @Value("${app.lead-import.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${app.lead-import.copy-batch-size:10000}")
+    private int copyBatchSize;
+
+    @Value("${app.lead-import.insert-chunk-size:5000}")
+    private int insertChunkSize;
+
+    @Value("${app.file.max-size:104857600}")
+    private long maxFileSize;
+
+    @Value("${app.lead-import.stale-after:300}")
+    private long staleAfterSeconds;
+
+    @Value("${app.lead-import.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${app.lead-import.auto-assign:true}")
+    private boolean autoAssign;
+
+    /**
+     * 本实例正在执行的任务 → 抢占令牌和执行线程
+     */
+    private final Map<Long, Claim> running = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "lead-import");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 停机时释放本实例正在执行的任务，重启后无需等待心跳过期即可继续
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        running.forEach((jobId, claim) -> importRepository.release(jobId, claim.token));
+    }
+
+    @Override
+    public LeadImportDTO submit(MultipartFile file, String source, String channel, String charset) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException("请选择要导入的文件");
+        }
+        if (file.getSize() > maxFileSize) {
+            throw new BusinessException("文件过大，最大" + maxFileSize / 1024 / 1024 + "MB");
+        }
+        if (!StringUtils.hasText(source)) {
+            throw new BusinessException("线索来源不能为空");
+        }
+
+        String fileName = StringUtils.cleanPath(file.getOriginalFilename() != null ? file.getOriginalFilename() : "leads");
+        String fileType = fileType(fileName);
+        Charset fileCharset = charset(charset);
+
+        Path target = Paths.get(uploadPath, "lead-imports", UUID.randomUUID() + "." + fileType.toLowerCase(Locale.ROOT));
+        try {
+            Files.createDirectories(target.getParent());
+            file.transferTo(target);
+        } catch (IOException e) {
+            log.error("保存导入文件失败: {}", fileName, e);
+            throw new BusinessException("保存导入文件失败");
+        }
+
+        AuthenticatedPrincipal principal = currentPrincipal();
+        LeadImportJob job = jobRepository.save(LeadImportJob.builder()
+            .fileName(fileName)
+            .fileType(fileType)
+            .filePath(target.toString())
+            .charset(fileCharset.name())
+            .source(source)
+            .channel(StringUtils.hasText(channel) ? channel : null)
+            .ownerId(principal != null ? principal.getUserId() : null)
+            .orgUnitId(principal != null ? principal.getOrgUnitId() : null)
+            .createdBy(principal != null ? principal.getUserId() : null)
+            .build());
+
+        if (!schedule(job.getId())) {
+            log.warn("导入队列已满，任务{}将由恢复任务稍后执行", job.getId());
+        }
+        return LeadImportDTO.of(job);
+    }
+
+    @Override
+    public LeadImportDTO getProgress(Long jobId) {
+        return LeadImportDTO.of(getOwnJob(jobId));
+    }
+
+    @Override
+    public List<LeadImportDTO.RowError> getErrors(Long jobId, int page, int size) {
+        getOwnJob(jobId);
+        int limit = Math.min(Math.max(size, 1), 1000);
+        return importRepository.findErrors(jobId, Math.max(page, 0) * limit, limit).stream()
+            .map(row -> LeadImportDTO.RowError.builder()
+                .rowNo(row.rowNo())
+                .status(row.status())
+                .error(row.error())
+                .customerName(row.customerName())
+                .contactName(row.contactName())
+                .mobile(row.mobile())
+                .email(row.email())
+                .leadId(row.leadId())
+                .build())
+            .toList();
+    }
+
+    @Override
+    public LeadImportDTO resume(Long jobId) {
+        getOwnJob(jobId);
+        if (!importRepository.requeue(jobId)) {
+            throw new BusinessException("只有失败的导入任务可以继续");
+        }
+        schedule(jobId);
+        return getProgress(jobId);
+    }
+
+    /**
+     * 接管心跳过期的任务（进程崩溃、重启或队列已满时未执行的任务）
+     */
+    @Scheduled(initialDelayString = "${app.lead-import.recover-delay:10000}",
+               fixedDelayString = "${app.lead-import.recover-interval:60000}")
+    public void recover() {
+        for (Long jobId : jobRepository.findInterrupted(LocalDateTime.now().minusSeconds(staleAfterSeconds))) {
+            if (!running.containsKey(jobId) && schedule(jobId)) {
+                log.info("恢复导入任务{}", jobId);
+            }
+        }
+    }
+
+    /**
+     * 刷新本实例所有任务的心跳，单个事务内的长时间查重不会被误判为中断；
+     * 令牌已失效（任务被其他实例接管）时中断本地执行
+     */
+    @Scheduled(fixedDelayString = "${app.lead-import.heartbeat-interval:60000}")
+    public void heartbeat() {
+        running.forEach((jobId, claim) -> {
+            if (!claim.active) {
+                return;
+            }
+            try {
+                if (!importRepository.heartbeat(jobId, claim.token)) {
+                    log.warn("导入任务{}已被其他实例接管，停止本地执行", jobId);
+                    claim.worker.interrupt();
+                }
+            } catch (RuntimeException e) {
+                log.warn("刷新导入任务{}心跳失败: {}", jobId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 清理过期任务的暂存行和文件
+     */
+    @Scheduled(cron = "${app.lead-import.purge-cron:0 30 3 * * ?}")
+    public void purge() {
+        for (LeadImportJob job : jobRepository.findFinishedBefore(LocalDateTime.now().minusDays(retentionDays))) {
+            deleteFile(job);
+            jobRepository.delete(job);
+        }
+    }
+
+    private boolean schedule(Long jobId) {
+        try {
+            executor.execute(() -> run(jobId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private void run(Long jobId) {
+        String token = UUID.randomUUID().toString();
+        Claim claim = new Claim(token, Thread.currentThread());
+        if (running.putIfAbsent(jobId, claim) != null) {
+            return;
+        }
+        if (!importRepository.claim(jobId, token, LocalDateTime.now().minusSeconds(staleAfterSeconds))) {
+            running.remove(jobId);
+            return;
+        }
+        claim.active = true;
+
+        try {
+            LeadImportJob job = getJob(jobId);
+            long start = System.nanoTime();
+
+            switch (job.getStatus()) {
+                case LeadImportJob.PENDING, LeadImportJob.PARSING -> {
+                    updateStatus(jobId, token, LeadImportJob.PARSING);
+                    parse(job, token);
+                    updateStatus(jobId, token, LeadImportJob.DEDUPING);
+                    dedupe(jobId, token);
+                    updateStatus(jobId, token, LeadImportJob.INSERTING);
+                    insert(job, token);
+                }
+                case LeadImportJob.DEDUPING -> {
+                    dedupe(jobId, token);
+                    updateStatus(jobId, token, LeadImportJob.INSERTING);
+                    insert(job, token);
+                }
+                case LeadImportJob.INSERTING -> insert(job, token);
+                default -> {
+                    return;
+                }
+            }
+
+            assign(job);
+            updateStatus(jobId, token, LeadImportJob.COMPLETED);
+            deleteFile(job);
+            log.info("线索导入任务{}完成，耗时{}ms", jobId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (ClaimLostException e) {
+            log.warn("导入任务{}已被其他实例接管，放弃本地执行", jobId);
+        } catch (Exception e) {
+            if (executor.isShutdown()) {
+                log.info("停机中断导入任务{}，重启后从断点继续", jobId);
+                return;
+            }
+            String message = truncate(e instanceof BusinessException ? e.getMessage() : "导入失败: " + e.getMessage());
+            if (importRepository.fail(jobId, token, message)) {
+                log.error("线索导入任务{}失败", jobId, e);
+            } else {
+                log.warn("导入任务{}已被其他实例接管，本地异常不再标记失败: {}", jobId, e.getMessage());
+            }
+        } finally {
+            running.remove(jobId);
+            Thread.interrupted();
+        }
+    }
+
+    private void updateStatus(long jobId, String token, String status) {
+        fenced(importRepository.updateStatus(jobId, token, status));
+    }
+
+    /**
+     * 进度写入未命中抢占令牌时抛出，回滚当前事务并停止执行
+     */
+    private static void fenced(boolean updated) {
+        if (!updated) {
+            throw new ClaimLostException();
+        }
+    }
+
+    /**
+     * 解析文件并分批COPY到暂存表，跳过断点之前已提交的行
+     */
+    private void parse(LeadImportJob job, String token) throws Exception {
+        int resumeAfter = job.getLastRowNo() != null ? job.getLastRowNo() : 0;
+        List<StagingRow> batch = new ArrayList<>(copyBatchSize);
+
+        LeadFileReader.read(Paths.get(job.getFilePath()), job.getFileType(), Charset.forName(job.getCharset()),
+            (rowNo, values) -> {
+                if (rowNo <= resumeAfter) {
+                    return;
+                }
+                batch.add(toStagingRow(rowNo, values));
+                if (batch.size() >= copyBatchSize) {
+                    flush(job.getId(), token, batch);
+                }
+            });
+        flush(job.getId(), token, batch);
+    }
+
+    private void flush(long jobId, String token, List<StagingRow> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new BusinessException("导入已中断");
+        }
+
+        int errors = (int) batch.stream().filter(row -> LeadImportJdbcRepository.INVALID.equals(row.status())).count();
+        int lastRowNo = batch.get(batch.size() - 1).rowNo();
+        transactionTemplate.executeWithoutResult(status -> {
+            importRepository.copy(jobId, batch);
+            fenced(importRepository.checkpoint(jobId, token, lastRowNo, batch.size(), errors));
+        });
+        batch.clear();
+    }
+
+    private void dedupe(long jobId, String token) {
+        transactionTemplate.executeWithoutResult(status -> {
+            importRepository.markDuplicatesInFile(jobId);
+            importRepository.markDuplicatesInLeads(jobId);
+            int duplicates = importRepository.countByStatus(jobId, LeadImportJdbcRepository.DUPLICATE);
+            fenced(importRepository.updateDuplicates(jobId, token, duplicates));
+        });
+    }
+
+    private void insert(LeadImportJob job, String token) {
+        while (true) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new BusinessException("导入已中断");
+            }
+            Integer inserted = transactionTemplate.execute(status -> {
+                int count = importRepository.insertChunk(job, insertChunkSize);
+                if (count > 0) {
+                    fenced(importRepository.addInserted(job.getId(), token, count));
+                }
+                return count;
+            });
+            if (inserted == null || inserted == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 按分配规则分配本任务写入的线索；分配失败不影响导入结果，可稍后手工分配
+     */
+    private void assign(LeadImportJob job) {
+        if (!autoAssign) {
+            return;
+        }
+        try {
+            int assigned = leadAssignmentService.assignImported(job.getId(), job.getCreatedBy());
+            log.info("线索导入任务{}自动分配{}条线索", job.getId(), assigned);
+        } catch (Exception e) {
+            log.warn("线索导入任务{}自动分配失败: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 规范化并校验一行，错误行也写入暂存表以便生成错误报告
+     */
+    private StagingRow toStagingRow(int rowNo, Map<Column, String> values) {
+        List<String> errors = new ArrayList<>(2);
+
+        String customerName = limit(NormalizeUtils.text(values.get(Column.CUSTOMER_NAME)), 200, "客户名称", errors);
+        String contactName = limit(NormalizeUtils.text(values.get(Column.CONTACT_NAME)), 100, "联系人", errors);
+        if (customerName == null && contactName == null) {
+            errors.add("缺少客户名称和联系人");
+        }
+
+        String rawMobile = NormalizeUtils.text(values.get(Column.MOBILE));
+        String mobile = NormalizeUtils.mobile(rawMobile);
+        if (rawMobile != null && mobile == null) {
+            errors.add("手机号格式错误");
+        }
+        String rawEmail = NormalizeUtils.text(values.get(Column.EMAIL));
+        String email = NormalizeUtils.email(rawEmail);
+        if (rawEmail != null && email == null) {
+            errors.add("邮箱格式错误");
+        }
+        email = limit(email, 100, "邮箱", errors);
+        if (rawMobile == null && rawEmail == null) {
+            errors.add("缺少手机号或邮箱");
+        }
+
+        String phone = limit(NormalizeUtils.text(values.get(Column.PHONE)), 20, "电话", errors);
+        String region = limit(NormalizeUtils.text(values.get(Column.REGION)), 100, "地区", errors);
+        String industry = limit(NormalizeUtils.text(values.get(Column.INDUSTRY)), 50, "行业", errors);
+        String channel = limit(NormalizeUtils.text(values.get(Column.CHANNEL)), 50, "渠道", errors);
+        String productIntent = limit(NormalizeUtils.text(values.get(Column.PRODUCT_INTENT)), 200, "意向产品", errors);
+        String summary = NormalizeUtils.text(values.get(Column.SUMMARY));
+
+        return new StagingRow(rowNo, customerName, contactName, mobile, phone, email, region, industry, channel,
+            productIntent, summary, NormalizeUtils.companyKey(customerName),
+            errors.isEmpty() ? LeadImportJdbcRepository.PENDING : LeadImportJdbcRepository.INVALID,
+            errors.isEmpty() ? null : truncate(String.join("；", errors)));
+    }
+
+    private static String limit(String value, int maxLength, String label, List<String> errors) {
+        if (value != null && value.length() > maxLength) {
+            errors.add(label + "超过" + maxLength + "个字符");
+            return null;
+        }
+        return value;
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private static String fileType(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".csv")) {
+            return "CSV";
+        }
+        if (lower.endsWith(".xlsx")) {
+            return "XLSX";
+        }
+        throw new BusinessException("只支持CSV和XLSX文件");
+    }
+
+    private static Charset charset(String charset) {
+        if (!StringUtils.hasText(charset)) {
+            return StandardCharsets.UTF_8;
+        }
+        try {
+            return Charset.forName(charset);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("不支持的文件编码: " + charset);
+        }
+    }
+
+    private LeadImportJob getJob(Long jobId) {
+        return jobRepository.findById(jobId)
+            .orElseThrow(() -> new BusinessException("导入任务不存在"));
+    }
+
+    /**
+     * 只有任务创建人或系统管理员可以访问任务，其他人按不存在处理，避免通过ID探测他人的导入
+     */
+    private LeadImportJob getOwnJob(Long jobId) {
+        LeadImportJob job = getJob(jobId);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        AuthenticatedPrincipal principal = currentPrincipal();
+        boolean owner = principal != null && principal.getUserId().equals(job.getCreatedBy());
+        if (!owner && !permissionEvaluator.hasPermission(authentication, null, "system.manage")) {
+            throw new BusinessException("导入任务不存在");
+        }
+        return job;
+    }
+
+    private void deleteFile(LeadImportJob job) {
+        try {
+            Files.deleteIfExists(Paths.get(job.getFilePath()));
+        } catch (IOException e) {
+            log.warn("删除导入文件失败: {}", job.getFilePath(), e);
+        }
+    }
+
+    private static AuthenticatedPrincipal currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthenticatedPrincipal principal
+            ? principal : null;
+    }
+
+    /**
+     * 本实例对任务的抢占，抢占成功后active为true
+     */
+    private static final class Claim {
+
+        private final String token;
+
+        private final Thread worker;
+
+        private volatile boolean active;
+
+        Claim(String token, Thread worker) {
+            this.token = token;
+            this.worker = worker;
+        }
+    }
+
+    /**
+     * 抢占令牌已失效，任务由其他实例继续
+     */
+    private static final class ClaimLostException extends RuntimeException {
+
+        ClaimLostException() {
+            super("导入任务已被其他实例接管", null, false, false);
+        }
+    }
+}
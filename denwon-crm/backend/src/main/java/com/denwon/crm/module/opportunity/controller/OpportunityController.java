@@ -0,0 +1,54 @@
+package com.denwon.crm.module.opportunity.controller;
+
+import com.denwon.crm.common.response.ApiResponse;
+import com.denwon.crm.common.task.BackgroundTasks;
+import com.denwon.crm.module.opportunity.dto.FunnelQueryRequest;
+import com.denwon.crm.module.opportunity.dto.OpportunityFunnelDTO;
+import com.denwon.crm.module.opportunity.service.OpportunityFunnelService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 商机控制器
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/opportunities")
+@RequiredArgsConstructor
+public class OpportunityController {
+
+    private final OpportunityFunnelService opportunityFunnelService;
+    private final BackgroundTasks backgroundTasks;
+
+    /**
+     * 销售漏斗（按阶段汇总，含赢单率）
+     */
+    @PostMapping("/funnel")
+    @PreAuthorize("hasPermission(null, 'opportunity.view') or hasPermission(null, 'report.view')")
+    public ApiResponse<OpportunityFunnelDTO> getFunnel(@RequestBody FunnelQueryRequest request) {
+        try {
+            return ApiResponse.success(opportunityFunnelService.getFunnel(request.getOrgUnitId(), request.getOwnerId(),
+                request.getFromMonth(), request.getToMonth()));
+        } catch (Exception e) {
+            log.error("查询销售漏斗失败: {}", e.getMessage());
+            return ApiResponse.error("查询销售漏斗失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 立即全量校正漏斗汇总（后台执行）
+     */
+    @PostMapping("/funnel/reconcile")
+    @PreAuthorize("hasPermission(null, 'system.manage')")
+    public ApiResponse<Void> reconcileFunnel() {
+        if (!backgroundTasks.submit("opportunity-funnel-reconcile", opportunityFunnelService::reconcile)) {
+            return ApiResponse.error("销售漏斗校正正在进行，请稍后再试");
+        }
+        return ApiResponse.success("销售漏斗校正已开始", null);
+    }
+}
@@ -0,0 +1,29 @@
+package com.denwon.crm.module.opportunity.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.time.YearMonth;
+
+/**
+ * 销售漏斗查询条件，均可为空
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+public class FunnelQueryRequest {
+    
+    private Long orgUnitId;
+    
+    private Long ownerId;
+    
+    /**
+     * 预计签约月份范围（含），格式yyyy-MM
+     */
+    @JsonFormat(pattern = "yyyy-MM")
+    private YearMonth fromMonth;
+    
+    @JsonFormat(pattern = "yyyy-MM")
+    private YearMonth toMonth;
+}
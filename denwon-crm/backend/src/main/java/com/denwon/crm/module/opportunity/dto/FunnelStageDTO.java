@@ -0,0 +1,34 @@
+package com.denwon.crm.module.opportunity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 销售漏斗阶段DTO
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FunnelStageDTO {
+    
+    private String stage;
+    
+    private String stageName;
+    
+    private Long opportunityCount;
+    
+    private BigDecimal amountExTax;
+    
+    /**
+     * 按赢率加权的预计金额
+     */
+    private BigDecimal weightedAmountExTax;
+}
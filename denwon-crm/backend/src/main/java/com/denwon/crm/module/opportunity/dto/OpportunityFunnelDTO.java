@@ -0,0 +1,56 @@
+package com.denwon.crm.module.opportunity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * 销售漏斗DTO
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpportunityFunnelDTO {
+    
+    private Long orgUnitId;
+    
+    private Long ownerId;
+    
+    private YearMonth fromMonth;
+    
+    private YearMonth toMonth;
+    
+    /**
+     * 按阶段模板顺序排列，模板外的阶段排在最后
+     */
+    private List<FunnelStageDTO> stages;
+    
+    private Long totalCount;
+    
+    private BigDecimal totalAmountExTax;
+    
+    private BigDecimal totalWeightedAmountExTax;
+    
+    /**
+     * 进行中（未赢单、未输单）商机的预计金额
+     */
+    private BigDecimal pipelineAmountExTax;
+    
+    private Long wonCount;
+    
+    private Long lostCount;
+    
+    /**
+     * 赢单率 = 赢单数 / (赢单数 + 输单数)，没有结束的商机时为空
+     */
+    private BigDecimal winRate;
+}
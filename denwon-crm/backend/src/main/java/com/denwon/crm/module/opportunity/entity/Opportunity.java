@@ -1,9 +1,13 @@
 package com.denwon.crm.module.opportunity.entity;
 
 import com.denwon.crm.common.entity.BaseEntity;
+import com.denwon.crm.common.entity.DataScoped;
 import com.denwon.crm.module.customer.entity.Customer;
 import com.denwon.crm.module.customer.entity.Contact;
+import com.denwon.crm.module.opportunity.service.FunnelContribution;
+import com.denwon.crm.module.opportunity.service.OpportunityFunnelListener;
 import com.denwon.crm.module.system.entity.User;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -18,7 +22,9 @@ import java.time.LocalDateTime;
  * @since 1.0.0
  */
 @Entity
+@EntityListeners(OpportunityFunnelListener.class)
 @Table(name = "opportunities")
+@DataScoped(collaborators = true)
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -85,4 +91,13 @@ public class Opportunity extends BaseEntity {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", insertable = false, updatable = false)
     private User owner;
+    
+    /**
+     * 加载或上次写入时计入销售漏斗汇总的贡献，用于计算修改前后的差额
+     */
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private FunnelContribution funnelSnapshot;
 }
\ No newline at end of file
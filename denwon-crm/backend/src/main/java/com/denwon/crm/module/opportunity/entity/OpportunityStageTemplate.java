@@ -0,0 +1,60 @@
+package com.denwon.crm.module.opportunity.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.LocalDateTime;
+
+/**
+ * 商机阶段模板实体
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "opportunity_stage_templates")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "stage-template")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OpportunityStageTemplate {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 100)
+    private String name;
+    
+    @Column(name = "org_unit_id")
+    private Long orgUnitId;
+    
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private String stages; // [{code, name, probability, sortOrder}]
+    
+    @Column(name = "is_default")
+    @Builder.Default
+    private Boolean isDefault = false;
+    
+    @Column(columnDefinition = "integer default 1")
+    @Builder.Default
+    private Integer status = 1;
+    
+    @Column(name = "created_by", updatable = false)
+    private Long createdBy;
+    
+    @Column(name = "created_at", updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    @Column(name = "updated_by")
+    private Long updatedBy;
+    
+    @Column(name = "updated_at")
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -0,0 +1,175 @@
+package com.denwon.crm.module.opportunity.repository;
+
+import com.denwon.crm.module.opportunity.service.FunnelContribution;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 销售漏斗汇总数据访问
+ * 商机修改在同一事务内追加增量行，后台任务把增量并入汇总表；并入与全量校正共用一把事务级咨询锁，
+ * 多实例部署时同一时刻只有一个实例在写汇总表
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class OpportunityFunnelJdbcRepository {
+
+    private static final String LOCK_KEY = "hashtext('opportunity_funnel_rollups')";
+
+    private static final String ROLLUP_KEYS = "org_unit_id, owner_id, stage, sign_month";
+
+    private static final String UPSERT_SUFFIX =
+        "ON CONFLICT (" + ROLLUP_KEYS + ") DO UPDATE SET " +
+            "opportunity_count = r.opportunity_count + EXCLUDED.opportunity_count, " +
+            "amount_ex_tax = r.amount_ex_tax + EXCLUDED.amount_ex_tax, " +
+            "weighted_amount_ex_tax = r.weighted_amount_ex_tax + EXCLUDED.weighted_amount_ex_tax, " +
+            "updated_at = now() ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 追加增量行（在商机修改的事务内执行）
+     */
+    public void insertDeltas(List<FunnelContribution> deltas) {
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO opportunity_funnel_deltas (" + ROLLUP_KEYS + ", opportunity_count, amount_ex_tax, " +
+                "weighted_amount_ex_tax) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            deltas, deltas.size(), (ps, delta) -> {
+                ps.setLong(1, delta.orgUnitId());
+                ps.setLong(2, delta.ownerId());
+                ps.setString(3, delta.stage());
+                ps.setInt(4, delta.signMonth());
+                ps.setInt(5, delta.count());
+                ps.setBigDecimal(6, delta.amount());
+                ps.setBigDecimal(7, delta.weightedAmount());
+            });
+    }
+
+    /**
+     * 把最早的limit条增量并入汇总表，返回并入的条数；其他实例正在写汇总表时返回-1
+     */
+    @Transactional
+    public int fold(int limit) {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT pg_try_advisory_xact_lock(" + LOCK_KEY + ")", Boolean.class))) {
+            return -1;
+        }
+        Integer folded = jdbcTemplate.queryForObject(
+            "WITH moved AS (" +
+                "    DELETE FROM opportunity_funnel_deltas WHERE id IN (" +
+                "        SELECT id FROM opportunity_funnel_deltas ORDER BY id LIMIT ?) " +
+                "    RETURNING " + ROLLUP_KEYS + ", opportunity_count, amount_ex_tax, weighted_amount_ex_tax), " +
+                "upserted AS (" +
+                "    INSERT INTO opportunity_funnel_rollups AS r (" + ROLLUP_KEYS + ", opportunity_count, " +
+                "        amount_ex_tax, weighted_amount_ex_tax) " +
+                "    SELECT " + ROLLUP_KEYS + ", sum(opportunity_count), sum(amount_ex_tax), sum(weighted_amount_ex_tax) " +
+                "    FROM moved GROUP BY " + ROLLUP_KEYS + " " +
+                "    " + UPSERT_SUFFIX + "RETURNING 1) " +
+                "SELECT count(*) FROM moved",
+            Integer.class, limit);
+        return folded != null ? folded : 0;
+    }
+
+    /**
+     * 全量重算并校正汇总表，返回被校正的汇总行数。
+     * 重算与清空增量在同一条语句（同一快照）内完成：快照之后提交的增量保留到下次并入，不会重复计算
+     */
+    @Transactional
+    public int reconcile() {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")::text", String.class);
+        Integer corrected = jdbcTemplate.queryForObject(
+            "WITH consumed AS (DELETE FROM opportunity_funnel_deltas RETURNING id), " +
+                "actual AS (" +
+                "    SELECT COALESCE(org_unit_id, 0) AS org_unit_id, COALESCE(owner_id, 0) AS owner_id, " +
+                "           COALESCE(current_stage, '') AS stage, " +
+                "           COALESCE(EXTRACT(YEAR FROM expected_sign_at)::int * 100 " +
+                "                    + EXTRACT(MONTH FROM expected_sign_at)::int, 0) AS sign_month, " +
+                "           count(*) AS opportunity_count, " +
+                "           COALESCE(sum(expected_amount_ex_tax), 0) AS amount_ex_tax, " +
+                "           COALESCE(sum((expected_amount_ex_tax * COALESCE(probability, 0) / 100)::numeric(22,4)), 0) " +
+                "               AS weighted_amount_ex_tax " +
+                "    FROM opportunities WHERE deleted IS NOT TRUE " +
+                "    GROUP BY 1, 2, 3, 4), " +
+                "upserted AS (" +
+                "    INSERT INTO opportunity_funnel_rollups AS r (" + ROLLUP_KEYS + ", opportunity_count, " +
+                "        amount_ex_tax, weighted_amount_ex_tax) " +
+                "    SELECT * FROM actual " +
+                "    ON CONFLICT (" + ROLLUP_KEYS + ") DO UPDATE SET " +
+                "        opportunity_count = EXCLUDED.opportunity_count, amount_ex_tax = EXCLUDED.amount_ex_tax, " +
+                "        weighted_amount_ex_tax = EXCLUDED.weighted_amount_ex_tax, updated_at = now() " +
+                "    WHERE (r.opportunity_count, r.amount_ex_tax, r.weighted_amount_ex_tax) IS DISTINCT FROM " +
+                "          (EXCLUDED.opportunity_count, EXCLUDED.amount_ex_tax, EXCLUDED.weighted_amount_ex_tax) " +
+                "    RETURNING 1), " +
+                "zeroed AS (" +
+                "    DELETE FROM opportunity_funnel_rollups r WHERE NOT EXISTS (" +
+                "        SELECT 1 FROM actual a WHERE a.org_unit_id = r.org_unit_id AND a.owner_id = r.owner_id " +
+                "        AND a.stage = r.stage AND a.sign_month = r.sign_month) " +
+                "    RETURNING (r.opportunity_count <> 0 OR r.amount_ex_tax <> 0 OR r.weighted_amount_ex_tax <> 0) AS drifted) " +
+                "SELECT (SELECT count(*) FROM upserted) + (SELECT count(*) FROM zeroed WHERE drifted)",
+            Integer.class);
+        return corrected != null ? corrected : 0;
+    }
+
+    public long countPendingDeltas() {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM opportunity_funnel_deltas", Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 按阶段汇总漏斗
+     *
+     * @param orgUnitIds      查询的组织范围，null表示不限
+     * @param visibleOrgUnits 当前用户可见的组织，null表示不限；不为null时selfId负责的商机也可见
+     * @param selfId          当前用户ID
+     * @param ownerId         负责人，null表示不限
+     * @param fromMonth       起始预计签约月份（yyyymm），null表示不限
+     * @param toMonth         截止预计签约月份（yyyymm），null表示不限
+     */
+    public List<StageRow> findStages(Long[] orgUnitIds, Long[] visibleOrgUnits, Long selfId, Long ownerId,
+                                     Integer fromMonth, Integer toMonth) {
+        StringBuilder sql = new StringBuilder(
+            "SELECT stage, sum(opportunity_count) AS opportunity_count, sum(amount_ex_tax) AS amount_ex_tax, " +
+                "sum(weighted_amount_ex_tax) AS weighted_amount_ex_tax FROM opportunity_funnel_rollups WHERE TRUE");
+        List<Object> args = new ArrayList<>();
+        if (orgUnitIds != null) {
+            sql.append(" AND org_unit_id = ANY(?)");
+            args.add(orgUnitIds);
+        }
+        if (visibleOrgUnits != null) {
+            sql.append(" AND (org_unit_id = ANY(?) OR owner_id = ?)");
+            args.add(visibleOrgUnits);
+            args.add(selfId);
+        }
+        if (ownerId != null) {
+            sql.append(" AND owner_id = ?");
+            args.add(ownerId);
+        }
+        if (fromMonth != null) {
+            sql.append(" AND sign_month >= ?");
+            args.add(fromMonth);
+        }
+        if (toMonth != null) {
+            sql.append(" AND sign_month BETWEEN 1 AND ?");
+            args.add(toMonth);
+        }
+        sql.append(" GROUP BY stage HAVING sum(opportunity_count) <> 0");
+        return jdbcTemplate.query(sql.toString(),
+            (rs, i) -> new StageRow(rs.getString("stage"), rs.getLong("opportunity_count"),
+                rs.getBigDecimal("amount_ex_tax"), rs.getBigDecimal("weighted_amount_ex_tax")),
+            args.toArray());
+    }
+
+    /**
+     * 某一阶段的汇总
+     */
+    public record StageRow(String stage, long count, BigDecimal amount, BigDecimal weightedAmount) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.denwon.crm.module.opportunity.repository;
+
+import com.denwon.crm.module.opportunity.entity.OpportunityStageTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 商机阶段模板数据访问层
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+public interface OpportunityStageTemplateRepository extends JpaRepository<OpportunityStageTemplate, Long> {
+    
+    List<OpportunityStageTemplate> findByOrgUnitIdAndStatus(Long orgUnitId, Integer status);
+    
+    Optional<OpportunityStageTemplate> findFirstByIsDefaultTrueAndStatus(Integer status);
+}
@@ -0,0 +1,52 @@
+package com.denwon.crm.module.opportunity.service;
+
+import com.denwon.crm.module.opportunity.entity.Opportunity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * 一个商机在销售漏斗汇总中的贡献（或其差额）
+ * 汇总键中缺失的组织、负责人、阶段分别记为0、0、空串，预计签约月份为yyyymm，没有时为0
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public record FunnelContribution(long orgUnitId, long ownerId, String stage, int signMonth,
+                                 int count, BigDecimal amount, BigDecimal weightedAmount) {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    /**
+     * 商机当前的贡献，已删除的商机不计入漏斗，返回null
+     */
+    public static FunnelContribution of(Opportunity opportunity) {
+        if (Boolean.TRUE.equals(opportunity.getDeleted())) {
+            return null;
+        }
+        BigDecimal amount = opportunity.getExpectedAmountExTax() != null
+            ? opportunity.getExpectedAmountExTax().setScale(2, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO.setScale(2);
+        int probability = opportunity.getProbability() != null ? opportunity.getProbability() : 0;
+        BigDecimal weighted = amount.multiply(BigDecimal.valueOf(probability))
+            .divide(HUNDRED, 4, RoundingMode.HALF_UP);
+        return new FunnelContribution(
+            opportunity.getOrgUnitId() != null ? opportunity.getOrgUnitId() : 0,
+            opportunity.getOwnerId() != null ? opportunity.getOwnerId() : 0,
+            opportunity.getCurrentStage() != null ? opportunity.getCurrentStage() : "",
+            month(opportunity.getExpectedSignAt()), 1, amount, weighted);
+    }
+
+    /**
+     * 预计签约月份编码为yyyymm，没有日期时为0
+     */
+    public static int month(LocalDate date) {
+        return date != null ? date.getYear() * 100 + date.getMonthValue() : 0;
+    }
+
+    public FunnelContribution negate() {
+        return new FunnelContribution(orgUnitId, ownerId, stage, signMonth, -count, amount.negate(),
+            weightedAmount.negate());
+    }
+}
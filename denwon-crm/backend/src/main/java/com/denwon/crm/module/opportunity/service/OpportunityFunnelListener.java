@@ -0,0 +1,61 @@
+package com.denwon.crm.module.opportunity.service;
+
+import com.denwon.crm.module.opportunity.entity.Opportunity;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 商机实体监听器
+ * 加载时记下商机在漏斗汇总中的贡献，写入时与新的贡献比较，差额在同一事务内记入漏斗增量表，
+ * 回滚的修改不会进入汇总
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class OpportunityFunnelListener {
+
+    private final OpportunityFunnelService opportunityFunnelService;
+
+    @PostLoad
+    public void onLoad(Opportunity opportunity) {
+        opportunity.setFunnelSnapshot(FunnelContribution.of(opportunity));
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Opportunity opportunity) {
+        FunnelContribution current = FunnelContribution.of(opportunity);
+        record(opportunity.getFunnelSnapshot(), current);
+        opportunity.setFunnelSnapshot(current);
+    }
+
+    @PostRemove
+    public void onRemove(Opportunity opportunity) {
+        record(opportunity.getFunnelSnapshot(), null);
+        opportunity.setFunnelSnapshot(null);
+    }
+
+    private void record(FunnelContribution previous, FunnelContribution current) {
+        if (Objects.equals(previous, current)) {
+            return;
+        }
+        List<FunnelContribution> deltas = new ArrayList<>(2);
+        if (previous != null) {
+            deltas.add(previous.negate());
+        }
+        if (current != null) {
+            deltas.add(current);
+        }
+        opportunityFunnelService.record(deltas);
+    }
+}
@@ -0,0 +1,41 @@
+package com.denwon.crm.module.opportunity.service;
+
+import com.denwon.crm.module.opportunity.dto.OpportunityFunnelDTO;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * 销售漏斗服务
+ * 漏斗按（组织、负责人、阶段、预计签约月份）预先汇总，报表只读汇总表
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public interface OpportunityFunnelService {
+    
+    /**
+     * 查询销售漏斗
+     *
+     * @param orgUnitId 组织（含全部下级组织），为空表示不限
+     * @param ownerId   负责人，为空表示不限
+     * @param fromMonth 起始预计签约月份，为空表示不限
+     * @param toMonth   截止预计签约月份，为空表示不限
+     */
+    OpportunityFunnelDTO getFunnel(Long orgUnitId, Long ownerId, YearMonth fromMonth, YearMonth toMonth);
+    
+    /**
+     * 在当前事务内记录商机对漏斗汇总的增量
+     */
+    void record(List<FunnelContribution> deltas);
+    
+    /**
+     * 把待并入的增量并入汇总表
+     */
+    void fold();
+    
+    /**
+     * 全量重算并校正汇总表
+     */
+    void reconcile();
+}
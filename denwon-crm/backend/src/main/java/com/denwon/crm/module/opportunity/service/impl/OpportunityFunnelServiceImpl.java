@@ -0,0 +1,233 @@
+package com.denwon.crm.module.opportunity.service.impl;
+
+import com.denwon.crm.module.opportunity.dto.FunnelStageDTO;
+import com.denwon.crm.module.opportunity.dto.OpportunityFunnelDTO;
+import com.denwon.crm.module.opportunity.entity.OpportunityStageTemplate;
+import com.denwon.crm.module.opportunity.repository.OpportunityFunnelJdbcRepository;
+import com.denwon.crm.module.opportunity.repository.OpportunityFunnelJdbcRepository.StageRow;
+import com.denwon.crm.module.opportunity.repository.OpportunityStageTemplateRepository;
+import com.denwon.crm.module.opportunity.service.FunnelContribution;
+import com.denwon.crm.module.opportunity.service.OpportunityFunnelService;
+import com.denwon.crm.module.system.service.OrgHierarchy;
+import com.denwon.crm.module.system.service.OrgHierarchyService;
+import com.denwon.crm.security.AuthenticatedPrincipal;
+import com.denwon.crm.security.DataScope;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 销售漏斗服务实现
+ * <ul>
+ *   <li>增量：商机实体监听器在修改的事务内追加增量行，定时任务分批并入汇总表，报表最多滞后一个并入周期</li>
+ *   <li>校正：定时全量重算，修正绕过实体直接改库造成的偏差</li>
+ *   <li>查询：组织子树由内存组织树展开，按阶段读取汇总行，不扫描商机表</li>
+ * </ul>
+ * 汇总表不含协作人信息，数据范围不是“全部”的用户只能看到可见组织和本人负责的商机
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OpportunityFunnelServiceImpl implements OpportunityFunnelService {
+
+    private static final String WON = "WON";
+    private static final String LOST = "LOST";
+
+    private static final Long[] NONE = new Long[0];
+
+    private final OpportunityFunnelJdbcRepository funnelRepository;
+    private final OpportunityStageTemplateRepository stageTemplateRepository;
+    private final OrgHierarchyService orgHierarchyService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.opportunity-funnel.fold-batch-size:10000}")
+    private int foldBatchSize;
+
+    /**
+     * 单次并入任务最多处理的批数，积压更多时留给下一周期
+     */
+    @Value("${app.opportunity-funnel.fold-max-batches:20}")
+    private int foldMaxBatches;
+
+    @Override
+    public OpportunityFunnelDTO getFunnel(Long orgUnitId, Long ownerId, YearMonth fromMonth, YearMonth toMonth) {
+        OrgHierarchy hierarchy = orgHierarchyService.current();
+        Long[] orgUnitIds = orgUnitId != null ? boxed(hierarchy.subtreeIds(orgUnitId)) : null;
+
+        Long[] visible = null;
+        Long selfId = null;
+        AuthenticatedPrincipal principal = currentPrincipal();
+        if (principal != null && principal.getDataScope() != DataScope.ALL) {
+            selfId = principal.getUserId();
+            Long ownOrgUnit = principal.getOrgUnitId();
+            visible = ownOrgUnit == null ? NONE : switch (principal.getDataScope()) {
+                case SUBTREE -> boxed(hierarchy.subtreeIds(ownOrgUnit));
+                case DEPARTMENT -> new Long[]{ownOrgUnit};
+                default -> NONE;
+            };
+        }
+
+        List<StageRow> rows = funnelRepository.findStages(orgUnitIds, visible, selfId, ownerId,
+            fromMonth != null ? FunnelContribution.month(fromMonth.atDay(1)) : null,
+            toMonth != null ? FunnelContribution.month(toMonth.atDay(1)) : null);
+        return funnel(rows, orgUnitId, ownerId, fromMonth, toMonth);
+    }
+
+    @Override
+    public void record(List<FunnelContribution> deltas) {
+        if (!deltas.isEmpty()) {
+            funnelRepository.insertDeltas(deltas);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.opportunity-funnel.fold-interval:2000}")
+    public void fold() {
+        try {
+            int total = 0;
+            for (int batch = 0; batch < foldMaxBatches; batch++) {
+                int folded = funnelRepository.fold(foldBatchSize);
+                if (folded > 0) {
+                    total += folded;
+                }
+                if (folded < foldBatchSize) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.debug("销售漏斗增量已并入: {}条", total);
+            }
+        } catch (Exception e) {
+            log.error("销售漏斗增量并入失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "${app.opportunity-funnel.reconcile-cron:0 30 3 * * ?}")
+    public void reconcile() {
+        long start = System.nanoTime();
+        int corrected = funnelRepository.reconcile();
+        if (corrected > 0) {
+            log.warn("销售漏斗汇总已校正: {}行与重算结果不一致，耗时{}ms",
+                corrected, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } else {
+            log.info("销售漏斗汇总校正完成: 无偏差，耗时{}ms",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private OpportunityFunnelDTO funnel(List<StageRow> rows, Long orgUnitId, Long ownerId,
+                                        YearMonth fromMonth, YearMonth toMonth) {
+        Map<String, StageInfo> template = stageTemplate();
+        List<FunnelStageDTO> stages = new ArrayList<>(rows.size());
+        long total = 0;
+        long won = 0;
+        long lost = 0;
+        BigDecimal amount = BigDecimal.ZERO;
+        BigDecimal weighted = BigDecimal.ZERO;
+        BigDecimal pipeline = BigDecimal.ZERO;
+        for (StageRow row : rows) {
+            StageInfo info = template.get(row.stage());
+            stages.add(FunnelStageDTO.builder()
+                .stage(row.stage().isEmpty() ? null : row.stage())
+                .stageName(info != null ? info.name() : row.stage().isEmpty() ? "未设置" : row.stage())
+                .opportunityCount(row.count())
+                .amountExTax(row.amount())
+                .weightedAmountExTax(row.weightedAmount())
+                .build());
+            total += row.count();
+            amount = amount.add(row.amount());
+            weighted = weighted.add(row.weightedAmount());
+            if (WON.equals(row.stage())) {
+                won += row.count();
+            } else if (LOST.equals(row.stage())) {
+                lost += row.count();
+            } else {
+                pipeline = pipeline.add(row.amount());
+            }
+        }
+        stages.sort(Comparator
+            .comparingInt((FunnelStageDTO stage) -> {
+                StageInfo info = template.get(stage.getStage() != null ? stage.getStage() : "");
+                return info != null ? info.sortOrder() : Integer.MAX_VALUE;
+            })
+            .thenComparing(stage -> stage.getStage() != null ? stage.getStage() : ""));
+
+        return OpportunityFunnelDTO.builder()
+            .orgUnitId(orgUnitId)
+            .ownerId(ownerId)
+            .fromMonth(fromMonth)
+            .toMonth(toMonth)
+            .stages(stages)
+            .totalCount(total)
+            .totalAmountExTax(amount)
+            .totalWeightedAmountExTax(weighted)
+            .pipelineAmountExTax(pipeline)
+            .wonCount(won)
+            .lostCount(lost)
+            .winRate(won + lost > 0
+                ? BigDecimal.valueOf(won).divide(BigDecimal.valueOf(won + lost), 4, RoundingMode.HALF_UP) : null)
+            .build();
+    }
+
+    /**
+     * 默认阶段模板中的阶段名称和顺序，模板的stages格式为 [{code, name, probability, sortOrder}]
+     */
+    private Map<String, StageInfo> stageTemplate() {
+        Map<String, StageInfo> stages = new HashMap<>();
+        OpportunityStageTemplate template = stageTemplateRepository.findFirstByIsDefaultTrueAndStatus(1).orElse(null);
+        if (template == null) {
+            return stages;
+        }
+        try {
+            int position = 0;
+            for (JsonNode node : objectMapper.readTree(template.getStages())) {
+                String code = node.path("code").asText(null);
+                if (code != null) {
+                    int sortOrder = node.has("sortOrder") ? node.get("sortOrder").asInt() : position;
+                    stages.put(code, new StageInfo(node.path("name").asText(code), sortOrder));
+                }
+                position++;
+            }
+        } catch (Exception e) {
+            log.warn("解析商机阶段模板失败: {}", e.getMessage());
+        }
+        return stages;
+    }
+
+    private static Long[] boxed(long[] ids) {
+        Long[] boxed = new Long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            boxed[i] = ids[i];
+        }
+        return boxed;
+    }
+
+    private static AuthenticatedPrincipal currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthenticatedPrincipal principal
+            ? principal : null;
+    }
+
+    private record StageInfo(String name, int sortOrder) {
+    }
+}
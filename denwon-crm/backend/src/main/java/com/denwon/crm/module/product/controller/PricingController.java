@@ -0,0 +1,55 @@
+package com.denwon.crm.module.product.controller;
+
+import com.denwon.crm.common.response.ApiResponse;
+import com.denwon.crm.module.product.dto.PriceQuoteRequest;
+import com.denwon.crm.module.product.dto.PriceQuoteResultDTO;
+import com.denwon.crm.module.product.service.PricingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 取价控制器
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/pricing")
+@RequiredArgsConstructor
+public class PricingController {
+
+    private final PricingService pricingService;
+
+    /**
+     * 报价单批量取价
+     */
+    @PostMapping("/quote")
+    @PreAuthorize("hasPermission(null, 'quote.create') or hasPermission(null, 'quote.update')")
+    public ApiResponse<PriceQuoteResultDTO> quote(@Valid @RequestBody PriceQuoteRequest request) {
+        try {
+            return ApiResponse.success(pricingService.quote(request));
+        } catch (Exception e) {
+            log.error("批量取价失败: {}", e.getMessage());
+            return ApiResponse.error("批量取价失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 全量重建价格策略索引
+     */
+    @PostMapping("/reload")
+    @PreAuthorize("hasPermission(null, 'system.manage')")
+    public ApiResponse<Void> reload() {
+        try {
+            pricingService.reload();
+            return ApiResponse.success("价格策略索引已重建", null);
+        } catch (Exception e) {
+            log.error("重建价格策略索引失败: {}", e.getMessage());
+            return ApiResponse.error("重建价格策略索引失败: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.denwon.crm.module.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 取价结果明细DTO
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteLineDTO {
+    
+    private Integer lineNo;
+    
+    private Long productId;
+    
+    private String productCode;
+    
+    private String productName;
+    
+    private BigDecimal quantity;
+    
+    private BigDecimal standardPrice;
+    
+    private BigDecimal unitPriceExTax;
+    
+    private BigDecimal taxRate;
+    
+    private BigDecimal subtotalExTax;
+    
+    private BigDecimal taxAmount;
+    
+    private BigDecimal subtotalIncTax;
+    
+    /**
+     * 胜出的价格策略（审计用），为空表示按产品标准价
+     */
+    private Long policyId;
+    
+    private String policyCode;
+    
+    private String policyType;
+    
+    /**
+     * 单价低于产品最低价
+     */
+    private Boolean belowMinPrice;
+    
+    /**
+     * 无法取价的原因（产品不存在、没有标准价等），正常时为空
+     */
+    private String error;
+}
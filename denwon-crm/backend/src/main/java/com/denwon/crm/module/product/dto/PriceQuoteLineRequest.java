@@ -0,0 +1,29 @@
+package com.denwon.crm.module.product.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 取价明细行
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+public class PriceQuoteLineRequest {
+    
+    /**
+     * 行号，原样返回，为空时按顺序编号
+     */
+    private Integer lineNo;
+    
+    @NotNull(message = "产品不能为空")
+    private Long productId;
+    
+    @NotNull(message = "数量不能为空")
+    @Positive(message = "数量必须大于0")
+    private BigDecimal quantity;
+}
@@ -0,0 +1,33 @@
+package com.denwon.crm.module.product.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 批量取价请求：一张报价单的全部明细一次取价
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+public class PriceQuoteRequest {
+    
+    private Long customerId;
+    
+    private Long regionId;
+    
+    /**
+     * 取价时间，为空时取当前时间
+     */
+    private LocalDateTime pricingTime;
+    
+    @Valid
+    @NotEmpty(message = "报价明细不能为空")
+    @Size(max = 2000, message = "单次最多2000行明细")
+    private List<PriceQuoteLineRequest> lines;
+}
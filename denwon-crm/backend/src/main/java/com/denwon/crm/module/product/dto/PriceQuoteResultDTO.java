@@ -0,0 +1,42 @@
+package com.denwon.crm.module.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 批量取价结果DTO
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteResultDTO {
+    
+    private Long customerId;
+    
+    private Long regionId;
+    
+    private LocalDateTime pricingTime;
+    
+    private List<PriceQuoteLineDTO> lines;
+    
+    private BigDecimal totalExTax;
+    
+    private BigDecimal totalTax;
+    
+    private BigDecimal totalIncTax;
+    
+    /**
+     * 无法取价的行数
+     */
+    private Integer failedLines;
+}
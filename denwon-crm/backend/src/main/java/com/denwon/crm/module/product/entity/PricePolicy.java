@@ -0,0 +1,92 @@
+package com.denwon.crm.module.product.entity;
+
+import com.denwon.crm.module.product.service.PricePolicyListener;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 价格策略实体
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Entity
+@EntityListeners(PricePolicyListener.class)
+@Table(name = "price_policies")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "price-policy")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PricePolicy {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(unique = true, nullable = false, length = 50)
+    private String code;
+    
+    @Column(nullable = false, length = 100)
+    private String name;
+    
+    @Column(nullable = false, length = 20)
+    private String type; // STANDARD, AGREEMENT, REGIONAL, PROMOTION
+    
+    @Column(name = "region_id")
+    private Long regionId;
+    
+    @Column(name = "customer_id")
+    private Long customerId;
+    
+    @Column(name = "product_id")
+    private Long productId;
+    
+    @Column(name = "product_category_id")
+    private Long productCategoryId;
+    
+    @Column(name = "price_ex_tax", precision = 18, scale = 4)
+    private BigDecimal priceExTax;
+    
+    @Column(name = "discount_rate", precision = 5, scale = 2)
+    private BigDecimal discountRate;
+    
+    @Column(name = "min_quantity", precision = 18, scale = 4)
+    private BigDecimal minQuantity;
+    
+    @Column(name = "effective_from", nullable = false)
+    private LocalDateTime effectiveFrom;
+    
+    @Column(name = "effective_to")
+    private LocalDateTime effectiveTo;
+    
+    @Builder.Default
+    private Integer priority = 0;
+    
+    @Column(columnDefinition = "jsonb")
+    private String conditions;
+    
+    @Column(columnDefinition = "integer default 1")
+    @Builder.Default
+    private Integer status = 1;
+    
+    @Column(name = "created_by", updatable = false)
+    private Long createdBy;
+    
+    @Column(name = "created_at", updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    @Column(name = "updated_by")
+    private Long updatedBy;
+    
+    @Column(name = "updated_at")
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -0,0 +1,23 @@
+package com.denwon.crm.module.product.repository;
+
+import com.denwon.crm.module.product.entity.PricePolicy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 价格策略数据访问层
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+public interface PricePolicyRepository extends JpaRepository<PricePolicy, Long>, JpaSpecificationExecutor<PricePolicy> {
+    
+    Optional<PricePolicy> findByCode(String code);
+    
+    List<PricePolicy> findByStatus(Integer status);
+}
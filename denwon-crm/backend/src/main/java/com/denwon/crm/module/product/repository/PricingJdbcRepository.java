@@ -0,0 +1,144 @@
+package com.denwon.crm.module.product.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 取价数据访问（价格策略索引加载与产品价格信息）
+ * 只有启用且设置了单价或折扣率的策略进入索引
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class PricingJdbcRepository {
+
+    private static final String COLUMNS = "id, code, type, priority, customer_id, region_id, product_id, " +
+        "product_category_id, price_ex_tax, discount_rate, min_quantity, effective_from, effective_to, status, updated_at";
+
+    private static final String INDEXED = "status = 1 AND (price_ex_tax IS NOT NULL OR discount_rate IS NOT NULL)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 全部可进入索引的策略
+     */
+    public List<PolicyRow> findIndexed() {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM price_policies WHERE " + INDEXED,
+            (rs, i) -> mapRow(rs));
+    }
+
+    /**
+     * 指定策略的当前状态（含停用的），已删除的不返回
+     */
+    public List<PolicyRow> findByIds(Long[] ids) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM price_policies WHERE id = ANY(?)",
+            (rs, i) -> mapRow(rs), (Object) ids);
+    }
+
+    /**
+     * 修改时间不早于since的策略（含停用的）
+     */
+    public List<PolicyRow> findChangedSince(LocalDateTime since) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM price_policies WHERE updated_at >= ?",
+            (rs, i) -> mapRow(rs), Timestamp.valueOf(since));
+    }
+
+    public int countIndexed() {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM price_policies WHERE " + INDEXED, Integer.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 策略表和分类表的变更签名，用于发现其他实例的修改
+     */
+    public Signature signature() {
+        return jdbcTemplate.queryForObject(
+            "SELECT (SELECT count(*) || ':' || COALESCE(max(updated_at)::text, '') FROM price_policies) AS policies, " +
+                "(SELECT max(updated_at) FROM price_policies) AS policies_updated_at, " +
+                "(SELECT count(*) || ':' || COALESCE(max(updated_at)::text, '') FROM product_categories) AS categories",
+            (rs, i) -> {
+                Timestamp updatedAt = rs.getTimestamp("policies_updated_at");
+                return new Signature(rs.getString("policies"), updatedAt != null ? updatedAt.toLocalDateTime() : null,
+                    rs.getString("categories"));
+            });
+    }
+
+    /**
+     * 产品分类层级：分类ID → 上级分类ID
+     */
+    public Map<Long, Long> loadCategoryParents() {
+        Map<Long, Long> parents = new HashMap<>();
+        jdbcTemplate.query("SELECT id, parent_id FROM product_categories WHERE parent_id IS NOT NULL",
+            rs -> {
+                parents.put(rs.getLong("id"), rs.getLong("parent_id"));
+            });
+        return parents;
+    }
+
+    /**
+     * 一次取回报价涉及的全部产品
+     */
+    public Map<Long, ProductRow> findProducts(Long[] ids) {
+        Map<Long, ProductRow> products = new HashMap<>(ids.length * 2);
+        jdbcTemplate.query(
+            "SELECT id, code, name, category_id, standard_price, min_price, tax_rate FROM products " +
+                "WHERE id = ANY(?) AND deleted IS NOT TRUE",
+            rs -> {
+                products.put(rs.getLong("id"), new ProductRow(rs.getLong("id"), rs.getString("code"),
+                    rs.getString("name"), rs.getLong("category_id"), rs.getBigDecimal("standard_price"),
+                    rs.getBigDecimal("min_price"), rs.getBigDecimal("tax_rate")));
+            },
+            (Object) ids);
+        return products;
+    }
+
+    private static PolicyRow mapRow(ResultSet rs) throws SQLException {
+        Timestamp effectiveTo = rs.getTimestamp("effective_to");
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return new PolicyRow(rs.getLong("id"), rs.getString("code"), rs.getString("type"), rs.getInt("priority"),
+            rs.getLong("customer_id"), rs.getLong("region_id"), rs.getLong("product_id"),
+            rs.getLong("product_category_id"), rs.getBigDecimal("price_ex_tax"), rs.getBigDecimal("discount_rate"),
+            rs.getBigDecimal("min_quantity"), rs.getTimestamp("effective_from").toLocalDateTime(),
+            effectiveTo != null ? effectiveTo.toLocalDateTime() : null,
+            rs.getInt("status"), updatedAt != null ? updatedAt.toLocalDateTime() : null);
+    }
+
+    /**
+     * 价格策略行，未指定的ID为0
+     */
+    public record PolicyRow(long id, String code, String type, int priority, long customerId, long regionId,
+                            long productId, long categoryId, BigDecimal priceExTax, BigDecimal discountRate,
+                            BigDecimal minQuantity, LocalDateTime effectiveFrom, LocalDateTime effectiveTo,
+                            int status, LocalDateTime updatedAt) {
+
+        public boolean indexed() {
+            return status == 1 && (priceExTax != null || discountRate != null);
+        }
+    }
+
+    /**
+     * 取价需要的产品字段，没有分类时categoryId为0
+     */
+    public record ProductRow(long id, String code, String name, long categoryId, BigDecimal standardPrice,
+                             BigDecimal minPrice, BigDecimal taxRate) {
+    }
+
+    /**
+     * 变更签名；policiesUpdatedAt为策略表最后修改时间，作为增量同步的起点
+     */
+    public record Signature(String policies, LocalDateTime policiesUpdatedAt, String categories) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.denwon.crm.module.product.service;
+
+import com.denwon.crm.module.product.entity.PricePolicy;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 价格策略实体监听器
+ * 策略新增、修改或删除后，事务提交时增量刷新取价索引
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class PricePolicyListener {
+
+    private final PricingService pricingService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(PricePolicy policy) {
+        pricingService.refreshAfterCommit(policy.getId());
+    }
+}
@@ -0,0 +1,36 @@
+package com.denwon.crm.module.product.service;
+
+import com.denwon.crm.module.product.dto.PriceQuoteRequest;
+import com.denwon.crm.module.product.dto.PriceQuoteResultDTO;
+
+import java.util.Collection;
+
+/**
+ * 取价服务
+ * 价格策略常驻内存索引，一张报价单的全部明细一次取价
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public interface PricingService {
+    
+    /**
+     * 批量取价
+     */
+    PriceQuoteResultDTO quote(PriceQuoteRequest request);
+    
+    /**
+     * 按数据库当前状态刷新指定策略
+     */
+    void refresh(Collection<Long> policyIds);
+    
+    /**
+     * 当前事务提交后刷新指定策略；同一事务内的多次修改合并为一次刷新
+     */
+    void refreshAfterCommit(Long policyId);
+    
+    /**
+     * 全量重建索引
+     */
+    void reload();
+}
@@ -0,0 +1,83 @@
+package com.denwon.crm.module.product.service.impl;
+
+import com.denwon.crm.module.product.service.impl.PriceIndex.Policy;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 价格策略有效期区间树（不可变）
+ * 策略按生效时间排序存入数组，以区间中点为根构成隐式平衡二叉树，每个节点记录子树内最大失效时间；
+ * 查询某一时刻生效的策略为 O(log n + k)，不分配对象。区间为左闭右开 [生效时间, 失效时间)
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+final class PolicyIntervalTree {
+
+    private final Policy[] policies;
+
+    private final long[] from;
+
+    private final long[] maxTo;
+
+    private PolicyIntervalTree(Policy[] policies) {
+        this.policies = policies;
+        this.from = new long[policies.length];
+        this.maxTo = new long[policies.length];
+        for (int i = 0; i < policies.length; i++) {
+            from[i] = policies[i].from();
+        }
+        augment(0, policies.length);
+    }
+
+    static PolicyIntervalTree of(List<Policy> policies) {
+        Policy[] sorted = policies.toArray(new Policy[0]);
+        Arrays.sort(sorted, Comparator.comparingLong(Policy::from).thenComparingLong(Policy::id));
+        return new PolicyIntervalTree(sorted);
+    }
+
+    int size() {
+        return policies.length;
+    }
+
+    List<Policy> policies() {
+        return Arrays.asList(policies);
+    }
+
+    /**
+     * 遍历在时刻at生效的策略
+     */
+    void stab(long at, Consumer<Policy> consumer) {
+        stab(at, 0, policies.length, consumer);
+    }
+
+    private void stab(long at, int low, int high, Consumer<Policy> consumer) {
+        if (low >= high) {
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        if (maxTo[mid] <= at) {
+            return;
+        }
+        stab(at, low, mid, consumer);
+        if (from[mid] <= at) {
+            if (policies[mid].to() > at) {
+                consumer.accept(policies[mid]);
+            }
+            stab(at, mid + 1, high, consumer);
+        }
+    }
+
+    private long augment(int low, int high) {
+        if (low >= high) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (low + high) >>> 1;
+        long max = Math.max(policies[mid].to(), Math.max(augment(low, mid), augment(mid + 1, high)));
+        maxTo[mid] = max;
+        return max;
+    }
+}
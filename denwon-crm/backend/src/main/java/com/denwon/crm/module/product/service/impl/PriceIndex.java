@@ -0,0 +1,303 @@
+package com.denwon.crm.module.product.service.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 价格策略内存索引（不可变快照）
+ * 指定产品的策略按产品分桶，指定分类的策略按分类分桶，两者都不指定的放在全局桶，每个桶是一棵有效期区间树。
+ * 取价时依次查产品桶、产品所在分类及各级上级分类的桶、全局桶，在生效的策略中选出：
+ * 类型（协议价 &gt; 促销价 &gt; 区域价 &gt; 标准价）、优先级、范围（产品 &gt; 近分类 &gt; 远分类 &gt; 全局）、
+ * 起订量依次从高到低，最后取ID大的。
+ * 策略变更时只重建受影响的桶，其余桶与上一份快照共用
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+final class PriceIndex {
+
+    static final PriceIndex EMPTY = new PriceIndex(Map.of(), Map.of(), Map.of(), null, Map.of());
+
+    /**
+     * 分类层级的最大深度，防止分类数据成环时死循环
+     */
+    private static final int MAX_CATEGORY_DEPTH = 32;
+
+    private static final int GLOBAL_LEVEL = Integer.MAX_VALUE;
+
+    private final Map<Long, Policy> policies;
+
+    private final Map<Long, PolicyIntervalTree> byProduct;
+
+    private final Map<Long, PolicyIntervalTree> byCategory;
+
+    private final PolicyIntervalTree global;
+
+    /**
+     * 分类ID → 上级分类ID
+     */
+    private final Map<Long, Long> parents;
+
+    private PriceIndex(Map<Long, Policy> policies, Map<Long, PolicyIntervalTree> byProduct,
+                       Map<Long, PolicyIntervalTree> byCategory, PolicyIntervalTree global, Map<Long, Long> parents) {
+        this.policies = policies;
+        this.byProduct = byProduct;
+        this.byCategory = byCategory;
+        this.global = global;
+        this.parents = parents;
+    }
+
+    static PriceIndex build(Collection<Policy> policies, Map<Long, Long> parents) {
+        Map<Long, Policy> byId = new HashMap<>(policies.size() * 2);
+        Map<Long, List<Policy>> products = new HashMap<>();
+        Map<Long, List<Policy>> categories = new HashMap<>();
+        List<Policy> global = new ArrayList<>();
+        for (Policy policy : policies) {
+            byId.put(policy.id(), policy);
+            if (policy.productId() != 0) {
+                products.computeIfAbsent(policy.productId(), k -> new ArrayList<>()).add(policy);
+            } else if (policy.categoryId() != 0) {
+                categories.computeIfAbsent(policy.categoryId(), k -> new ArrayList<>()).add(policy);
+            } else {
+                global.add(policy);
+            }
+        }
+        return new PriceIndex(byId, trees(products), trees(categories),
+            global.isEmpty() ? null : PolicyIntervalTree.of(global), Map.copyOf(parents));
+    }
+
+    /**
+     * 应用策略变更：upserts为新增或修改后仍有效的策略，removedIds为删除或停用的策略。
+     * 只重建新旧位置涉及的桶
+     */
+    PriceIndex apply(Collection<Policy> upserts, Collection<Long> removedIds) {
+        Map<Long, Policy> byId = new HashMap<>(policies);
+        Set<Long> changed = new HashSet<>(removedIds);
+        Set<Long> products = new HashSet<>();
+        Set<Long> categories = new HashSet<>();
+        boolean globalChanged = false;
+
+        List<Policy> touched = new ArrayList<>(upserts);
+        for (Long id : removedIds) {
+            Policy old = byId.remove(id);
+            if (old != null) {
+                touched.add(old);
+            }
+        }
+        for (Policy policy : upserts) {
+            changed.add(policy.id());
+            Policy old = byId.put(policy.id(), policy);
+            if (old != null) {
+                touched.add(old);
+            }
+        }
+        for (Policy policy : touched) {
+            if (policy.productId() != 0) {
+                products.add(policy.productId());
+            } else if (policy.categoryId() != 0) {
+                categories.add(policy.categoryId());
+            } else {
+                globalChanged = true;
+            }
+        }
+
+        Map<Long, PolicyIntervalTree> byProduct = new HashMap<>(this.byProduct);
+        for (Long productId : products) {
+            rebuild(byProduct, productId, changed, upserts, p -> p.productId() == productId);
+        }
+        Map<Long, PolicyIntervalTree> byCategory = new HashMap<>(this.byCategory);
+        for (Long categoryId : categories) {
+            rebuild(byCategory, categoryId, changed, upserts,
+                p -> p.productId() == 0 && p.categoryId() == categoryId);
+        }
+        PolicyIntervalTree global = this.global;
+        if (globalChanged) {
+            List<Policy> bucket = merge(global, changed, upserts, p -> p.productId() == 0 && p.categoryId() == 0);
+            global = bucket.isEmpty() ? null : PolicyIntervalTree.of(bucket);
+        }
+        return new PriceIndex(byId, byProduct, byCategory, global, parents);
+    }
+
+    /**
+     * 替换分类层级，策略桶原样共用
+     */
+    PriceIndex withCategories(Map<Long, Long> parents) {
+        return new PriceIndex(policies, byProduct, byCategory, global, Map.copyOf(parents));
+    }
+
+    int size() {
+        return policies.size();
+    }
+
+    /**
+     * 取价：返回胜出的策略，没有适用策略时返回null
+     *
+     * @param productId  产品ID
+     * @param categoryId 产品分类ID，没有分类时为0
+     * @param quantity   数量
+     * @param customerId 客户ID，没有客户时为0
+     * @param regionId   区域ID，没有区域时为0
+     * @param at         取价时刻（见 {@link #time(LocalDateTime)}）
+     */
+    Policy resolve(long productId, long categoryId, BigDecimal quantity, long customerId, long regionId, long at) {
+        Selector selector = new Selector(quantity, customerId, regionId);
+
+        PolicyIntervalTree tree = byProduct.get(productId);
+        if (tree != null) {
+            selector.level = 0;
+            tree.stab(at, selector);
+        }
+        long category = categoryId;
+        for (int level = 1; category != 0 && level <= MAX_CATEGORY_DEPTH; level++) {
+            tree = byCategory.get(category);
+            if (tree != null) {
+                selector.level = level;
+                tree.stab(at, selector);
+            }
+            Long parent = parents.get(category);
+            category = parent != null ? parent : 0;
+        }
+        if (global != null) {
+            selector.level = GLOBAL_LEVEL;
+            global.stab(at, selector);
+        }
+        return selector.best;
+    }
+
+    /**
+     * 生效区间的时间刻度（本地时间的毫秒数，不涉及时区换算）
+     */
+    static long time(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private void rebuild(Map<Long, PolicyIntervalTree> trees, Long key, Set<Long> changed, Collection<Policy> upserts,
+                         Predicate<Policy> belongs) {
+        List<Policy> bucket = merge(trees.get(key), changed, upserts, belongs);
+        if (bucket.isEmpty()) {
+            trees.remove(key);
+        } else {
+            trees.put(key, PolicyIntervalTree.of(bucket));
+        }
+    }
+
+    private static List<Policy> merge(PolicyIntervalTree tree, Set<Long> changed, Collection<Policy> upserts,
+                                      Predicate<Policy> belongs) {
+        List<Policy> bucket = new ArrayList<>();
+        if (tree != null) {
+            for (Policy policy : tree.policies()) {
+                if (!changed.contains(policy.id())) {
+                    bucket.add(policy);
+                }
+            }
+        }
+        for (Policy policy : upserts) {
+            if (belongs.test(policy)) {
+                bucket.add(policy);
+            }
+        }
+        return bucket;
+    }
+
+    private static Map<Long, PolicyIntervalTree> trees(Map<Long, List<Policy>> buckets) {
+        Map<Long, PolicyIntervalTree> trees = new HashMap<>(buckets.size() * 2);
+        buckets.forEach((key, bucket) -> trees.put(key, PolicyIntervalTree.of(bucket)));
+        return trees;
+    }
+
+    /**
+     * 策略类型，rank越大越优先
+     */
+    enum Type {
+
+        STANDARD(1), REGIONAL(2), PROMOTION(3), AGREEMENT(4);
+
+        final int rank;
+
+        Type(int rank) {
+            this.rank = rank;
+        }
+
+        static Type of(String value) {
+            for (Type type : values()) {
+                if (type.name().equalsIgnoreCase(value)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 索引中的策略。customerId、regionId、productId、categoryId为0表示不限；
+     * price为未税单价，为null时按multiplier乘产品标准价；to为Long.MAX_VALUE表示长期有效
+     */
+    record Policy(long id, String code, Type type, int priority, long customerId, long regionId,
+                  long productId, long categoryId, BigDecimal price, BigDecimal multiplier,
+                  BigDecimal minQuantity, long from, long to) {
+    }
+
+    /**
+     * 遍历生效策略时逐个比较，保留最优的一条
+     */
+    private static final class Selector implements Consumer<Policy> {
+
+        private final BigDecimal quantity;
+        private final long customerId;
+        private final long regionId;
+
+        private int level;
+        private Policy best;
+        private int bestLevel;
+
+        Selector(BigDecimal quantity, long customerId, long regionId) {
+            this.quantity = quantity;
+            this.customerId = customerId;
+            this.regionId = regionId;
+        }
+
+        @Override
+        public void accept(Policy policy) {
+            if ((policy.customerId() != 0 && policy.customerId() != customerId)
+                || (policy.regionId() != 0 && policy.regionId() != regionId)
+                || (policy.minQuantity() != null && (quantity == null || quantity.compareTo(policy.minQuantity()) < 0))) {
+                return;
+            }
+            if (best == null || better(policy, level)) {
+                best = policy;
+                bestLevel = level;
+            }
+        }
+
+        private boolean better(Policy policy, int level) {
+            if (policy.type().rank != best.type().rank) {
+                return policy.type().rank > best.type().rank;
+            }
+            if (policy.priority() != best.priority()) {
+                return policy.priority() > best.priority();
+            }
+            if (level != bestLevel) {
+                return level < bestLevel;
+            }
+            int quantity = compare(policy.minQuantity(), best.minQuantity());
+            if (quantity != 0) {
+                return quantity > 0;
+            }
+            return policy.id() > best.id();
+        }
+
+        private static int compare(BigDecimal a, BigDecimal b) {
+            return (a != null ? a : BigDecimal.ZERO).compareTo(b != null ? b : BigDecimal.ZERO);
+        }
+    }
+}
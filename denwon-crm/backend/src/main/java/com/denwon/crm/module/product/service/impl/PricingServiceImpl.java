@@ -0,0 +1,336 @@
+package com.denwon.crm.module.product.service.impl;
+
+import com.denwon.crm.module.product.dto.PriceQuoteLineDTO;
+import com.denwon.crm.module.product.dto.PriceQuoteLineRequest;
+import com.denwon.crm.module.product.dto.PriceQuoteRequest;
+import com.denwon.crm.module.product.dto.PriceQuoteResultDTO;
+import com.denwon.crm.module.product.repository.PricingJdbcRepository;
+import com.denwon.crm.module.product.repository.PricingJdbcRepository.PolicyRow;
+import com.denwon.crm.module.product.repository.PricingJdbcRepository.ProductRow;
+import com.denwon.crm.module.product.repository.PricingJdbcRepository.Signature;
+import com.denwon.crm.module.product.service.PricingService;
+import com.denwon.crm.module.product.service.impl.PriceIndex.Policy;
+import com.denwon.crm.module.product.service.impl.PriceIndex.Type;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 取价服务实现
+ * <ul>
+ *   <li>启动时把全部启用的策略加载为 {@link PriceIndex} 快照，通过volatile引用原子替换</li>
+ *   <li>本实例修改策略：事务提交后只重新读取改动的策略，重建所在的桶</li>
+ *   <li>其他实例或直接改库：定时比对变更签名，按修改时间增量读取；策略条数对不上（物理删除）时全量重建</li>
+ *   <li>取价：一次查询取回全部产品，逐行在内存索引中选出胜出策略并计算金额</li>
+ * </ul>
+ * 折扣率和税率按百分数存储（85表示85%，1表示1%）
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PricingServiceImpl implements PricingService {
+
+    /**
+     * 事务资源键，绑定当前事务内改动的策略ID
+     */
+    private static final Object REFRESH_KEY = new Object();
+
+    private static final int PRICE_SCALE = 4;
+    private static final int AMOUNT_SCALE = 2;
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final PricingJdbcRepository pricingRepository;
+
+    /**
+     * 增量同步时向前多读的秒数，覆盖修改时间早于提交时间的长事务
+     */
+    @Value("${app.pricing.sync-overlap:300}")
+    private long syncOverlap;
+
+    private final Object reloadLock = new Object();
+
+    private volatile PriceIndex index;
+
+    private volatile Signature signature;
+
+    @Override
+    public PriceQuoteResultDTO quote(PriceQuoteRequest request) {
+        long start = System.nanoTime();
+        LocalDateTime pricingTime = request.getPricingTime() != null ? request.getPricingTime() : LocalDateTime.now();
+        long at = PriceIndex.time(pricingTime);
+        long customerId = request.getCustomerId() != null ? request.getCustomerId() : 0;
+        long regionId = request.getRegionId() != null ? request.getRegionId() : 0;
+
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (PriceQuoteLineRequest line : request.getLines()) {
+            productIds.add(line.getProductId());
+        }
+        productIds.remove(null);
+        Map<Long, ProductRow> products = pricingRepository.findProducts(productIds.toArray(new Long[0]));
+
+        PriceIndex snapshot = current();
+        List<PriceQuoteLineDTO> lines = new ArrayList<>(request.getLines().size());
+        BigDecimal totalExTax = BigDecimal.ZERO;
+        BigDecimal totalTax = BigDecimal.ZERO;
+        int failed = 0;
+        int lineNo = 0;
+        for (PriceQuoteLineRequest line : request.getLines()) {
+            lineNo++;
+            PriceQuoteLineDTO result = price(snapshot, line, products.get(line.getProductId()), customerId, regionId, at);
+            if (result.getLineNo() == null) {
+                result.setLineNo(lineNo);
+            }
+            if (result.getError() != null) {
+                failed++;
+            } else {
+                totalExTax = totalExTax.add(result.getSubtotalExTax());
+                totalTax = totalTax.add(result.getTaxAmount());
+            }
+            lines.add(result);
+        }
+
+        log.debug("批量取价完成: {}行，{}个产品，耗时{}μs",
+            lines.size(), products.size(), TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        return PriceQuoteResultDTO.builder()
+            .customerId(request.getCustomerId())
+            .regionId(request.getRegionId())
+            .pricingTime(pricingTime)
+            .lines(lines)
+            .totalExTax(totalExTax)
+            .totalTax(totalTax)
+            .totalIncTax(totalExTax.add(totalTax))
+            .failedLines(failed)
+            .build();
+    }
+
+    @Override
+    public void refresh(Collection<Long> policyIds) {
+        Set<Long> ids = new HashSet<>(policyIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return;
+        }
+        synchronized (reloadLock) {
+            if (index == null) {
+                reload();
+                return;
+            }
+            apply(pricingRepository.findByIds(ids.toArray(new Long[0])), ids);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void refreshAfterCommit(Long policyId) {
+        if (policyId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(List.of(policyId));
+            return;
+        }
+
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(REFRESH_KEY);
+        if (pending == null) {
+            Set<Long> ids = new HashSet<>();
+            pending = ids;
+            TransactionSynchronizationManager.bindResource(REFRESH_KEY, ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(ids);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(REFRESH_KEY);
+                }
+            });
+        }
+        pending.add(policyId);
+    }
+
+    @Override
+    public void reload() {
+        synchronized (reloadLock) {
+            long start = System.nanoTime();
+            // 先取签名再加载：加载期间的修改会在下次同步时发现
+            Signature loadedSignature = pricingRepository.signature();
+            List<Policy> policies = pricingRepository.findIndexed().stream()
+                .map(PricingServiceImpl::policy)
+                .filter(Objects::nonNull)
+                .toList();
+            PriceIndex loaded = PriceIndex.build(policies, pricingRepository.loadCategoryParents());
+            index = loaded;
+            signature = loadedSignature;
+            log.info("价格策略索引已重建: {}条策略，耗时{}ms",
+                loaded.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * 发现其他实例或直接改库产生的策略、分类变更
+     */
+    @Scheduled(fixedDelayString = "${app.pricing.sync-interval:60000}",
+        initialDelayString = "${app.pricing.sync-interval:60000}")
+    public void sync() {
+        try {
+            Signature last = signature;
+            if (index == null || last == null) {
+                return;
+            }
+            Signature latest = pricingRepository.signature();
+            if (latest.equals(last)) {
+                return;
+            }
+
+            synchronized (reloadLock) {
+                if (!Objects.equals(latest.categories(), last.categories())) {
+                    index = index.withCategories(pricingRepository.loadCategoryParents());
+                }
+                if (!Objects.equals(latest.policies(), last.policies())) {
+                    if (last.policiesUpdatedAt() == null) {
+                        reload();
+                        return;
+                    }
+                    List<PolicyRow> rows = pricingRepository.findChangedSince(
+                        last.policiesUpdatedAt().minusSeconds(syncOverlap));
+                    apply(rows, rows.stream().map(PolicyRow::id).toList());
+                    if (pricingRepository.countIndexed() != index.size()) {
+                        reload();
+                        return;
+                    }
+                }
+                signature = latest;
+            }
+        } catch (Exception e) {
+            log.error("价格策略索引同步失败: {}", e.getMessage());
+        }
+    }
+
+    private PriceIndex current() {
+        PriceIndex current = index;
+        if (current == null) {
+            synchronized (reloadLock) {
+                current = index;
+                if (current == null) {
+                    reload();
+                    current = index;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 调用方持有reloadLock。rows为ids的当前状态，不在rows中或已停用的从索引移除
+     */
+    private void apply(List<PolicyRow> rows, Collection<Long> ids) {
+        List<Policy> upserts = new ArrayList<>();
+        Set<Long> removed = new HashSet<>(ids);
+        for (PolicyRow row : rows) {
+            Policy policy = row.indexed() ? policy(row) : null;
+            if (policy != null) {
+                upserts.add(policy);
+                removed.remove(row.id());
+            } else {
+                removed.add(row.id());
+            }
+        }
+        index = index.apply(upserts, removed);
+        log.debug("价格策略索引增量刷新: 更新{}条，移除{}条", upserts.size(), removed.size());
+    }
+
+    private static PriceQuoteLineDTO price(PriceIndex snapshot, PriceQuoteLineRequest line, ProductRow product,
+                                           long customerId, long regionId, long at) {
+        PriceQuoteLineDTO result = PriceQuoteLineDTO.builder()
+            .lineNo(line.getLineNo())
+            .productId(line.getProductId())
+            .quantity(line.getQuantity())
+            .build();
+        if (product == null) {
+            result.setError("产品不存在");
+            return result;
+        }
+        result.setProductCode(product.code());
+        result.setProductName(product.name());
+        result.setStandardPrice(product.standardPrice());
+        result.setTaxRate(product.taxRate());
+
+        Policy policy = snapshot.resolve(product.id(), product.categoryId(), line.getQuantity(), customerId, regionId, at);
+        BigDecimal unitPrice;
+        if (policy == null) {
+            unitPrice = product.standardPrice();
+        } else {
+            result.setPolicyId(policy.id());
+            result.setPolicyCode(policy.code());
+            result.setPolicyType(policy.type().name());
+            unitPrice = policy.price() != null ? policy.price()
+                : product.standardPrice() != null ? product.standardPrice().multiply(policy.multiplier()) : null;
+        }
+        if (unitPrice == null) {
+            result.setError("产品没有标准价");
+            return result;
+        }
+
+        unitPrice = unitPrice.setScale(PRICE_SCALE, RoundingMode.HALF_UP);
+        BigDecimal subtotal = unitPrice.multiply(line.getQuantity()).setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
+        BigDecimal tax = product.taxRate() != null
+            ? subtotal.multiply(ratio(product.taxRate())).setScale(AMOUNT_SCALE, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO.setScale(AMOUNT_SCALE);
+        result.setUnitPriceExTax(unitPrice);
+        result.setSubtotalExTax(subtotal);
+        result.setTaxAmount(tax);
+        result.setSubtotalIncTax(subtotal.add(tax));
+        result.setBelowMinPrice(product.minPrice() != null && unitPrice.compareTo(product.minPrice()) < 0);
+        return result;
+    }
+
+    /**
+     * 数据库行转为索引策略；类型无法识别的策略不参与取价
+     */
+    private static Policy policy(PolicyRow row) {
+        Type type = Type.of(row.type());
+        if (type == null) {
+            log.warn("价格策略{}类型无法识别: {}", row.code(), row.type());
+            return null;
+        }
+        return new Policy(row.id(), row.code(), type, row.priority(), row.customerId(), row.regionId(),
+            row.productId(), row.categoryId(), row.priceExTax(),
+            row.discountRate() != null ? ratio(row.discountRate()) : null, row.minQuantity(),
+            PriceIndex.time(row.effectiveFrom()),
+            row.effectiveTo() != null ? PriceIndex.time(row.effectiveTo()) : Long.MAX_VALUE);
+    }
+
+    private static BigDecimal ratio(BigDecimal rate) {
+        return rate.divide(HUNDRED);
+    }
+}
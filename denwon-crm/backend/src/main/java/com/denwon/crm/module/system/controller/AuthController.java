@@ -5,14 +5,18 @@ import com.denwon.crm.module.system.dto.LoginRequest;
 import com.denwon.crm.module.system.dto.LoginResponse;
 import com.denwon.crm.module.system.service.AuthService;
 import com.denwon.crm.module.system.service.UserService;
+import com.denwon.crm.security.PasswordHashingRejectedException;
 import com.denwon.crm.util.IpUtils;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -35,14 +39,25 @@ public class AuthController {
      */
     @PostMapping("/login")
     public ApiResponse<LoginResponse> login(@Valid @RequestBody LoginRequest request, 
-                                           HttpServletRequest httpRequest) {
+                                           HttpServletRequest httpRequest,
+                                           HttpServletResponse httpResponse) {
+        String ip = IpUtils.getIpAddress(httpRequest);
+        if (userService.isLoginBlocked(request.getUsername(), ip)) {
+            httpResponse.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            return ApiResponse.error(429, "登录失败: 登录失败次数过多，请稍后重试");
+        }
+        
         try {
-            String ip = IpUtils.getIpAddress(httpRequest);
             LoginResponse response = authService.login(request, ip);
             return ApiResponse.success("登录成功", response);
+        } catch (PasswordHashingRejectedException e) {
+            // 过载拒绝不计入登录失败次数
+            httpResponse.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            httpResponse.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return ApiResponse.error(e.getCode(), e.getMessage());
         } catch (Exception e) {
             log.error("登录失败: {}", e.getMessage());
-            userService.recordLoginFailure(request.getUsername());
+            userService.recordLoginFailure(request.getUsername(), ip);
             return ApiResponse.error("登录失败: " + e.getMessage());
         }
     }
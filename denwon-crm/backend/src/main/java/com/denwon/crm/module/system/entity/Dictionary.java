@@ -0,0 +1,76 @@
+package com.denwon.crm.module.system.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.LocalDateTime;
+
+/**
+ * 数据字典实体
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "dictionaries")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "dictionary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Dictionary {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 50)
+    private String type;
+    
+    @Column(nullable = false, length = 50)
+    private String code;
+    
+    @Column(nullable = false, length = 100)
+    private String name;
+    
+    @Column(name = "parent_id")
+    private Long parentId;
+    
+    @Column(length = 500)
+    private String value;
+    
+    @Column(name = "sort_order")
+    @Builder.Default
+    private Integer sortOrder = 0;
+    
+    @Column(name = "effective_from")
+    private LocalDateTime effectiveFrom;
+    
+    @Column(name = "effective_to")
+    private LocalDateTime effectiveTo;
+    
+    @Column(columnDefinition = "integer default 1")
+    @Builder.Default
+    private Integer status = 1;
+    
+    @Column(name = "created_by", updatable = false)
+    private Long createdBy;
+    
+    @Column(name = "created_at", updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    @Column(name = "updated_by")
+    private Long updatedBy;
+    
+    @Column(name = "updated_at")
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+    
+    @Column(columnDefinition = "boolean default false")
+    @Builder.Default
+    private Boolean deleted = false;
+}
@@ -1,8 +1,11 @@
 package com.denwon.crm.module.system.entity;
 
 import com.denwon.crm.common.entity.BaseEntity;
+import com.denwon.crm.module.system.service.OrgHierarchyListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,6 +18,9 @@ import java.util.List;
  */
 @Entity
 @Table(name = "org_units")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "org-unit")
+@EntityListeners(OrgHierarchyListener.class)
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -30,9 +36,14 @@ public class OrgUnit extends BaseEntity {
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private OrgUnit parent;
     
     @OneToMany(mappedBy = "parent", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "org-unit-children")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private List<OrgUnit> children = new ArrayList<>();
     
     @Column(nullable = false)
@@ -45,5 +56,7 @@ public class OrgUnit extends BaseEntity {
     private String type; // COMPANY, DEPARTMENT, TEAM
     
     @OneToMany(mappedBy = "orgUnit")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private List<User> users = new ArrayList<>();
 }
\ No newline at end of file
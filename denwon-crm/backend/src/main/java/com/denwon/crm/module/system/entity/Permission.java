@@ -1,7 +1,10 @@
 package com.denwon.crm.module.system.entity;
 
+import com.denwon.crm.security.PrincipalCacheEvictionListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -14,7 +17,10 @@ import java.util.Set;
  * @since 1.0.0
  */
 @Entity
+@EntityListeners(PrincipalCacheEvictionListener.class)
 @Table(name = "permissions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "permission")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -53,5 +59,7 @@ public class Permission {
     private LocalDateTime updatedAt = LocalDateTime.now();
     
     @ManyToMany(mappedBy = "permissions")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<Role> roles = new HashSet<>();
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.denwon.crm.module.system.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 已撤销Token实体
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "revoked_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(unique = true, nullable = false, length = 64)
+    private String jti;
+    
+    @Column(length = 50)
+    private String username;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "revoked_at")
+    @Builder.Default
+    private LocalDateTime revokedAt = LocalDateTime.now();
+}
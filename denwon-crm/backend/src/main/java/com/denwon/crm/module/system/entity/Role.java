@@ -1,8 +1,11 @@
 package com.denwon.crm.module.system.entity;
 
 import com.denwon.crm.common.entity.BaseEntity;
+import com.denwon.crm.security.PrincipalCacheEvictionListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -14,7 +17,10 @@ import java.util.Set;
  * @since 1.0.0
  */
 @Entity
+@EntityListeners(PrincipalCacheEvictionListener.class)
 @Table(name = "roles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "role")
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -34,10 +40,19 @@ public class Role extends BaseEntity {
     @Column(nullable = false, length = 20)
     private String type; // SYSTEM, CUSTOM
     
+    @Column(name = "data_scope", nullable = false, length = 20)
+    @Builder.Default
+    private String dataScope = "SELF"; // SELF, DEPARTMENT, SUBTREE, ALL
+    
     @ManyToMany(mappedBy = "roles")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<User> users = new HashSet<>();
     
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "role-permissions")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @JoinTable(
         name = "role_permissions",
         joinColumns = @JoinColumn(name = "role_id"),
@@ -50,6 +50,8 @@ public class User extends BaseEntity implements UserDetails {
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "org_unit_id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private OrgUnit orgUnit;
     
     @Column(length = 50)
@@ -73,7 +75,13 @@ public class User extends BaseEntity implements UserDetails {
     @Column(name = "password_changed_at")
     private LocalDateTime passwordChangedAt;
     
-    @ManyToMany(fetch = FetchType.EAGER)
+    @JsonIgnore
+    @Column(name = "tokens_valid_after")
+    private LocalDateTime tokensValidAfter;
+    
+    @ManyToMany(fetch = FetchType.LAZY)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @JoinTable(
         name = "user_roles",
         joinColumns = @JoinColumn(name = "user_id"),
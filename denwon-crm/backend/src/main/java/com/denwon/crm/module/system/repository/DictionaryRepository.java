@@ -0,0 +1,32 @@
+package com.denwon.crm.module.system.repository;
+
+import com.denwon.crm.module.system.entity.Dictionary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 数据字典数据访问层
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+public interface DictionaryRepository extends JpaRepository<Dictionary, Long> {
+    
+    Optional<Dictionary> findByTypeAndCode(String type, String code);
+    
+    @Query("SELECT d FROM Dictionary d WHERE d.type = :type AND d.status = 1 AND d.deleted = false ORDER BY d.sortOrder")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "dictionary-query")
+    })
+    List<Dictionary> findByType(@Param("type") String type);
+}
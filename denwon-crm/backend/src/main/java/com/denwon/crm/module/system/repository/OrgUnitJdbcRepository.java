@@ -0,0 +1,49 @@
+package com.denwon.crm.module.system.repository;
+
+import com.denwon.crm.module.system.service.OrgHierarchy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+
+/**
+ * 组织单位数据访问（组织树快照）
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrgUnitJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 加载未删除的组织单位并构建组织树，同级按编码排序
+     */
+    public OrgHierarchy loadHierarchy() {
+        long[][] columns = {new long[256], new long[256]};
+        int[] size = {0};
+        jdbcTemplate.query("SELECT id, parent_id FROM org_units WHERE deleted IS NOT TRUE ORDER BY code", rs -> {
+            if (size[0] == columns[0].length) {
+                columns[0] = Arrays.copyOf(columns[0], size[0] << 1);
+                columns[1] = Arrays.copyOf(columns[1], size[0] << 1);
+            }
+            columns[0][size[0]] = rs.getLong("id");
+            columns[1][size[0]] = rs.getLong("parent_id");
+            size[0]++;
+        });
+        return OrgHierarchy.build(Arrays.copyOf(columns[0], size[0]), Arrays.copyOf(columns[1], size[0]));
+    }
+
+    /**
+     * 组织表的变更签名（行数、最后修改时间、版本和），用于发现其他实例的修改
+     */
+    public String signature() {
+        return jdbcTemplate.queryForObject(
+            "SELECT count(*) || ':' || COALESCE(max(updated_at)::text, '') || ':' || COALESCE(sum(version), 0) " +
+                "FROM org_units",
+            String.class);
+    }
+}
@@ -0,0 +1,43 @@
+package com.denwon.crm.module.system.repository;
+
+import com.denwon.crm.module.system.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 已撤销Token数据访问层
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    
+    /**
+     * 写入撤销记录，jti已存在时不写入；返回1表示本次写入成功。
+     * revoked_at取数据库时钟，各实例按它增量同步，不受应用服务器时钟偏差影响
+     */
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (jti, username, expires_at, revoked_at) " +
+        "VALUES (:jti, :username, :expiresAt, clock_timestamp()) ON CONFLICT (jti) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("jti") String jti, @Param("username") String username,
+                       @Param("expiresAt") LocalDateTime expiresAt);
+    
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+    
+    /**
+     * 撤销时间不早于since、尚未过期的记录
+     */
+    @Query("SELECT t FROM RevokedToken t WHERE t.revokedAt >= :since AND t.expiresAt > :now")
+    List<RevokedToken> findActiveRevokedSince(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
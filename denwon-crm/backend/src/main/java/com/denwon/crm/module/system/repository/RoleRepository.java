@@ -1,9 +1,12 @@
 package com.denwon.crm.module.system.repository;
 
 import com.denwon.crm.module.system.entity.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +15,7 @@ import java.util.Optional;
 
 /**
  * 角色数据访问层
+ * 按状态、类型的查询结果进入查询缓存（role-query区域），角色表经JPA写入后自动失效
  * 
  * @author Denwon Team
  * @since 1.0.0
@@ -24,8 +28,16 @@ public interface RoleRepository extends JpaRepository<Role, Long>, JpaSpecificat
     boolean existsByCode(String code);
     
     @Query("SELECT r FROM Role r WHERE r.status = :status")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "role-query")
+    })
     List<Role> findByStatus(@Param("status") Integer status);
     
     @Query("SELECT r FROM Role r WHERE r.type = :type AND r.status = 1")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "role-query")
+    })
     List<Role> findByType(@Param("type") String type);
 }
\ No newline at end of file
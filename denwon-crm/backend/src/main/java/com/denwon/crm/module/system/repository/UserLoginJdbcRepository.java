@@ -0,0 +1,77 @@
+package com.denwon.crm.module.system.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 用户登录状态批量写入
+ * 绕过JPA直接按用户名更新，不需要先加载用户实体；同时递增version，
+ * 使并发的实体更新以乐观锁冲突失败而不是覆盖锁定状态
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserLoginJdbcRepository {
+
+    private static final int VALUES_CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 批量更新锁定状态，不存在的用户名不影响其他行
+     */
+    public void batchUpdateLockState(List<LockState> states) {
+        jdbcTemplate.batchUpdate(
+            "UPDATE users SET failed_login_attempts = ?, locked_until = ?, version = COALESCE(version, 0) + 1 " +
+                "WHERE username = ? AND deleted = false",
+            states,
+            states.size(),
+            (ps, state) -> {
+                ps.setInt(1, state.failedAttempts());
+                ps.setTimestamp(2, state.lockedUntil() != null ? Timestamp.valueOf(state.lockedUntil()) : null);
+                ps.setString(3, state.username());
+            });
+    }
+
+    /**
+     * 批量更新最近登录信息，每条语句最多{@value #VALUES_CHUNK_SIZE}行；
+     * 登录簿记不递增version和updated_at
+     */
+    public void batchUpdateLastLogin(List<LastLogin> logins) {
+        for (int from = 0; from < logins.size(); from += VALUES_CHUNK_SIZE) {
+            List<LastLogin> chunk = logins.subList(from, Math.min(from + VALUES_CHUNK_SIZE, logins.size()));
+            Object[] args = new Object[chunk.size() * 3];
+            int i = 0;
+            for (LastLogin login : chunk) {
+                args[i++] = login.userId();
+                args[i++] = Timestamp.valueOf(login.loginAt());
+                args[i++] = login.ip();
+            }
+            jdbcTemplate.update(
+                "UPDATE users u SET last_login_at = v.login_at, last_login_ip = v.ip, failed_login_attempts = 0 " +
+                    "FROM (VALUES " + String.join(", ", Collections.nCopies(chunk.size(), "(?::bigint, ?::timestamp, ?::varchar)")) +
+                    ") AS v(id, login_at, ip) WHERE u.id = v.id",
+                args);
+        }
+    }
+
+    /**
+     * 锁定状态
+     */
+    public record LockState(String username, int failedAttempts, LocalDateTime lockedUntil) {
+    }
+
+    /**
+     * 最近登录信息
+     */
+    public record LastLogin(Long userId, LocalDateTime loginAt, String ip) {
+    }
+}
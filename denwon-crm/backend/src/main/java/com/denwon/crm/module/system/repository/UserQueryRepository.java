@@ -0,0 +1,153 @@
+package com.denwon.crm.module.system.repository;
+
+import com.denwon.crm.module.system.dto.UserDTO;
+import com.denwon.crm.module.system.entity.OrgUnit;
+import com.denwon.crm.module.system.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 用户读模型查询
+ * 列表和详情直接投影为UserDTO，不加载实体图：
+ * 第一条SQL查用户列并左连接组织，第二条SQL按本页用户ID一次取回角色，
+ * 权限只在认证路径（UserRepository.findWithAuthoritiesByUsername）加载
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Repository
+public class UserQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * 查询一页用户（不含总数）
+     */
+    public List<UserDTO> findPage(Specification<User> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> root = query.from(User.class);
+        Join<User, OrgUnit> orgUnit = root.join("orgUnit", JoinType.LEFT);
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        query.multiselect(
+            root.get("id").alias("id"),
+            root.get("username").alias("username"),
+            root.get("name").alias("name"),
+            root.get("email").alias("email"),
+            root.get("mobile").alias("mobile"),
+            root.get("employeeNo").alias("employeeNo"),
+            root.get("title").alias("title"),
+            root.get("avatar").alias("avatar"),
+            root.get("status").alias("status"),
+            root.get("lastLoginAt").alias("lastLoginAt"),
+            root.get("lastLoginIp").alias("lastLoginIp"),
+            root.get("createdAt").alias("createdAt"),
+            root.get("updatedAt").alias("updatedAt"),
+            orgUnit.get("id").alias("orgUnitId"),
+            orgUnit.get("code").alias("orgUnitCode"),
+            orgUnit.get("name").alias("orgUnitName"),
+            orgUnit.get("type").alias("orgUnitType"));
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+
+        Map<Long, UserDTO> users = new LinkedHashMap<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            UserDTO dto = toDTO(tuple);
+            users.put(dto.getId(), dto);
+        }
+        fillRoles(users);
+        return new ArrayList<>(users.values());
+    }
+
+    /**
+     * 查询单个用户（已删除的用户不返回）
+     */
+    public Optional<UserDTO> findById(Long id) {
+        Specification<User> byId = (root, query, cb) -> cb.and(
+            cb.equal(root.get("id"), id),
+            cb.equal(root.get("deleted"), false));
+        return findPage(byId, Pageable.ofSize(1)).stream().findFirst();
+    }
+
+    /**
+     * 一条SQL取回本页所有用户的角色
+     */
+    private void fillRoles(Map<Long, UserDTO> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = entityManager.createQuery(
+                "SELECT u.id, r.id, r.code, r.name FROM User u JOIN u.roles r WHERE u.id IN :ids", Object[].class)
+            .setParameter("ids", users.keySet())
+            .getResultList();
+
+        for (Object[] row : rows) {
+            UserDTO.RoleDTO role = new UserDTO.RoleDTO();
+            role.setId((Long) row[1]);
+            role.setCode((String) row[2]);
+            role.setName((String) row[3]);
+            users.get((Long) row[0]).getRoles().add(role);
+        }
+    }
+
+    private static UserDTO toDTO(Tuple tuple) {
+        UserDTO dto = new UserDTO();
+        dto.setId(tuple.get("id", Long.class));
+        dto.setUsername(tuple.get("username", String.class));
+        dto.setName(tuple.get("name", String.class));
+        dto.setEmail(tuple.get("email", String.class));
+        dto.setMobile(tuple.get("mobile", String.class));
+        dto.setEmployeeNo(tuple.get("employeeNo", String.class));
+        dto.setTitle(tuple.get("title", String.class));
+        dto.setAvatar(tuple.get("avatar", String.class));
+        dto.setStatus(tuple.get("status", Integer.class));
+        dto.setLastLoginAt(tuple.get("lastLoginAt", LocalDateTime.class));
+        dto.setLastLoginIp(tuple.get("lastLoginIp", String.class));
+        dto.setCreatedAt(tuple.get("createdAt", LocalDateTime.class));
+        dto.setUpdatedAt(tuple.get("updatedAt", LocalDateTime.class));
+        dto.setRoles(new LinkedHashSet<>());
+
+        Long orgUnitId = tuple.get("orgUnitId", Long.class);
+        if (orgUnitId != null) {
+            UserDTO.OrgUnitDTO orgUnit = new UserDTO.OrgUnitDTO();
+            orgUnit.setId(orgUnitId);
+            orgUnit.setCode(tuple.get("orgUnitCode", String.class));
+            orgUnit.setName(tuple.get("orgUnitName", String.class));
+            orgUnit.setType(tuple.get("orgUnitType", String.class));
+            dto.setOrgUnit(orgUnit);
+        }
+        return dto;
+    }
+}
@@ -1,6 +1,7 @@
 package com.denwon.crm.module.system.repository;
 
 import com.denwon.crm.module.system.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -21,6 +22,12 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     
     Optional<User> findByUsername(String username);
     
+    /**
+     * 认证专用：一条SQL连同角色、权限和组织一起加载，其他读路径使用UserQueryRepository的投影
+     */
+    @EntityGraph(attributePaths = {"roles", "roles.permissions", "orgUnit"})
+    Optional<User> findWithAuthoritiesByUsername(String username);
+    
     Optional<User> findByEmail(String email);
     
     Optional<User> findByMobile(String mobile);
@@ -0,0 +1,26 @@
+package com.denwon.crm.module.system.repository;
+
+import com.denwon.crm.common.search.FilterCompiler;
+import com.denwon.crm.common.search.SearchOperator;
+import com.denwon.crm.module.system.entity.User;
+
+/**
+ * 用户查询条件
+ * 
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public final class UserSpecifications {
+    
+    public static final FilterCompiler<User> FILTERS = FilterCompiler.<User>builder()
+        .text("username", "username", SearchOperator.CONTAINS)
+        .text("name", "name", SearchOperator.CONTAINS)
+        .text("mobile", "mobile", SearchOperator.CONTAINS)
+        .text("email", "email", SearchOperator.CONTAINS)
+        .exact("status", "status")
+        .exact("orgUnitId", "orgUnit.id")
+        .build();
+    
+    private UserSpecifications() {
+    }
+}
@@ -0,0 +1,304 @@
+package com.denwon.crm.module.system.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * 组织树快照（不可变）
+ * 节点按先序遍历编号：子树是编号连续的一段 [first, last]，
+ * 判断祖先关系只需比较区间，O(1)；取子树ID即按位置遍历，O(k)，均不分配对象。
+ * ID到位置的映射使用开放寻址的long数组，查找不装箱。
+ * 组织变更后整体重建新快照并替换引用，读取方不需要加锁
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public final class OrgHierarchy {
+
+    public static final OrgHierarchy EMPTY = build(new long[0], new long[0]);
+
+    private static final long FREE = Long.MIN_VALUE;
+
+    /**
+     * 先序位置 -> 组织ID
+     */
+    private final long[] ids;
+
+    /**
+     * 先序位置 -> 子树最后一个节点的位置
+     */
+    private final int[] last;
+
+    /**
+     * 先序位置 -> 父节点位置，根节点为-1
+     */
+    private final int[] parents;
+
+    /**
+     * 先序位置 -> 深度，根节点为0
+     */
+    private final int[] depths;
+
+    private final long[] slotIds;
+
+    private final int[] slotPositions;
+
+    private final int mask;
+
+    private OrgHierarchy(long[] ids, int[] last, int[] parents, int[] depths) {
+        this.ids = ids;
+        this.last = last;
+        this.parents = parents;
+        this.depths = depths;
+
+        int capacity = Integer.highestOneBit(Math.max(4, ids.length * 2 - 1)) << 1;
+        this.slotIds = new long[capacity];
+        this.slotPositions = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(slotIds, FREE);
+        for (int position = 0; position < ids.length; position++) {
+            int slot = slot(ids[position]);
+            while (slotIds[slot] != FREE) {
+                slot = (slot + 1) & mask;
+            }
+            slotIds[slot] = ids[position];
+            slotPositions[slot] = position;
+        }
+    }
+
+    /**
+     * 由（ID, 父ID）构建，父ID为0或不存在的节点作为根；同级节点按传入顺序排列。
+     * 存在环时环上第一个节点断开为根，保证每个节点恰好出现一次
+     */
+    public static OrgHierarchy build(long[] unitIds, long[] parentIds) {
+        int n = unitIds.length;
+        OrgHierarchy index = new OrgHierarchy(unitIds, new int[n], new int[n], new int[n]);
+
+        // 按父节点分组的子节点列表（CSR）
+        int[] parentOf = new int[n];
+        int[] childStart = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int parent = parentIds[i] != 0 && parentIds[i] != unitIds[i] ? index.position(parentIds[i]) : -1;
+            parentOf[i] = parent;
+            if (parent >= 0) {
+                childStart[parent + 1]++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            childStart[i + 1] += childStart[i];
+        }
+        int[] children = new int[childStart[n]];
+        int[] fill = Arrays.copyOf(childStart, n);
+        for (int i = 0; i < n; i++) {
+            if (parentOf[i] >= 0) {
+                children[fill[parentOf[i]]++] = i;
+            }
+        }
+
+        long[] ids = new long[n];
+        int[] last = new int[n];
+        int[] parents = new int[n];
+        int[] depths = new int[n];
+        int[] positions = new int[n];
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        int next = 0;
+
+        for (int pass = 0; pass < 2; pass++) {
+            for (int root = 0; root < n; root++) {
+                // 第一遍从真正的根出发，第二遍处理环上（没有根可达）的节点
+                if (visited[root] || (pass == 0 && parentOf[root] >= 0)) {
+                    continue;
+                }
+
+                int top = 0;
+                stack[top] = root;
+                cursor[root] = childStart[root];
+                visited[root] = true;
+                positions[root] = next;
+                ids[next] = unitIds[root];
+                parents[next] = -1;
+                depths[next] = 0;
+                next++;
+
+                while (top >= 0) {
+                    int node = stack[top];
+                    if (cursor[node] < childStart[node + 1]) {
+                        int child = children[cursor[node]++];
+                        if (visited[child]) {
+                            continue;
+                        }
+                        visited[child] = true;
+                        cursor[child] = childStart[child];
+                        positions[child] = next;
+                        ids[next] = unitIds[child];
+                        parents[next] = positions[node];
+                        depths[next] = depths[positions[node]] + 1;
+                        next++;
+                        stack[++top] = child;
+                    } else {
+                        last[positions[node]] = next - 1;
+                        top--;
+                    }
+                }
+            }
+        }
+
+        return new OrgHierarchy(ids, last, parents, depths);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean contains(long unitId) {
+        return position(unitId) >= 0;
+    }
+
+    /**
+     * ancestor是否为unit的祖先或unit本身
+     */
+    public boolean isAncestorOrSelf(long ancestor, long unit) {
+        int a = position(ancestor);
+        int u = position(unit);
+        return a >= 0 && u >= a && u <= last[a];
+    }
+
+    /**
+     * ancestor是否为unit的严格祖先
+     */
+    public boolean isAncestor(long ancestor, long unit) {
+        return ancestor != unit && isAncestorOrSelf(ancestor, unit);
+    }
+
+    /**
+     * 父组织ID，根节点或不存在时返回0
+     */
+    public long parentOf(long unitId) {
+        int position = position(unitId);
+        return position >= 0 && parents[position] >= 0 ? ids[parents[position]] : 0;
+    }
+
+    /**
+     * 深度，根节点为0，不存在时返回-1
+     */
+    public int depthOf(long unitId) {
+        int position = position(unitId);
+        return position >= 0 ? depths[position] : -1;
+    }
+
+    /**
+     * 子树（含自身）的节点数，不存在时返回0
+     */
+    public int subtreeSize(long unitId) {
+        int position = position(unitId);
+        return position >= 0 ? last[position] - position + 1 : 0;
+    }
+
+    /**
+     * 子树在先序序列中的起始位置，不存在时返回-1；配合 {@link #subtreeLast} 和 {@link #idAt} 遍历
+     */
+    public int subtreeFirst(long unitId) {
+        return position(unitId);
+    }
+
+    /**
+     * 子树在先序序列中的结束位置（含），不存在时返回-2
+     */
+    public int subtreeLast(long unitId) {
+        int position = position(unitId);
+        return position >= 0 ? last[position] : -2;
+    }
+
+    public long idAt(int position) {
+        return ids[position];
+    }
+
+    /**
+     * 遍历子树（含自身）的组织ID
+     */
+    public void forEachInSubtree(long unitId, LongConsumer consumer) {
+        int position = position(unitId);
+        if (position < 0) {
+            return;
+        }
+        for (int p = position, end = last[position]; p <= end; p++) {
+            consumer.accept(ids[p]);
+        }
+    }
+
+    /**
+     * 子树（含自身）的组织ID，用于查询条件；不存在时返回空数组
+     */
+    public long[] subtreeIds(long unitId) {
+        int position = position(unitId);
+        return position >= 0 ? Arrays.copyOfRange(ids, position, last[position] + 1) : new long[0];
+    }
+
+    /**
+     * 多个组织子树的并集（去掉被其他子树包含的部分），按先序排列
+     */
+    public List<Long> subtreeIds(long[] unitIds) {
+        int[] roots = new int[unitIds.length];
+        int count = 0;
+        for (long unitId : unitIds) {
+            int position = position(unitId);
+            if (position >= 0) {
+                roots[count++] = position;
+            }
+        }
+        Arrays.sort(roots, 0, count);
+
+        List<Long> result = new ArrayList<>();
+        int covered = -1;
+        for (int r = 0; r < count; r++) {
+            int position = roots[r];
+            if (position <= covered) {
+                continue;
+            }
+            for (int p = position; p <= last[position]; p++) {
+                result.add(ids[p]);
+            }
+            covered = last[position];
+        }
+        return result;
+    }
+
+    /**
+     * 从自身到根的组织ID
+     */
+    public long[] pathOf(long unitId) {
+        int position = position(unitId);
+        if (position < 0) {
+            return new long[0];
+        }
+        long[] path = new long[depths[position] + 1];
+        for (int i = 0; position >= 0; position = parents[position]) {
+            path[i++] = ids[position];
+        }
+        return path;
+    }
+
+    private int position(long unitId) {
+        if (unitId == FREE) {
+            return -1;
+        }
+        for (int slot = slot(unitId); ; slot = (slot + 1) & mask) {
+            long id = slotIds[slot];
+            if (id == unitId) {
+                return slotPositions[slot];
+            }
+            if (id == FREE) {
+                return -1;
+            }
+        }
+    }
+
+    private int slot(long unitId) {
+        long h = unitId * 0x9e3779b97f4a7c15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
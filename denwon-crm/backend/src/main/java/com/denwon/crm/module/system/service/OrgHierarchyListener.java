@@ -0,0 +1,28 @@
+package com.denwon.crm.module.system.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 组织单位实体监听器
+ * 组织新增、调整上级或删除后，事务提交时重建组织树
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class OrgHierarchyListener {
+
+    private final OrgHierarchyService orgHierarchyService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        orgHierarchyService.reloadAfterCommit();
+    }
+}
@@ -0,0 +1,42 @@
+package com.denwon.crm.module.system.service;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * 组织层级服务
+ * 维护内存中的组织树快照，用于“本部门及下级”一类的数据范围判断和查询条件
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public interface OrgHierarchyService {
+
+    /**
+     * 当前组织树快照，持有期间不会变化
+     */
+    OrgHierarchy current();
+
+    /**
+     * 立即从数据库重建组织树
+     */
+    void reload();
+
+    /**
+     * 当前事务提交后重建组织树（同一事务内多次调用只重建一次）
+     */
+    void reloadAfterCommit();
+
+    /**
+     * 组织字段属于指定组织及其下级的查询条件；组织不存在时不匹配任何数据
+     *
+     * @param attribute 实体的组织ID属性，如 orgUnitId、orgUnit.id
+     */
+    <T> Specification<T> inSubtree(String attribute, Long orgUnitId);
+
+    /**
+     * 组织字段属于多个组织及其下级的查询条件
+     */
+    <T> Specification<T> inSubtrees(String attribute, Collection<Long> orgUnitIds);
+}
@@ -1,5 +1,6 @@
 package com.denwon.crm.module.system.service;
 
+import com.denwon.crm.common.pagination.CursorPage;
 import com.denwon.crm.common.response.PageResponse;
 import com.denwon.crm.module.system.dto.UserDTO;
 import com.denwon.crm.module.system.dto.UserCreateDTO;
@@ -7,6 +8,8 @@ import com.denwon.crm.module.system.dto.UserUpdateDTO;
 import com.denwon.crm.module.system.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
 import java.util.List;
@@ -18,7 +21,7 @@ import java.util.Map;
  * @author Denwon Team
  * @since 1.0.0
  */
-public interface UserService extends UserDetailsService {
+public interface UserService extends UserDetailsService, UserDetailsPasswordService {
     
     /**
      * 创建用户
@@ -45,11 +48,31 @@ public interface UserService extends UserDetailsService {
      */
     User getUserByUsername(String username);
     
+    /**
+     * 根据用户名获取用户及其角色、权限和组织（仅认证相关路径使用）
+     */
+    User getUserWithAuthorities(String username);
+    
     /**
      * 分页查询用户
      */
     Page<User> getUsers(Map<String, Object> filters, Pageable pageable);
     
+    /**
+     * 分页查询用户列表（DTO投影，不加载实体图）
+     */
+    Page<UserDTO> getUserList(Map<String, Object> filters, Pageable pageable);
+    
+    /**
+     * 获取用户详情（DTO投影）
+     */
+    UserDTO getUserDetail(Long id);
+    
+    /**
+     * 游标分页查询用户（不统计总数，适合大表和深分页）
+     */
+    CursorPage<User> getUsers(Map<String, Object> filters, Sort sort, int size, String cursor);
+    
     /**
      * 修改密码
      */
@@ -76,12 +99,17 @@ public interface UserService extends UserDetailsService {
     void unlockUser(Long userId);
     
     /**
-     * 更新登录信息
+     * 更新登录信息（异步批量写入）
+     */
+    void updateLoginInfo(User user, String ip);
+    
+    /**
+     * 用户名或IP是否因登录失败过多被暂停登录
      */
-    void updateLoginInfo(Long userId, String ip);
+    boolean isLoginBlocked(String username, String ip);
     
     /**
      * 记录登录失败
      */
-    void recordLoginFailure(String username);
+    void recordLoginFailure(String username, String ip);
 }
\ No newline at end of file
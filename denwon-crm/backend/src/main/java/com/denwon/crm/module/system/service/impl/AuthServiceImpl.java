@@ -6,19 +6,24 @@ import com.denwon.crm.module.system.dto.LoginResponse;
 import com.denwon.crm.module.system.entity.User;
 import com.denwon.crm.module.system.service.AuthService;
 import com.denwon.crm.module.system.service.UserService;
+import com.denwon.crm.security.AuthenticatedPrincipal;
+import com.denwon.crm.security.JwtClaims;
 import com.denwon.crm.security.JwtUtils;
+import com.denwon.crm.security.PasswordHashingRejectedException;
+import com.denwon.crm.security.TokenRevocationStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -36,12 +41,16 @@ public class AuthServiceImpl implements AuthService {
     private final AuthenticationManager authenticationManager;
     private final UserService userService;
     private final JwtUtils jwtUtils;
+    private final TokenRevocationStore tokenRevocationStore;
     
     @Value("${app.jwt.expiration}")
     private Long jwtExpiration;
     
+    /**
+     * 登录不开启事务：密码校验在有界哈希线程池上等待，期间不能占用数据库连接。
+     * 加载用户（一条SQL）和密码哈希升级各自在短事务中完成，登录时间、失败计数异步批量写入
+     */
     @Override
-    @Transactional
     public LoginResponse login(LoginRequest request, String ip) {
         try {
             // 认证用户
@@ -59,7 +68,7 @@ public class AuthServiceImpl implements AuthService {
             User user = (User) authentication.getPrincipal();
             
             // 更新登录信息
-            userService.updateLoginInfo(user.getId(), ip);
+            userService.updateLoginInfo(user, ip);
             
             // 生成Token
             String accessToken = jwtUtils.generateToken(user.getUsername());
@@ -75,6 +84,8 @@ public class AuthServiceImpl implements AuthService {
                 .expiresIn(jwtExpiration / 1000)
                 .userInfo(userInfo)
                 .build();
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("登录失败: {}", e.getMessage());
             throw new BusinessException("用户名或密码错误");
@@ -85,15 +96,25 @@ public class AuthServiceImpl implements AuthService {
     public LoginResponse refreshToken(String refreshToken) {
         try {
             // 验证刷新Token
-            if (!jwtUtils.validateToken(refreshToken)) {
+            JwtClaims claims = jwtUtils.parseToken(refreshToken);
+            if (claims == null || !claims.isRefreshToken() || tokenRevocationStore.isRevoked(claims.getTokenId())) {
                 throw new BusinessException("无效的刷新Token");
             }
             
             // 提取用户名
-            String username = jwtUtils.extractUsername(refreshToken);
+            String username = claims.getSubject();
             
             // 获取用户信息
-            User user = userService.getUserByUsername(username);
+            User user = userService.getUserWithAuthorities(username);
+            if (user.getTokensValidAfter() != null && claims.getIssuedAt().isBefore(
+                    user.getTokensValidAfter().atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.SECONDS))) {
+                throw new BusinessException("刷新Token已失效");
+            }
+            
+            // 刷新Token只能使用一次：并发请求中只有完成撤销的一方能换取新Token
+            if (!tokenRevocationStore.revoke(claims)) {
+                throw new BusinessException("刷新Token已使用");
+            }
             
             // 生成新的Token
             String newAccessToken = jwtUtils.generateToken(username);
@@ -120,31 +141,38 @@ public class AuthServiceImpl implements AuthService {
         // 清除安全上下文
         SecurityContextHolder.clearContext();
         
-        // TODO: 如果需要，可以将token加入黑名单
+        // 撤销当前访问Token
+        if (token != null && token.startsWith("Bearer ")) {
+            token = token.substring(7);
+        }
+        tokenRevocationStore.revoke(jwtUtils.parseToken(token));
         log.info("用户已登出");
     }
     
     @Override
+    @Transactional(readOnly = true)
     public LoginResponse.UserInfo getCurrentUserInfo() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new BusinessException("用户未登录");
-        }
-        
-        User user = (User) authentication.getPrincipal();
+        User user = userService.getUserWithAuthorities(currentPrincipal().getUsername());
         return buildUserInfo(user);
     }
     
     @Override
     @Transactional
     public void changePassword(String oldPassword, String newPassword) {
+        userService.changePassword(currentPrincipal().getUserId(), oldPassword, newPassword);
+    }
+    
+    /**
+     * 获取当前登录用户快照
+     */
+    private AuthenticatedPrincipal currentPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || !(authentication.getPrincipal() instanceof AuthenticatedPrincipal)) {
             throw new BusinessException("用户未登录");
         }
         
-        User user = (User) authentication.getPrincipal();
-        userService.changePassword(user.getId(), oldPassword, newPassword);
+        return (AuthenticatedPrincipal) authentication.getPrincipal();
     }
     
     /**
@@ -157,9 +185,9 @@ public class AuthServiceImpl implements AuthService {
             .collect(Collectors.toSet());
         
         // 获取权限
-        Set<String> permissions = user.getAuthorities().stream()
-            .map(GrantedAuthority::getAuthority)
-            .filter(auth -> !auth.startsWith("ROLE_"))
+        Set<String> permissions = user.getRoles().stream()
+            .flatMap(role -> role.getPermissions().stream())
+            .map(permission -> permission.getCode())
             .collect(Collectors.toSet());
         
         // 构建组织信息
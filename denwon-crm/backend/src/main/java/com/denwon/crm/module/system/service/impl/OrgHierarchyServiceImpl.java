@@ -0,0 +1,169 @@
+package com.denwon.crm.module.system.service.impl;
+
+import com.denwon.crm.module.system.repository.OrgUnitJdbcRepository;
+import com.denwon.crm.module.system.service.OrgHierarchy;
+import com.denwon.crm.module.system.service.OrgHierarchyService;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 组织层级服务实现
+ * 组织树整体加载为不可变快照，通过volatile引用原子替换；
+ * 本实例的修改在事务提交后重建，其他实例的修改由定时比对变更签名发现
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrgHierarchyServiceImpl implements OrgHierarchyService {
+
+    /**
+     * 事务资源键，标记当前事务已登记提交后重建
+     */
+    private static final Object RELOAD_KEY = new Object();
+
+    private final OrgUnitJdbcRepository orgUnitRepository;
+
+    private final Object reloadLock = new Object();
+
+    private volatile OrgHierarchy hierarchy;
+
+    private volatile String signature;
+
+    @Override
+    public OrgHierarchy current() {
+        OrgHierarchy current = hierarchy;
+        if (current == null) {
+            synchronized (reloadLock) {
+                current = hierarchy;
+                if (current == null) {
+                    reload();
+                    current = hierarchy;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public void reload() {
+        synchronized (reloadLock) {
+            long start = System.nanoTime();
+            // 先取签名再加载：加载期间的修改会在下次同步时发现
+            String loadedSignature = orgUnitRepository.signature();
+            OrgHierarchy loaded = orgUnitRepository.loadHierarchy();
+            hierarchy = loaded;
+            signature = loadedSignature;
+            log.info("组织树已重建: {}个组织，耗时{}ms",
+                loaded.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    @Override
+    public void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(RELOAD_KEY)) {
+            return;
+        }
+
+        TransactionSynchronizationManager.bindResource(RELOAD_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RELOAD_KEY);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * 发现其他实例或直接改库产生的组织变更
+     */
+    @Scheduled(fixedDelayString = "${app.org-hierarchy.sync-interval:60000}",
+        initialDelayString = "${app.org-hierarchy.sync-interval:60000}")
+    public void sync() {
+        try {
+            if (hierarchy != null && !Objects.equals(signature, orgUnitRepository.signature())) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.error("组织树同步失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public <T> Specification<T> inSubtree(String attribute, Long orgUnitId) {
+        return (root, query, cb) -> {
+            if (orgUnitId == null) {
+                return cb.disjunction();
+            }
+            long[] ids = current().subtreeIds(orgUnitId);
+            Path<Long> path = path(root, attribute);
+            if (ids.length == 0) {
+                return cb.disjunction();
+            }
+            if (ids.length == 1) {
+                return cb.equal(path, ids[0]);
+            }
+            return path.in(toList(ids));
+        };
+    }
+
+    @Override
+    public <T> Specification<T> inSubtrees(String attribute, Collection<Long> orgUnitIds) {
+        return (root, query, cb) -> {
+            long[] roots = orgUnitIds == null ? new long[0]
+                : orgUnitIds.stream().filter(Objects::nonNull).mapToLong(Long::longValue).toArray();
+            List<Long> ids = current().subtreeIds(roots);
+            if (ids.isEmpty()) {
+                return cb.disjunction();
+            }
+            return path(root, attribute).in(ids);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Path<Long> path(Root<?> root, String attribute) {
+        Path<?> path = root;
+        for (String name : attribute.split("\\.")) {
+            path = path.get(name);
+        }
+        return (Path<Long>) path;
+    }
+
+    private static List<Long> toList(long[] ids) {
+        Long[] boxed = new Long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            boxed[i] = ids[i];
+        }
+        return List.of(boxed);
+    }
+}
@@ -1,18 +1,29 @@
 package com.denwon.crm.module.system.service.impl;
 
 import com.denwon.crm.common.exception.BusinessException;
+import com.denwon.crm.common.pagination.CursorPage;
+import com.denwon.crm.common.pagination.KeysetPager;
+import com.denwon.crm.common.pagination.TotalCountStrategy;
 import com.denwon.crm.module.system.dto.UserCreateDTO;
+import com.denwon.crm.module.system.dto.UserDTO;
 import com.denwon.crm.module.system.dto.UserUpdateDTO;
 import com.denwon.crm.module.system.entity.Role;
 import com.denwon.crm.module.system.entity.User;
 import com.denwon.crm.module.system.repository.RoleRepository;
+import com.denwon.crm.module.system.repository.UserQueryRepository;
 import com.denwon.crm.module.system.repository.UserRepository;
+import com.denwon.crm.module.system.repository.UserSpecifications;
+import com.denwon.crm.module.system.service.OrgHierarchyService;
 import com.denwon.crm.module.system.service.UserService;
+import com.denwon.crm.security.LastLoginWriter;
+import com.denwon.crm.security.LoginFailureTracker;
+import com.denwon.crm.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -20,7 +31,6 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import jakarta.persistence.criteria.Predicate;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -36,18 +46,35 @@ import java.util.*;
 public class UserServiceImpl implements UserService {
     
     private final UserRepository userRepository;
+    private final UserQueryRepository userQueryRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
-    
-    private static final int MAX_LOGIN_ATTEMPTS = 5;
-    private static final int LOCK_DURATION_MINUTES = 30;
+    private final PrincipalCache principalCache;
+    private final LoginFailureTracker loginFailureTracker;
+    private final LastLoginWriter lastLoginWriter;
+    private final KeysetPager keysetPager;
+    private final TotalCountStrategy totalCountStrategy;
+    private final OrgHierarchyService orgHierarchyService;
     
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
+        return userRepository.findWithAuthoritiesByUsername(username)
             .orElseThrow(() -> new UsernameNotFoundException("用户不存在: " + username));
     }
     
+    /**
+     * 登录成功后升级密码哈希强度（不视为修改密码，已签发Token保持有效）
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+            .orElseThrow(() -> new UsernameNotFoundException("用户不存在: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        log.debug("用户{}的密码哈希已升级", user.getUsername());
+        return userRepository.save(user);
+    }
+    
     @Override
     @Transactional
     public User createUser(UserCreateDTO dto) {
@@ -109,7 +136,9 @@ public class UserServiceImpl implements UserService {
         if (dto.getAvatar() != null) user.setAvatar(dto.getAvatar());
         if (dto.getStatus() != null) user.setStatus(dto.getStatus());
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        principalCache.evict(user.getUsername());
+        return saved;
     }
     
     @Override
@@ -120,6 +149,7 @@ public class UserServiceImpl implements UserService {
         user.setDeletedAt(LocalDateTime.now());
         user.setStatus(0);
         userRepository.save(user);
+        principalCache.evict(user.getUsername());
     }
     
     @Override
@@ -134,46 +164,51 @@ public class UserServiceImpl implements UserService {
             .orElseThrow(() -> new BusinessException("用户不存在"));
     }
     
+    @Override
+    public User getUserWithAuthorities(String username) {
+        return userRepository.findWithAuthoritiesByUsername(username)
+            .orElseThrow(() -> new BusinessException("用户不存在"));
+    }
+    
     @Override
     public Page<User> getUsers(Map<String, Object> filters, Pageable pageable) {
-        Specification<User> spec = (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            
-            // 排除已删除
-            predicates.add(cb.equal(root.get("deleted"), false));
-            
-            // 按条件过滤
-            if (filters != null) {
-                filters.forEach((key, value) -> {
-                    if (value != null) {
-                        switch (key) {
-                            case "username":
-                                predicates.add(cb.like(root.get("username"), "%" + value + "%"));
-                                break;
-                            case "name":
-                                predicates.add(cb.like(root.get("name"), "%" + value + "%"));
-                                break;
-                            case "mobile":
-                                predicates.add(cb.like(root.get("mobile"), "%" + value + "%"));
-                                break;
-                            case "email":
-                                predicates.add(cb.like(root.get("email"), "%" + value + "%"));
-                                break;
-                            case "status":
-                                predicates.add(cb.equal(root.get("status"), value));
-                                break;
-                            case "orgUnitId":
-                                predicates.add(cb.equal(root.get("orgUnit").get("id"), value));
-                                break;
-                        }
-                    }
-                });
+        return totalCountStrategy.findPage(User.class, buildSpecification(filters), filters, pageable);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserDTO> getUserList(Map<String, Object> filters, Pageable pageable) {
+        Specification<User> spec = buildSpecification(filters);
+        return totalCountStrategy.toPage(userQueryRepository.findPage(spec, pageable), User.class, spec, filters, pageable);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public UserDTO getUserDetail(Long id) {
+        return userQueryRepository.findById(id)
+            .orElseThrow(() -> new BusinessException("用户不存在"));
+    }
+    
+    @Override
+    public CursorPage<User> getUsers(Map<String, Object> filters, Sort sort, int size, String cursor) {
+        return keysetPager.find(User.class, buildSpecification(filters), sort, size, cursor);
+    }
+    
+    /**
+     * 排除已删除，其余条件由过滤编译器生成；orgUnitTree 按组织树取该组织及下级的用户
+     */
+    private Specification<User> buildSpecification(Map<String, Object> filters) {
+        Specification<User> specification = (root, query, cb) -> cb.equal(root.get("deleted"), false);
+        Object orgUnitTree = filters != null ? filters.get("orgUnitTree") : null;
+        if (orgUnitTree != null && !String.valueOf(orgUnitTree).isBlank()) {
+            try {
+                specification = specification.and(orgHierarchyService.inSubtree("orgUnit.id",
+                    Long.valueOf(String.valueOf(orgUnitTree).trim())));
+            } catch (NumberFormatException e) {
+                throw new BusinessException("组织ID格式错误");
             }
-            
-            return cb.and(predicates.toArray(new Predicate[0]));
-        };
-        
-        return userRepository.findAll(spec, pageable);
+        }
+        return specification.and(UserSpecifications.FILTERS.compile(filters));
     }
     
     @Override
@@ -185,20 +220,26 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException("原密码错误");
         }
         
+        LocalDateTime now = LocalDateTime.now();
         user.setPassword(passwordEncoder.encode(newPassword));
-        user.setPasswordChangedAt(LocalDateTime.now());
+        user.setPasswordChangedAt(now);
+        user.setTokensValidAfter(now);
         userRepository.save(user);
+        principalCache.evict(user.getUsername());
     }
     
     @Override
     @Transactional
     public void resetPassword(Long userId, String newPassword) {
         User user = getUserById(userId);
+        LocalDateTime now = LocalDateTime.now();
         user.setPassword(passwordEncoder.encode(newPassword));
-        user.setPasswordChangedAt(LocalDateTime.now());
+        user.setPasswordChangedAt(now);
+        user.setTokensValidAfter(now);
         user.setFailedLoginAttempts(0);
         user.setLockedUntil(null);
         userRepository.save(user);
+        principalCache.evict(user.getUsername());
     }
     
     @Override
@@ -208,6 +249,7 @@ public class UserServiceImpl implements UserService {
         Set<Role> roles = new HashSet<>(roleRepository.findAllById(roleIds));
         user.setRoles(roles);
         userRepository.save(user);
+        principalCache.evict(user.getUsername());
     }
     
     @Override
@@ -216,6 +258,7 @@ public class UserServiceImpl implements UserService {
         User user = getUserById(userId);
         user.setLockedUntil(LocalDateTime.now().plusMinutes(minutes));
         userRepository.save(user);
+        principalCache.evict(user.getUsername());
     }
     
     @Override
@@ -225,30 +268,23 @@ public class UserServiceImpl implements UserService {
         user.setLockedUntil(null);
         user.setFailedLoginAttempts(0);
         userRepository.save(user);
+        loginFailureTracker.clear(user.getUsername());
+        principalCache.evict(user.getUsername());
     }
     
     @Override
-    @Transactional
-    public void updateLoginInfo(Long userId, String ip) {
-        User user = getUserById(userId);
-        user.setLastLoginAt(LocalDateTime.now());
-        user.setLastLoginIp(ip);
-        user.setFailedLoginAttempts(0);
-        userRepository.save(user);
+    public void updateLoginInfo(User user, String ip) {
+        lastLoginWriter.enqueue(user.getId(), ip);
+        loginFailureTracker.recordSuccess(user.getUsername());
     }
     
     @Override
-    @Transactional
-    public void recordLoginFailure(String username) {
-        userRepository.findByUsername(username).ifPresent(user -> {
-            int attempts = user.getFailedLoginAttempts() + 1;
-            user.setFailedLoginAttempts(attempts);
-            
-            if (attempts >= MAX_LOGIN_ATTEMPTS) {
-                user.setLockedUntil(LocalDateTime.now().plusMinutes(LOCK_DURATION_MINUTES));
-            }
-            
-            userRepository.save(user);
-        });
+    public boolean isLoginBlocked(String username, String ip) {
+        return loginFailureTracker.isBlocked(username, ip);
+    }
+    
+    @Override
+    public void recordLoginFailure(String username, String ip) {
+        loginFailureTracker.recordFailure(username, ip);
     }
-}
\ No newline at end of file
+}
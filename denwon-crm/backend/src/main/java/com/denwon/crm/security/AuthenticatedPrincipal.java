@@ -0,0 +1,138 @@
+package com.denwon.crm.security;
+
+import com.denwon.crm.module.system.entity.Role;
+import com.denwon.crm.module.system.entity.User;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 已认证用户快照
+ * 不可变，由用户实体在加载时一次性展开，供每次请求复用，避免重复查询角色和权限；
+ * 有效权限以位图保存，编号由 {@link PermissionRegistry} 分配
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Getter
+public final class AuthenticatedPrincipal implements UserDetails {
+
+    private final Long userId;
+
+    private final String username;
+
+    private final Long orgUnitId;
+
+    private final Integer status;
+
+    private final LocalDateTime lockedUntil;
+
+    private final Instant tokensValidAfter;
+
+    private final Set<String> roleCodes;
+
+    /**
+     * 数据范围，取各角色中最大的
+     */
+    private final DataScope dataScope;
+
+    private final List<GrantedAuthority> authorities;
+
+    @Getter(AccessLevel.NONE)
+    private final BitSet authorityBits;
+
+    private AuthenticatedPrincipal(User user, Set<String> roleCodes, DataScope dataScope, BitSet authorityBits,
+                                   List<GrantedAuthority> authorities) {
+        this.userId = user.getId();
+        this.username = user.getUsername();
+        this.orgUnitId = user.getOrgUnit() != null ? user.getOrgUnit().getId() : null;
+        this.status = user.getStatus();
+        this.lockedUntil = user.getLockedUntil();
+        this.tokensValidAfter = user.getTokensValidAfter() != null
+            ? user.getTokensValidAfter().atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.SECONDS)
+            : null;
+        this.roleCodes = roleCodes;
+        this.dataScope = dataScope;
+        this.authorityBits = authorityBits;
+        this.authorities = authorities;
+    }
+
+    /**
+     * 根据用户实体构建快照，有效权限为各角色预编译位图的并集
+     */
+    public static AuthenticatedPrincipal of(User user, PermissionRegistry registry) {
+        Set<String> roleCodes = new LinkedHashSet<>();
+        BitSet bits = new BitSet();
+        DataScope dataScope = DataScope.SELF;
+
+        for (Role role : user.getRoles()) {
+            roleCodes.add(role.getCode());
+            dataScope = dataScope.widest(DataScope.of(role.getDataScope()));
+            bits.or(registry.compile(role));
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>(bits.cardinality());
+        for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+            authorities.add(registry.authority(id));
+        }
+
+        return new AuthenticatedPrincipal(user, Set.copyOf(roleCodes), dataScope, bits, List.copyOf(authorities));
+    }
+
+    /**
+     * 判断是否拥有指定编号的权限
+     */
+    public boolean hasAuthority(int authorityId) {
+        return authorityId >= 0 && authorityBits.get(authorityId);
+    }
+
+    /**
+     * 判断Token签发时间是否晚于用户的Token失效时间点（修改/重置密码后之前签发的Token全部失效）
+     * JWT签发时间精度为秒，失效时间点按秒截断后比较
+     */
+    public boolean acceptsTokenIssuedAt(Instant issuedAt) {
+        return tokensValidAfter == null || (issuedAt != null && !issuedAt.isBefore(tokensValidAfter));
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return lockedUntil == null || lockedUntil.isBefore(LocalDateTime.now());
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return status != null && status == 1;
+    }
+}
@@ -0,0 +1,58 @@
+package com.denwon.crm.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+
+/**
+ * 基于权限位图的PermissionEvaluator
+ * 支持 {@code @PreAuthorize("hasPermission(null, 'customer.view')")}
+ * 和 {@code @PreAuthorize("hasPermission(#id, 'customer', 'view')")} 两种写法
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class BitsetPermissionEvaluator implements PermissionEvaluator {
+
+    private final PermissionRegistry permissionRegistry;
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
+        return permission instanceof String && check(authentication, (String) permission);
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Serializable targetId,
+                                 String targetType, Object permission) {
+        if (!(permission instanceof String)) {
+            return false;
+        }
+        String code = targetType != null ? targetType + "." + permission : (String) permission;
+        return check(authentication, code);
+    }
+
+    private boolean check(Authentication authentication, String code) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof AuthenticatedPrincipal) {
+            return ((AuthenticatedPrincipal) principal).hasAuthority(permissionRegistry.idOf(code));
+        }
+
+        // 非快照主体（如登录过程中的User实体）回退为逐项比较
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (code.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
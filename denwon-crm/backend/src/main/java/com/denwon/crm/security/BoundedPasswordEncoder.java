@@ -0,0 +1,146 @@
+package com.denwon.crm.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 有界密码哈希编码器
+ * BCrypt计算在独立线程池中执行，线程数默认等于CPU核数，等待队列有界；
+ * 队列已满时立即拒绝，避免登录高峰占满Web工作线程
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.password-strength:10}")
+    private int strength;
+
+    @Value("${app.security.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.security.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    private BCryptPasswordEncoder delegate;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer matchesTimer;
+
+    private Timer encodeTimer;
+
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        delegate = new BCryptPasswordEncoder(strength);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("crm.auth.password.queue", executor, pool -> pool.getQueue().size())
+            .description("等待中的密码哈希任务数")
+            .register(meterRegistry);
+        matchesTimer = Timer.builder("crm.auth.password.hash")
+            .tag("operation", "matches")
+            .register(meterRegistry);
+        encodeTimer = Timer.builder("crm.auth.password.hash")
+            .tag("operation", "encode")
+            .register(meterRegistry);
+        rejectedCounter = Counter.builder("crm.auth.password.rejected")
+            .description("因队列已满被拒绝的密码哈希任务数")
+            .register(meterRegistry);
+
+        log.info("密码哈希线程池已初始化: threads={}, queueCapacity={}, strength={}", poolSize, queueCapacity, strength);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 已保存的哈希强度低于配置值时返回true，登录成功后由DaoAuthenticationProvider重新编码
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Timer timer, Supplier<T> operation) {
+        Callable<T> task = () -> {
+            long start = System.nanoTime();
+            try {
+                return operation.get();
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException();
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("密码哈希被中断", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("密码哈希失败", cause);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.denwon.crm.security;
+
+/**
+ * 数据范围，按可见范围从小到大排列
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public enum DataScope {
+
+    /**
+     * 本人负责或协作的数据
+     */
+    SELF,
+
+    /**
+     * 本部门的数据
+     */
+    DEPARTMENT,
+
+    /**
+     * 本部门及下级部门的数据
+     */
+    SUBTREE,
+
+    /**
+     * 全部数据
+     */
+    ALL;
+
+    /**
+     * 解析角色上配置的数据范围，未配置或无法识别时为SELF
+     */
+    public static DataScope of(String code) {
+        if (code != null) {
+            for (DataScope scope : values()) {
+                if (scope.name().equalsIgnoreCase(code.trim())) {
+                    return scope;
+                }
+            }
+        }
+        return SELF;
+    }
+
+    public DataScope widest(DataScope other) {
+        return other != null && other.ordinal() > ordinal() ? other : this;
+    }
+}
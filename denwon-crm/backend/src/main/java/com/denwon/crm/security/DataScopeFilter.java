@@ -0,0 +1,147 @@
+package com.denwon.crm.security;
+
+import com.denwon.crm.common.entity.DataScoped;
+import com.denwon.crm.module.system.service.OrgHierarchyService;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.criteria.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 行级数据范围过滤
+ * 为标注了 {@link DataScoped} 的实体生成当前用户可见范围的查询条件：
+ * <ul>
+ *   <li>SELF：负责人为本人</li>
+ *   <li>DEPARTMENT：负责人为本人，或所属组织为本部门</li>
+ *   <li>SUBTREE：负责人为本人，或所属组织在本部门子树内（见 {@link OrgHierarchyService}）</li>
+ *   <li>ALL：不过滤</li>
+ * </ul>
+ * 有协作人列的实体，协作人也可见（jsonb_has_member，走GIN索引）。
+ * 条件在调用线程上按当时的用户生成，可交给后台线程执行；没有登录用户（定时任务等）时不过滤
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class DataScopeFilter {
+
+    private static final String OWNER = "ownerId";
+    private static final String ORG_UNIT = "orgUnitId";
+    private static final String COLLABORATORS = "collaborators";
+
+    private static volatile DataScopeFilter instance;
+
+    private static final ThreadLocal<Boolean> UNRESTRICTED = new ThreadLocal<>();
+
+    private final OrgHierarchyService orgHierarchyService;
+
+    private final ConcurrentHashMap<Class<?>, Optional<DataScoped>> metadata = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void register() {
+        instance = this;
+    }
+
+    /**
+     * 供非Spring管理的对象（仓库基类）使用，容器启动前为null
+     */
+    public static DataScopeFilter instance() {
+        return instance;
+    }
+
+    /**
+     * 在不受数据范围限制的情况下执行（如公海客户列表、领取校验）
+     */
+    public static <R> R unrestricted(Supplier<R> action) {
+        Boolean previous = UNRESTRICTED.get();
+        UNRESTRICTED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                UNRESTRICTED.remove();
+            } else {
+                UNRESTRICTED.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 把当前用户的数据范围与查询条件合并，不需要过滤时原样返回
+     */
+    public <T> Specification<T> restrict(Class<T> type, Specification<T> spec) {
+        Specification<T> scope = scopeOf(type);
+        if (scope == null) {
+            return spec;
+        }
+        return spec != null ? scope.and(spec) : scope;
+    }
+
+    /**
+     * 当前用户的数据范围条件，不需要过滤时返回null
+     */
+    public <T> Specification<T> scopeOf(Class<T> type) {
+        DataScoped scoped = metadataOf(type);
+        AuthenticatedPrincipal principal = scoped != null ? currentPrincipal() : null;
+        if (principal == null || principal.getDataScope() == DataScope.ALL) {
+            return null;
+        }
+
+        Long userId = principal.getUserId();
+        Long orgUnitId = principal.getOrgUnitId();
+        DataScope dataScope = principal.getDataScope();
+        boolean collaborators = scoped.collaborators();
+        Specification<T> subtree = dataScope == DataScope.SUBTREE && orgUnitId != null
+            ? orgHierarchyService.inSubtree(ORG_UNIT, orgUnitId) : null;
+
+        return (root, query, cb) -> {
+            List<Predicate> visible = new ArrayList<>(3);
+            visible.add(cb.equal(root.get(OWNER), userId));
+            if (dataScope == DataScope.DEPARTMENT && orgUnitId != null) {
+                visible.add(cb.equal(root.get(ORG_UNIT), orgUnitId));
+            } else if (subtree != null) {
+                visible.add(subtree.toPredicate(root, query, cb));
+            }
+            if (collaborators) {
+                visible.add(cb.isTrue(cb.function("jsonb_has_member", Boolean.class,
+                    root.get(COLLABORATORS), cb.literal(userId))));
+            }
+            return cb.or(visible.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * 数据范围的缓存键片段（计数缓存等按用户范围区分），不需要过滤时为空串
+     */
+    public String scopeKey(Class<?> type) {
+        AuthenticatedPrincipal principal = metadataOf(type) != null ? currentPrincipal() : null;
+        if (principal == null || principal.getDataScope() == DataScope.ALL) {
+            return "";
+        }
+        return "@" + principal.getDataScope() + ":" + principal.getUserId() + ":" + principal.getOrgUnitId();
+    }
+
+    private DataScoped metadataOf(Class<?> type) {
+        return metadata.computeIfAbsent(type, key -> Optional.ofNullable(key.getAnnotation(DataScoped.class)))
+            .orElse(null);
+    }
+
+    private static AuthenticatedPrincipal currentPrincipal() {
+        if (Boolean.TRUE.equals(UNRESTRICTED.get())) {
+            return null;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthenticatedPrincipal principal
+            ? principal : null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.denwon.crm.security;
 
+import com.denwon.crm.module.system.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,8 +8,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -27,7 +27,9 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtUtils jwtUtils;
-    private final UserDetailsService userDetailsService;
+    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationStore tokenRevocationStore;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -35,16 +37,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                   FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
+            JwtClaims claims = StringUtils.hasText(jwt) ? jwtUtils.parseToken(jwt) : null;
             
-            if (StringUtils.hasText(jwt) && jwtUtils.validateToken(jwt)) {
-                String username = jwtUtils.extractUsername(jwt);
+            if (claims != null && !claims.isRefreshToken() && !tokenRevocationStore.isRevoked(claims.getTokenId())) {
+                AuthenticatedPrincipal principal = principalCache.get(claims.getSubject(), key ->
+                    userRepository.findWithAuthoritiesByUsername(key)
+                        .orElseThrow(() -> new UsernameNotFoundException("用户不存在: " + key)));
                 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                if (principal.isEnabled() && principal.isAccountNonLocked()
+                        && principal.acceptsTokenIssuedAt(claims.getIssuedAt())) {
+                    UsernamePasswordAuthenticationToken authentication = 
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
@@ -0,0 +1,48 @@
+package com.denwon.crm.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * 已校验的JWT声明
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Value
+@Builder
+public class JwtClaims {
+
+    public static final String TYPE_REFRESH = "refresh";
+
+    String subject;
+
+    String tokenId;
+
+    String type;
+
+    Instant issuedAt;
+
+    Instant expiration;
+
+    static JwtClaims of(Claims claims) {
+        return JwtClaims.builder()
+            .subject(claims.getSubject())
+            .tokenId(claims.getId())
+            .type(claims.get("type", String.class))
+            .issuedAt(claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null)
+            .expiration(claims.getExpiration().toInstant())
+            .build();
+    }
+
+    public boolean isRefreshToken() {
+        return TYPE_REFRESH.equals(type);
+    }
+
+    public boolean isExpired() {
+        return expiration.isBefore(Instant.now());
+    }
+}
@@ -1,109 +1,194 @@
 package com.denwon.crm.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT工具类
- * 
+ * 签名密钥和解析器在启动时构建一次；已校验的Token按摘要缓存至其过期时间，避免重复验签
+ *
  * @author Denwon Team
  * @since 1.0.0
  */
+@Slf4j
 @Component
+@RequiredArgsConstructor
 public class JwtUtils {
-    
+
+    private static final String TOKEN_CACHE_NAME = "auth.token";
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final MeterRegistry meterRegistry;
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
-    
+
     @Value("${app.jwt.expiration}")
     private Long jwtExpiration;
-    
+
     @Value("${app.jwt.refresh-expiration}")
     private Long refreshExpiration;
-    
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-    
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+
+    @Value("${app.jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheSize;
+
+    private SecretKey signKey;
+
+    private JwtParser jwtParser;
+
+    private Cache<String, JwtClaims> verifiedTokens;
+
+    private Timer verifyTimer;
+
+    @PostConstruct
+    public void init() {
+        signKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parser()
+            .verifyWith(signKey)
+            .build();
+        verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(verifiedCacheSize)
+            .expireAfter(new Expiry<String, JwtClaims>() {
+                @Override
+                public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+                    return Math.max(0, Duration.between(Instant.now(), claims.getExpiration()).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, TOKEN_CACHE_NAME);
+        verifyTimer = Timer.builder("crm.auth.jwt.verify")
+            .description("JWT签名校验耗时（不含缓存命中）")
+            .register(meterRegistry);
     }
-    
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+
+    /**
+     * 解析并校验Token
+     *
+     * @param token JWT字符串
+     * @return 校验通过的声明，签名无效、格式错误或已过期时返回null
+     */
+    public JwtClaims parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        JwtClaims claims = verifiedTokens.get(digest(token), key -> verify(token));
+        if (claims == null || claims.isExpired()) {
+            return null;
+        }
+        return claims;
     }
-    
-    private Claims extractAllClaims(String token) {
-        return Jwts
-            .parserBuilder()
-            .setSigningKey(getSignKey())
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
+
+    public String extractUsername(String token) {
+        JwtClaims claims = parseToken(token);
+        return claims != null ? claims.getSubject() : null;
     }
-    
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+
+    public Date extractExpiration(String token) {
+        JwtClaims claims = parseToken(token);
+        return claims != null ? Date.from(claims.getExpiration()) : null;
     }
-    
+
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        JwtClaims claims = parseToken(token);
+        return claims != null && claims.getSubject().equals(userDetails.getUsername());
     }
-    
+
+    public boolean validateToken(String authToken) {
+        return parseToken(authToken) != null;
+    }
+
     public String generateToken(String username) {
         Map<String, Object> claims = new HashMap<>();
         return createToken(claims, username, jwtExpiration);
     }
-    
+
     public String generateRefreshToken(String username) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "refresh");
+        claims.put("type", JwtClaims.TYPE_REFRESH);
         return createToken(claims, username, refreshExpiration);
     }
-    
+
     private String createToken(Map<String, Object> claims, String subject, Long expiration) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
-            .setClaims(claims)
-            .setSubject(subject)
-            .setIssuedAt(new Date(System.currentTimeMillis()))
-            .setExpiration(new Date(System.currentTimeMillis() + expiration))
-            .signWith(getSignKey(), SignatureAlgorithm.HS256)
+            .claims(claims)
+            .id(UUID.randomUUID().toString())
+            .subject(subject)
+            .issuedAt(new Date(now))
+            .expiration(new Date(now + expiration))
+            .signWith(signKey, Jwts.SIG.HS256)
             .compact();
     }
-    
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-    
-    public boolean validateToken(String authToken) {
+
+    private JwtClaims verify(String token) {
+        long start = System.nanoTime();
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
-        } catch (MalformedJwtException ex) {
-            System.err.println("Invalid JWT token");
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                log.debug("JWT token missing subject or expiration");
+                return null;
+            }
+            return JwtClaims.of(claims);
         } catch (ExpiredJwtException ex) {
-            System.err.println("Expired JWT token");
-        } catch (UnsupportedJwtException ex) {
-            System.err.println("Unsupported JWT token");
-        } catch (IllegalArgumentException ex) {
-            System.err.println("JWT claims string is empty");
+            log.debug("Expired JWT token");
+        } catch (JwtException | IllegalArgumentException ex) {
+            log.debug("Invalid JWT token: {}", ex.getMessage());
+        } finally {
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * Token摘要，作为缓存键，避免在内存中保留原始Token
+     */
+    private static String digest(String token) {
+        byte[] hash = SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package com.denwon.crm.security;
+
+import com.denwon.crm.module.system.repository.UserLoginJdbcRepository;
+import com.denwon.crm.module.system.repository.UserLoginJdbcRepository.LastLogin;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 最近登录信息异步写入
+ * 登录成功时只入队，同一用户多次登录合并为最后一次，由定时任务批量写库
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LastLoginWriter {
+
+    private final UserLoginJdbcRepository userLoginJdbcRepository;
+
+    private final Map<Long, LastLogin> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次成功登录
+     */
+    public void enqueue(Long userId, String ip) {
+        pending.put(userId, new LastLogin(userId, LocalDateTime.now(), ip));
+    }
+
+    /**
+     * 批量写入已入队的登录信息
+     */
+    @Scheduled(fixedDelayString = "${app.security.last-login-flush-interval:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<LastLogin> batch = new ArrayList<>(pending.size());
+        for (Iterator<LastLogin> it = pending.values().iterator(); it.hasNext(); ) {
+            batch.add(it.next());
+            it.remove();
+        }
+
+        try {
+            userLoginJdbcRepository.batchUpdateLastLogin(batch);
+        } catch (RuntimeException ex) {
+            log.error("写入最近登录信息失败，{}条记录将在下次重试", batch.size(), ex);
+            batch.forEach(login -> pending.putIfAbsent(login.userId(), login));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
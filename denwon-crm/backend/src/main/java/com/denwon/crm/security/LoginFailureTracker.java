@@ -0,0 +1,265 @@
+package com.denwon.crm.security;
+
+import com.denwon.crm.module.system.repository.UserLoginJdbcRepository;
+import com.denwon.crm.module.system.repository.UserLoginJdbcRepository.LockState;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 登录失败计数器
+ * 按用户名和IP分别在内存中统计滑动窗口内的失败次数，分段加锁；
+ * 只有锁定状态变化时才写库，并由定时任务批量写入
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoginFailureTracker {
+
+    private static final int STRIPES = 64;
+
+    private final UserLoginJdbcRepository userLoginJdbcRepository;
+    private final PrincipalCache principalCache;
+
+    @Value("${app.security.max-login-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.security.ip-max-login-attempts:50}")
+    private int ipMaxAttempts;
+
+    @Value("${app.security.login-failure-window:900}")
+    private long windowSeconds;
+
+    @Value("${app.security.account-lock-duration:1800}")
+    private long lockSeconds;
+
+    @Value("${app.security.ip-lock-duration:300}")
+    private long ipLockSeconds;
+
+    private final Stripe[] userStripes = newStripes();
+
+    private final Stripe[] ipStripes = newStripes();
+
+    private final Map<String, LockState> pending = new ConcurrentHashMap<>();
+
+    private final Object flushLock = new Object();
+
+    private long windowMillis;
+
+    private long lockMillis;
+
+    private long ipLockMillis;
+
+    @PostConstruct
+    public void init() {
+        windowMillis = windowSeconds * 1000;
+        lockMillis = lockSeconds * 1000;
+        ipLockMillis = ipLockSeconds * 1000;
+    }
+
+    /**
+     * 用户名或IP当前是否处于锁定状态，在校验密码之前调用
+     */
+    public boolean isBlocked(String username, String ip) {
+        long now = System.currentTimeMillis();
+        return isLocked(userStripes, username, now) || isLocked(ipStripes, ip, now);
+    }
+
+    /**
+     * 记录一次登录失败，返回该用户是否因此被锁定
+     */
+    public boolean recordFailure(String username, String ip) {
+        long now = System.currentTimeMillis();
+
+        if (ip != null && record(ipStripes, ip, ipMaxAttempts, ipLockMillis, now)) {
+            log.warn("IP {} 登录失败次数过多，暂停登录{}秒", ip, ipLockSeconds);
+        }
+
+        if (username == null || !record(userStripes, username, maxAttempts, lockMillis, now)) {
+            return false;
+        }
+
+        LocalDateTime lockedUntil = LocalDateTime.ofInstant(Instant.ofEpochMilli(now + lockMillis), ZoneId.systemDefault());
+        pending.put(username, new LockState(username, maxAttempts, lockedUntil));
+        log.warn("用户 {} 登录失败次数过多，锁定至{}", username, lockedUntil);
+        return true;
+    }
+
+    /**
+     * 登录成功后清除该用户的失败记录
+     */
+    public void recordSuccess(String username) {
+        remove(userStripes, username);
+    }
+
+    /**
+     * 清除用户的失败记录和尚未写入的锁定（管理员解锁时）
+     * 与flush互斥：已进入批次的锁定要么在此之前写完，要么不会再写，
+     * 调用方随后写入的解锁状态不会被覆盖
+     */
+    public void clear(String username) {
+        remove(userStripes, username);
+        if (username != null) {
+            synchronized (flushLock) {
+                pending.remove(username);
+            }
+        }
+    }
+
+    /**
+     * 批量写入锁定状态
+     */
+    @Scheduled(fixedDelayString = "${app.security.login-failure-flush-interval:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        synchronized (flushLock) {
+            List<LockState> batch = new ArrayList<>(pending.size());
+            for (Iterator<LockState> it = pending.values().iterator(); it.hasNext(); ) {
+                batch.add(it.next());
+                it.remove();
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                userLoginJdbcRepository.batchUpdateLockState(batch);
+                batch.forEach(state -> principalCache.evict(state.username()));
+            } catch (RuntimeException ex) {
+                log.error("写入登录锁定状态失败，{}条记录将在下次重试", batch.size(), ex);
+                batch.forEach(state -> pending.putIfAbsent(state.username(), state));
+            }
+        }
+    }
+
+    /**
+     * 清理窗口外且未锁定的计数，防止随机用户名撑大内存
+     */
+    @Scheduled(fixedDelayString = "${app.security.login-failure-prune-interval:60000}")
+    public void prune() {
+        long now = System.currentTimeMillis();
+        prune(userStripes, now);
+        prune(ipStripes, now);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private boolean isLocked(Stripe[] stripes, String key, long now) {
+        if (key == null) {
+            return false;
+        }
+        Stripe stripe = stripeOf(stripes, key);
+        synchronized (stripe) {
+            FailureWindow window = stripe.windows.get(key);
+            return window != null && window.lockedUntil > now;
+        }
+    }
+
+    private boolean record(Stripe[] stripes, String key, int limit, long lockMillis, long now) {
+        Stripe stripe = stripeOf(stripes, key);
+        synchronized (stripe) {
+            FailureWindow window = stripe.windows.computeIfAbsent(key, k -> new FailureWindow(limit));
+            if (window.lockedUntil > now) {
+                return false;
+            }
+            if (window.add(now, windowMillis)) {
+                window.lockedUntil = now + lockMillis;
+                window.reset();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private void remove(Stripe[] stripes, String key) {
+        if (key == null) {
+            return;
+        }
+        Stripe stripe = stripeOf(stripes, key);
+        synchronized (stripe) {
+            stripe.windows.remove(key);
+        }
+    }
+
+    private void prune(Stripe[] stripes, long now) {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.windows.values().removeIf(window ->
+                    window.lockedUntil <= now && now - window.lastFailureAt > windowMillis);
+            }
+        }
+    }
+
+    private static Stripe stripeOf(Stripe[] stripes, String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static Stripe[] newStripes() {
+        Stripe[] stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        return stripes;
+    }
+
+    private static final class Stripe {
+        private final Map<String, FailureWindow> windows = new HashMap<>();
+    }
+
+    /**
+     * 最近limit次失败时间的环形缓冲，最早一次仍在窗口内即达到阈值
+     */
+    private static final class FailureWindow {
+
+        private final long[] failures;
+
+        private int head;
+
+        private int size;
+
+        private long lastFailureAt;
+
+        private long lockedUntil;
+
+        FailureWindow(int limit) {
+            this.failures = new long[Math.max(limit, 1)];
+        }
+
+        boolean add(long now, long windowMillis) {
+            failures[head] = now;
+            head = (head + 1) % failures.length;
+            size = Math.min(size + 1, failures.length);
+            lastFailureAt = now;
+            return size == failures.length && now - failures[head] <= windowMillis;
+        }
+
+        void reset() {
+            head = 0;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.denwon.crm.security;
+
+import com.denwon.crm.common.exception.BusinessException;
+
+/**
+ * 密码哈希队列已满异常
+ * 对应HTTP 429，客户端应稍后重试
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public class PasswordHashingRejectedException extends BusinessException {
+
+    public PasswordHashingRejectedException() {
+        super(429, "登录请求过多，请稍后重试");
+    }
+}
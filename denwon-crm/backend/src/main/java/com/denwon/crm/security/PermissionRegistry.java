@@ -0,0 +1,128 @@
+package com.denwon.crm.security;
+
+import com.denwon.crm.module.system.entity.Permission;
+import com.denwon.crm.module.system.entity.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 权限编号注册表
+ * 将角色编码（ROLE_xxx）和权限编码映射为稠密整数编号，并把角色预编译为位图，
+ * 用户的有效权限为其各角色位图的并集，鉴权时只需一次位测试
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Component
+public class PermissionRegistry {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Long, CompiledRole> compiledRoles = new ConcurrentHashMap<>();
+
+    private final Object internLock = new Object();
+
+    private volatile GrantedAuthority[] authorities = new GrantedAuthority[128];
+
+    /**
+     * 查询权限编号，未注册时返回-1
+     */
+    public int idOf(String authority) {
+        Integer id = ids.get(authority);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * 根据编号获取共享的权限对象
+     */
+    public GrantedAuthority authority(int id) {
+        return authorities[id];
+    }
+
+    /**
+     * 注册权限编码并返回编号，已注册时直接返回原编号
+     */
+    public int intern(String authority) {
+        Integer id = ids.get(authority);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (internLock) {
+            id = ids.get(authority);
+            if (id != null) {
+                return id;
+            }
+
+            int next = ids.size();
+            GrantedAuthority[] current = authorities;
+            if (next >= current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[next] = new SimpleGrantedAuthority(authority);
+            authorities = current;
+            ids.put(authority, next);
+            return next;
+        }
+    }
+
+    /**
+     * 获取角色的权限位图（含角色自身），按角色版本缓存
+     * 返回的位图为共享实例，调用方不得修改
+     */
+    public BitSet compile(Role role) {
+        CompiledRole compiled = role.getId() != null ? compiledRoles.get(role.getId()) : null;
+        if (compiled != null && Objects.equals(compiled.version, role.getVersion())) {
+            return compiled.bits;
+        }
+
+        BitSet bits = new BitSet();
+        bits.set(intern(ROLE_PREFIX + role.getCode()));
+        for (Permission permission : role.getPermissions()) {
+            bits.set(intern(permission.getCode()));
+        }
+
+        if (role.getId() != null) {
+            compiledRoles.put(role.getId(), new CompiledRole(role.getVersion(), bits));
+        }
+        return bits;
+    }
+
+    /**
+     * 清空角色位图缓存（权限变更时角色版本不一定变化）
+     * 事务内调用时提交后会再次清空，防止并发请求在提交前按旧权限重新编译
+     */
+    public void evictCompiledRoles() {
+        compiledRoles.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    compiledRoles.clear();
+                }
+            });
+        }
+    }
+
+    private static final class CompiledRole {
+
+        private final Long version;
+
+        private final BitSet bits;
+
+        private CompiledRole(Long version, BitSet bits) {
+            this.version = version;
+            this.bits = bits;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.denwon.crm.security;
+
+import com.denwon.crm.module.system.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * 已认证用户快照缓存
+ * 按用户名缓存 {@link AuthenticatedPrincipal}，用户、角色、权限变更时失效
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PrincipalCache {
+
+    private static final String CACHE_NAME = "auth.principal";
+
+    private final MeterRegistry meterRegistry;
+    private final PermissionRegistry permissionRegistry;
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.security.principal-cache.ttl:300}")
+    private long ttlSeconds;
+
+    private Cache<String, AuthenticatedPrincipal> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 获取用户快照，未命中时通过loader加载用户并构建快照
+     */
+    public AuthenticatedPrincipal get(String username, Function<String, User> loader) {
+        return cache.get(username, key -> AuthenticatedPrincipal.of(loader.apply(key), permissionRegistry));
+    }
+
+    /**
+     * 使指定用户的快照失效
+     * 事务内调用时提交后会再次失效，防止并发请求在提交前重新加载旧数据
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        cache.invalidate(username);
+        afterCommit(() -> cache.invalidate(username));
+    }
+
+    /**
+     * 使全部快照失效（角色或权限变更时）
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+        afterCommit(cache::invalidateAll);
+        log.debug("用户快照缓存已全部失效");
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
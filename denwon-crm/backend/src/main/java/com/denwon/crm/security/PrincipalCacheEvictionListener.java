@@ -0,0 +1,30 @@
+package com.denwon.crm.security;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 角色/权限实体监听器
+ * 角色或权限发生变更时清空用户快照缓存和角色权限位图
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalCacheEvictionListener {
+
+    private final PrincipalCache principalCache;
+    private final PermissionRegistry permissionRegistry;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        permissionRegistry.evictCompiledRoles();
+        principalCache.evictAll();
+    }
+}
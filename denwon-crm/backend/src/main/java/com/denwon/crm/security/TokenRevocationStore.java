@@ -0,0 +1,151 @@
+package com.denwon.crm.security;
+
+import com.denwon.crm.module.system.entity.RevokedToken;
+import com.denwon.crm.module.system.repository.RevokedTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Token撤销存储
+ * 撤销记录持久化到revoked_tokens表并定期同步到本地（多实例共享）；
+ * 认证时先查布隆过滤器，只有命中时才做精确查询，未撤销的常见路径不分配对象
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationStore {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${app.jwt.revocation.expected-size:100000}")
+    private int expectedSize;
+
+    @Value("${app.jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    /**
+     * 增量同步时向前多读的秒数：撤销时间在写入时取值，提交可能稍晚，重叠窗口内的记录会被重复读取（幂等）
+     */
+    @Value("${app.jwt.revocation.sync-overlap:60}")
+    private long syncOverlap;
+
+    private Cache<String, Instant> revoked;
+
+    private volatile TokenBloomFilter filter;
+
+    /**
+     * 已同步到的最大撤销时间（数据库时钟）
+     */
+    private volatile LocalDateTime lastRevokedAt;
+
+    @PostConstruct
+    public void init() {
+        revoked = Caffeine.newBuilder()
+            .expireAfter(new Expiry<String, Instant>() {
+                @Override
+                public long expireAfterCreate(String jti, Instant expiresAt, long currentTime) {
+                    return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String jti, Instant expiresAt, long currentTime, long currentDuration) {
+                    return expireAfterCreate(jti, expiresAt, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String jti, Instant expiresAt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+        filter = new TokenBloomFilter(expectedSize, falsePositiveRate);
+        sync();
+    }
+
+    /**
+     * 判断Token是否已撤销
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        return revoked.getIfPresent(jti) != null;
+    }
+
+    /**
+     * 撤销Token，记录保留至Token过期。
+     * 返回true表示本次调用完成了撤销；Token已被撤销（包括其他实例并发撤销）时返回false，
+     * 刷新Token轮换据此保证同一个刷新Token只能换取一次
+     */
+    @Transactional
+    public boolean revoke(JwtClaims claims) {
+        if (claims == null || claims.getTokenId() == null || claims.isExpired()) {
+            return false;
+        }
+
+        boolean inserted = revokedTokenRepository.insertIfAbsent(claims.getTokenId(), claims.getSubject(),
+            LocalDateTime.ofInstant(claims.getExpiration(), ZoneId.systemDefault())) == 1;
+        add(claims.getTokenId(), claims.getExpiration());
+        return inserted;
+    }
+
+    /**
+     * 同步其他实例写入的撤销记录。
+     * 按撤销时间而不是自增ID推进：ID在插入时分配、提交顺序不一定一致，按ID推进会永久漏掉晚提交的记录
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.sync-interval:5000}")
+    public void sync() {
+        LocalDateTime watermark = lastRevokedAt;
+        LocalDateTime latest = watermark;
+        List<RevokedToken> tokens = watermark == null
+            ? revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now())
+            : revokedTokenRepository.findActiveRevokedSince(watermark.minusSeconds(syncOverlap), LocalDateTime.now());
+        for (RevokedToken token : tokens) {
+            add(token.getJti(), token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant());
+            if (token.getRevokedAt() != null && (latest == null || token.getRevokedAt().isAfter(latest))) {
+                latest = token.getRevokedAt();
+            }
+        }
+        lastRevokedAt = latest;
+    }
+
+    /**
+     * 清理过期记录并重建布隆过滤器，去掉已过期Token占用的位
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.purge-interval:3600000}")
+    @Transactional
+    public void purge() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+
+        synchronized (this) {
+            revoked.cleanUp();
+            TokenBloomFilter rebuilt = new TokenBloomFilter(expectedSize, falsePositiveRate);
+            revoked.asMap().keySet().forEach(rebuilt::put);
+            filter = rebuilt;
+        }
+
+        log.debug("清理过期撤销记录{}条，当前有效撤销{}条", deleted, revoked.estimatedSize());
+    }
+
+    private synchronized void add(String jti, Instant expiresAt) {
+        revoked.put(jti, expiresAt);
+        filter.put(jti);
+    }
+}
@@ -0,0 +1,127 @@
+package com.denwon.crm.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 联系信息规范化工具类
+ * 导入、查重等场景统一使用，保证同一个手机号、邮箱、公司名得到相同的比较键
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public class NormalizeUtils {
+
+    private static final Pattern NON_DIGIT = Pattern.compile("\\D+");
+
+    private static final Pattern MOBILE = Pattern.compile("1[3-9]\\d{9}");
+
+    private static final Pattern EMAIL = Pattern.compile("[a-z0-9._%+\\-]+@[a-z0-9.\\-]+\\.[a-z]{2,}");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * 与数据库函数lead_name_key中的字符集保持一致
+     */
+    private static final Pattern NAME_KEY_STRIP = Pattern.compile("[\\s\\p{Punct}（）【】《》，。、；：“”‘’·]+");
+
+    private static final Pattern COMPANY_SUFFIX = Pattern.compile(
+        "(股份有限公司|有限责任公司|有限公司|集团|分公司|公司|coltd|colimited|limited|ltd|inc|corp|company)$");
+
+    /**
+     * 公司名开头的“XX省”“XX市”
+     */
+    private static final Pattern COMPANY_REGION_PREFIX = Pattern.compile("^\\p{IsHan}{2,3}[省市]");
+
+    private static final Pattern REGION_SUFFIX = Pattern.compile("(省|市|自治区|特别行政区|地区)$");
+
+    private NormalizeUtils() {
+    }
+
+    /**
+     * 文本清洗：全角转半角（NFKC）、去首尾空白、连续空白合并为一个空格，空串返回null
+     */
+    public static String text(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = WHITESPACE.matcher(Normalizer.normalize(value, Normalizer.Form.NFKC)).replaceAll(" ").trim();
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * 手机号：只保留数字并去掉+86/0086前缀，不是11位大陆手机号时返回null
+     */
+    public static String mobile(String value) {
+        if (value == null) {
+            return null;
+        }
+        String digits = NON_DIGIT.matcher(Normalizer.normalize(value, Normalizer.Form.NFKC)).replaceAll("");
+        if (digits.length() == 15 && digits.startsWith("0086")) {
+            digits = digits.substring(4);
+        } else if (digits.length() == 13 && digits.startsWith("86")) {
+            digits = digits.substring(2);
+        }
+        return MOBILE.matcher(digits).matches() ? digits : null;
+    }
+
+    /**
+     * 邮箱：去空白并转小写，格式不合法时返回null
+     */
+    public static String email(String value) {
+        String text = text(value);
+        if (text == null) {
+            return null;
+        }
+        String email = text.replace(" ", "").toLowerCase(Locale.ROOT);
+        return EMAIL.matcher(email).matches() ? email : null;
+    }
+
+    /**
+     * 公司名比较键：NFKC后去掉空白和标点并转小写，如“ 深圳（腾讯）科技 ”与“深圳(腾讯)科技”相同
+     */
+    public static String companyKey(String value) {
+        String text = text(value);
+        if (text == null) {
+            return null;
+        }
+        String key = NAME_KEY_STRIP.matcher(text).replaceAll("").toLowerCase(Locale.ROOT);
+        return key.isEmpty() ? null : key;
+    }
+
+    /**
+     * 公司名主体：在比较键基础上去掉开头的省市和结尾的“有限公司”“集团”等后缀，
+     * 如“深圳市腾讯计算机系统有限公司”→“腾讯计算机系统”；去掉后为空时保留比较键
+     */
+    public static String companyCore(String value) {
+        String key = companyKey(value);
+        if (key == null) {
+            return null;
+        }
+        String core = key;
+        String previous;
+        do {
+            previous = core;
+            core = COMPANY_SUFFIX.matcher(core).replaceFirst("");
+        } while (!core.isEmpty() && !core.equals(previous));
+
+        String withoutRegion = COMPANY_REGION_PREFIX.matcher(core).replaceFirst("");
+        if (withoutRegion.length() >= 2) {
+            core = withoutRegion;
+        }
+        return core.isEmpty() ? key : core;
+    }
+
+    /**
+     * 地区比较键：去掉标点和“省”“市”等后缀，如“广东省”与“广东”相同
+     */
+    public static String regionKey(String value) {
+        String key = companyKey(value);
+        if (key == null) {
+            return null;
+        }
+        String stripped = REGION_SUFFIX.matcher(key).replaceFirst("");
+        return stripped.isEmpty() ? key : stripped;
+    }
+}
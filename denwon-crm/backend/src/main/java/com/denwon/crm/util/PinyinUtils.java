@@ -0,0 +1,103 @@
+package com.denwon.crm.util;
+
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+
+/**
+ * 拼音工具类
+ * 汉字转无声调小写拼音，多音字取第一个读音；同音字、繁简体得到相同结果，用于查重分块
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+public class PinyinUtils {
+
+    private static final char CJK_FIRST = '\u4e00';
+
+    private static final char CJK_LAST = '\u9fff';
+
+    private static final HanyuPinyinOutputFormat FORMAT = new HanyuPinyinOutputFormat();
+
+    /**
+     * 常用汉字区的拼音缓存，pinyin4j逐字查表较慢；并发写入同一位置结果相同，无需加锁
+     */
+    private static final String[] CACHE = new String[CJK_LAST - CJK_FIRST + 1];
+
+    static {
+        FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+    }
+
+    private PinyinUtils() {
+    }
+
+    /**
+     * 单个汉字的拼音，非汉字或无读音时返回null
+     */
+    public static String toPinyin(char c) {
+        if (c < CJK_FIRST || c > CJK_LAST) {
+            return null;
+        }
+        int index = c - CJK_FIRST;
+        String pinyin = CACHE[index];
+        if (pinyin == null) {
+            pinyin = lookup(c);
+            CACHE[index] = pinyin;
+        }
+        return pinyin.isEmpty() ? null : pinyin;
+    }
+
+    /**
+     * 折叠为拼音串：汉字转拼音，字母数字转小写保留，其余字符丢弃，如“腾讯 科技”→“tengxunkeji”
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder folded = new StringBuilder(text.length() * 4);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String pinyin = toPinyin(c);
+            if (pinyin != null) {
+                folded.append(pinyin);
+            } else if (Character.isLetterOrDigit(c) && c < 128) {
+                folded.append(Character.toLowerCase(c));
+            }
+        }
+        return folded.toString();
+    }
+
+    /**
+     * 拼音首字母，如“腾讯科技”→“txkj”
+     */
+    public static String initials(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder initials = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String pinyin = toPinyin(c);
+            if (pinyin != null) {
+                initials.append(pinyin.charAt(0));
+            } else if (Character.isLetterOrDigit(c) && c < 128) {
+                initials.append(Character.toLowerCase(c));
+            }
+        }
+        return initials.toString();
+    }
+
+    private static String lookup(char c) {
+        try {
+            String[] readings = PinyinHelper.toHanyuPinyinStringArray(c, FORMAT);
+            return readings != null && readings.length > 0 ? readings[0] : "";
+        } catch (BadHanyuPinyinOutputFormatCombination e) {
+            return "";
+        }
+    }
+}
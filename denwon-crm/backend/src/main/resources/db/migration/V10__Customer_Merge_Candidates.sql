@@ -0,0 +1,24 @@
+-- =============================================
+-- Customer Merge Candidates
+-- Version: 10.0.0
+-- =============================================
+
+-- Suspected duplicate customer pairs, one row per pair (customer_id < candidate_id)
+CREATE TABLE customer_merge_candidates (
+    id BIGSERIAL PRIMARY KEY,
+    customer_id BIGINT NOT NULL REFERENCES customers(id) ON DELETE CASCADE,
+    candidate_id BIGINT NOT NULL REFERENCES customers(id) ON DELETE CASCADE,
+    score NUMERIC(5,4) NOT NULL,
+    reasons VARCHAR(100), -- comma separated: USCC, NAME, PINYIN, ABBREVIATION, REGION
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING', -- PENDING, MERGED, REJECTED
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_customer_merge_pair UNIQUE (customer_id, candidate_id),
+    CONSTRAINT ck_customer_merge_pair CHECK (customer_id < candidate_id)
+);
+
+CREATE INDEX idx_customer_merge_candidate ON customer_merge_candidates(candidate_id);
+CREATE INDEX idx_customer_merge_status_score ON customer_merge_candidates(status, score DESC);
+
+-- Merged customers are soft-deleted and point at the surviving record
+ALTER TABLE customers ADD COLUMN merged_into_id BIGINT REFERENCES customers(id);
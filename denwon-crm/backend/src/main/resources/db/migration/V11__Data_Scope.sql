@@ -0,0 +1,38 @@
+-- =============================================
+-- Row-level Data Scope
+-- Version: 11.0.0
+-- =============================================
+
+-- Rows a role can see: SELF (own), DEPARTMENT (own org unit), SUBTREE (own org unit and below), ALL.
+-- A user gets the widest scope among their roles.
+ALTER TABLE roles ADD COLUMN data_scope VARCHAR(20) NOT NULL DEFAULT 'SELF';
+
+UPDATE roles SET data_scope = 'ALL' WHERE code IN ('SUPER_ADMIN', 'ADMIN', 'GENERAL_MANAGER', 'FINANCE');
+UPDATE roles SET data_scope = 'SUBTREE' WHERE code = 'SALES_MANAGER';
+
+-- Collaborators are stored as a JSONB array of user ids, e.g. [12, 34].
+-- Plain SQL body so the planner inlines it to "members @> '[id]'" and can use the jsonb_path_ops GIN indexes.
+CREATE OR REPLACE FUNCTION jsonb_has_member(members JSONB, user_id BIGINT) RETURNS BOOLEAN AS $$
+    SELECT members @> jsonb_build_array(user_id)
+$$ LANGUAGE sql STABLE PARALLEL SAFE;
+
+CREATE INDEX idx_customers_collaborators ON customers USING GIN (collaborators jsonb_path_ops);
+CREATE INDEX idx_opportunities_collaborators ON opportunities USING GIN (collaborators jsonb_path_ops);
+CREATE INDEX idx_sales_contracts_collaborators ON sales_contracts USING GIN (collaborators jsonb_path_ops);
+
+-- Scoped lists are "owner_id = ? OR org_unit_id IN (...) OR collaborator" ordered by id:
+-- each branch is an index scan combined by BitmapOr, the id suffix serves keyset pagination.
+DROP INDEX IF EXISTS idx_customers_owner;
+DROP INDEX IF EXISTS idx_customers_org_unit;
+CREATE INDEX idx_customers_owner ON customers(owner_id, id);
+CREATE INDEX idx_customers_org_unit ON customers(org_unit_id, id);
+
+CREATE INDEX idx_leads_owner ON leads(owner_id, id);
+CREATE INDEX idx_leads_org_unit ON leads(org_unit_id, id);
+
+DROP INDEX IF EXISTS idx_opportunities_owner;
+CREATE INDEX idx_opportunities_owner ON opportunities(owner_id, id);
+CREATE INDEX idx_opportunities_org_unit ON opportunities(org_unit_id, id);
+
+CREATE INDEX idx_sales_contracts_owner ON sales_contracts(owner_id, id);
+CREATE INDEX idx_sales_contracts_org_unit ON sales_contracts(org_unit_id, id);
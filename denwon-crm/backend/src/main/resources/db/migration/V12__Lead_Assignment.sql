@@ -0,0 +1,14 @@
+-- =============================================
+-- Lead Assignment
+-- Version: 12.0.0
+-- =============================================
+
+-- Round-robin / weighted cursor per rule. Nodes lease disjoint position blocks
+-- ("position = position + n RETURNING"), so assignment stays consistent across nodes and restarts.
+CREATE TABLE lead_assignment_cursors (
+    rule_id BIGINT PRIMARY KEY REFERENCES lead_assignment_rules(id) ON DELETE CASCADE,
+    position BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_lead_assignment_rules_active ON lead_assignment_rules(priority DESC, id) WHERE is_active IS TRUE;
@@ -0,0 +1,32 @@
+-- =============================================
+-- Customer Public Pool
+-- Version: 13.0.0
+-- =============================================
+
+-- When the current owner took the customer; the recycle job measures inactivity from here
+ALTER TABLE customers ADD COLUMN owner_assigned_at TIMESTAMP;
+UPDATE customers SET owner_assigned_at = created_at WHERE owner_id IS NOT NULL;
+
+-- Claim / release / recycle history, also used to restore per-rep daily claim counts after restart
+CREATE TABLE customer_pool_logs (
+    id BIGSERIAL PRIMARY KEY,
+    customer_id BIGINT NOT NULL REFERENCES customers(id),
+    user_id BIGINT REFERENCES users(id),
+    action VARCHAR(20) NOT NULL, -- CLAIM, RELEASE, RECYCLE
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_customer_pool_logs_customer ON customer_pool_logs(customer_id);
+CREATE INDEX idx_customer_pool_logs_user ON customer_pool_logs(user_id, action, created_at);
+
+-- Recycle scan: private customers by id; claim: public customers oldest first
+DROP INDEX IF EXISTS idx_customers_pool_status;
+CREATE INDEX idx_customers_pool_private ON customers(id) INCLUDE (owner_assigned_at)
+    WHERE pool_status = 'PRIVATE' AND deleted IS NOT TRUE;
+CREATE INDEX idx_customers_pool_public ON customers(pool_entered_at, id)
+    WHERE pool_status = 'PUBLIC' AND deleted IS NOT TRUE;
+
+-- Anti-joins of the recycle job: latest follow-up and open opportunities per customer
+CREATE INDEX idx_activities_customer_start ON activities(customer_id, start_at) WHERE deleted IS NOT TRUE;
+CREATE INDEX idx_opportunities_open ON opportunities(customer_id)
+    WHERE deleted IS NOT TRUE AND (current_stage IS NULL OR current_stage NOT IN ('WON', 'LOST'));
@@ -0,0 +1,18 @@
+-- =============================================
+-- Price Policy Index Sync
+-- Version: 14.0.0
+-- =============================================
+
+-- The in-memory pricing index syncs incrementally by updated_at, so every update must move it
+CREATE OR REPLACE FUNCTION price_policies_touch() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at := GREATEST(clock_timestamp()::timestamp, COALESCE(NEW.updated_at, OLD.updated_at));
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_price_policies_touch
+    BEFORE UPDATE ON price_policies
+    FOR EACH ROW EXECUTE FUNCTION price_policies_touch();
+
+CREATE INDEX idx_price_policies_updated_at ON price_policies(updated_at);
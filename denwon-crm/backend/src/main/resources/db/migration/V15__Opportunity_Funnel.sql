@@ -0,0 +1,43 @@
+-- =============================================
+-- Opportunity Funnel Rollup
+-- Version: 15.0.0
+-- =============================================
+
+-- Funnel aggregates keyed by (org unit, owner, stage, expected sign month).
+-- Missing values are stored as 0 / '' so the key is always unique; sign_month is yyyymm
+CREATE TABLE opportunity_funnel_rollups (
+    org_unit_id BIGINT NOT NULL,
+    owner_id BIGINT NOT NULL,
+    stage VARCHAR(50) NOT NULL,
+    sign_month INTEGER NOT NULL,
+    opportunity_count BIGINT NOT NULL DEFAULT 0,
+    amount_ex_tax DECIMAL(20,2) NOT NULL DEFAULT 0,
+    weighted_amount_ex_tax DECIMAL(22,4) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (org_unit_id, owner_id, stage, sign_month)
+);
+
+-- Signed deltas written in the same transaction as the opportunity change and folded into the
+-- rollup by a background job; appends never contend on hot rollup rows
+CREATE TABLE opportunity_funnel_deltas (
+    id BIGSERIAL PRIMARY KEY,
+    org_unit_id BIGINT NOT NULL,
+    owner_id BIGINT NOT NULL,
+    stage VARCHAR(50) NOT NULL,
+    sign_month INTEGER NOT NULL,
+    opportunity_count INTEGER NOT NULL,
+    amount_ex_tax DECIMAL(20,2) NOT NULL,
+    weighted_amount_ex_tax DECIMAL(22,4) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Initial load; later drift is corrected by the scheduled reconcile
+INSERT INTO opportunity_funnel_rollups (org_unit_id, owner_id, stage, sign_month,
+                                        opportunity_count, amount_ex_tax, weighted_amount_ex_tax)
+SELECT COALESCE(org_unit_id, 0), COALESCE(owner_id, 0), COALESCE(current_stage, ''),
+       COALESCE(EXTRACT(YEAR FROM expected_sign_at)::int * 100 + EXTRACT(MONTH FROM expected_sign_at)::int, 0),
+       count(*), COALESCE(sum(expected_amount_ex_tax), 0),
+       COALESCE(sum((expected_amount_ex_tax * COALESCE(probability, 0) / 100)::numeric(22,4)), 0)
+FROM opportunities
+WHERE deleted IS NOT TRUE
+GROUP BY 1, 2, 3, 4;
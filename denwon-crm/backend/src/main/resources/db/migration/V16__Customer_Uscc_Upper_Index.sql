@@ -0,0 +1,8 @@
+-- =============================================
+-- Customer USCC Lookup Index
+-- Version: 16.0.0
+-- =============================================
+
+-- Single-customer duplicate lookup compares upper(uscc); with this index every branch of its
+-- OR (uscc / name trigram / short_name trigram) is indexable and the planner can BitmapOr them
+CREATE INDEX idx_customers_uscc_upper ON customers (upper(uscc)) WHERE deleted IS NOT TRUE;
@@ -0,0 +1,7 @@
+-- =============================================
+-- Token Revocation Sync Watermark
+-- Version: 17.0.0
+-- =============================================
+
+-- Instances sync revocations by revoked_at (commit-ordered with an overlap window) instead of id
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
@@ -0,0 +1,8 @@
+-- =============================================
+-- Lead Import Claim Token
+-- Version: 18.0.0
+-- =============================================
+
+-- Token of the node that currently owns a job; progress writes are fenced on it
+-- so a node that lost its claim (heartbeat expired, job taken over) stops writing
+ALTER TABLE lead_import_jobs ADD COLUMN claim_token VARCHAR(36);
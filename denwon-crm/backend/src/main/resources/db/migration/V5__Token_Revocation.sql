@@ -0,0 +1,18 @@
+-- =============================================
+-- Token Revocation
+-- Version: 5.0.0
+-- =============================================
+
+-- Revoked Tokens Table (rows can be purged once expires_at has passed)
+CREATE TABLE revoked_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    jti VARCHAR(64) UNIQUE NOT NULL,
+    username VARCHAR(50),
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_revoked_tokens_expires ON revoked_tokens(expires_at);
+
+-- Per-user cut-off: tokens issued before this instant are rejected
+ALTER TABLE users ADD COLUMN tokens_valid_after TIMESTAMP;
@@ -0,0 +1,34 @@
+-- =============================================
+-- Trigram Search Indexes
+-- Version: 6.0.0
+-- =============================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Fuzzy match used by FilterCompiler (FUZZY operator).
+-- Plain SQL body so the planner inlines it to "a % b" and can use the GIN trigram indexes.
+-- STABLE because the % operator depends on pg_trgm.similarity_threshold.
+CREATE OR REPLACE FUNCTION trgm_match(a TEXT, b TEXT) RETURNS BOOLEAN AS $$
+    SELECT a % b
+$$ LANGUAGE sql STABLE PARALLEL SAFE;
+
+-- Users
+CREATE INDEX idx_users_username_trgm ON users USING GIN (username gin_trgm_ops);
+CREATE INDEX idx_users_name_trgm ON users USING GIN (name gin_trgm_ops);
+CREATE INDEX idx_users_mobile_trgm ON users USING GIN (mobile gin_trgm_ops);
+CREATE INDEX idx_users_email_trgm ON users USING GIN (email gin_trgm_ops);
+
+-- Customers
+CREATE INDEX idx_customers_name_trgm ON customers USING GIN (name gin_trgm_ops);
+CREATE INDEX idx_customers_short_name_trgm ON customers USING GIN (short_name gin_trgm_ops);
+
+-- Contacts
+CREATE INDEX idx_contacts_name_trgm ON contacts USING GIN (name gin_trgm_ops);
+CREATE INDEX idx_contacts_mobile_trgm ON contacts USING GIN (mobile gin_trgm_ops);
+CREATE INDEX idx_contacts_email_trgm ON contacts USING GIN (email gin_trgm_ops);
+
+-- Leads
+CREATE INDEX idx_leads_customer_name_trgm ON leads USING GIN (customer_name gin_trgm_ops);
+CREATE INDEX idx_leads_contact_name_trgm ON leads USING GIN (contact_name gin_trgm_ops);
+CREATE INDEX idx_leads_mobile_trgm ON leads USING GIN (mobile gin_trgm_ops);
+CREATE INDEX idx_leads_email_trgm ON leads USING GIN (email gin_trgm_ops);
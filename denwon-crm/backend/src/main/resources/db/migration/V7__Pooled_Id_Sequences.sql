@@ -0,0 +1,28 @@
+-- =============================================
+-- Pooled ID Sequences
+-- Version: 7.0.0
+-- =============================================
+
+-- Entities take IDs from "<table>_id_seq" with the pooled-lo optimizer:
+-- one nextval reserves [value, value + 49], so inserts can be JDBC-batched.
+-- INCREMENT BY must equal the Hibernate allocation size (50).
+-- The BIGSERIAL column defaults are kept, so plain SQL inserts still work;
+-- each of them just consumes a whole block of 50.
+DO $$
+DECLARE
+    seq RECORD;
+BEGIN
+    FOR seq IN
+        SELECT s.relname AS sequence_name
+        FROM pg_class s
+        JOIN pg_depend d ON d.objid = s.oid AND d.deptype = 'a'
+        JOIN pg_class t ON t.oid = d.refobjid
+        JOIN pg_attribute a ON a.attrelid = t.oid AND a.attnum = d.refobjsubid
+        JOIN pg_namespace n ON n.oid = s.relnamespace
+        WHERE s.relkind = 'S'
+          AND a.attname = 'id'
+          AND n.nspname = current_schema()
+    LOOP
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', seq.sequence_name);
+    END LOOP;
+END $$;
@@ -0,0 +1,64 @@
+-- =============================================
+-- Lead Bulk Import
+-- Version: 8.0.0
+-- =============================================
+
+-- Import jobs: one row per uploaded file, also the resume checkpoint
+CREATE TABLE lead_import_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL,
+    file_type VARCHAR(10) NOT NULL, -- CSV, XLSX
+    file_path VARCHAR(500) NOT NULL,
+    charset VARCHAR(20),
+    source VARCHAR(50) NOT NULL,
+    channel VARCHAR(50),
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING', -- PENDING, PARSING, DEDUPING, INSERTING, COMPLETED, FAILED
+    last_row_no INTEGER DEFAULT 0, -- last source row committed to staging (resume point for parsing)
+    parsed_rows INTEGER DEFAULT 0,
+    error_rows INTEGER DEFAULT 0,
+    duplicate_rows INTEGER DEFAULT 0,
+    inserted_rows INTEGER DEFAULT 0,
+    error_message TEXT,
+    heartbeat_at TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    owner_id BIGINT REFERENCES users(id),
+    org_unit_id BIGINT REFERENCES org_units(id),
+    created_by BIGINT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_lead_import_jobs_status ON lead_import_jobs(status);
+
+-- Staging rows loaded with COPY; kept after completion for the error report
+CREATE TABLE lead_import_staging (
+    job_id BIGINT NOT NULL REFERENCES lead_import_jobs(id) ON DELETE CASCADE,
+    row_no INTEGER NOT NULL,
+    customer_name VARCHAR(200),
+    contact_name VARCHAR(100),
+    mobile VARCHAR(20),
+    phone VARCHAR(20),
+    email VARCHAR(100),
+    region VARCHAR(100),
+    industry VARCHAR(50),
+    channel VARCHAR(50),
+    product_intent VARCHAR(200),
+    summary TEXT,
+    norm_customer_name VARCHAR(200),
+    status VARCHAR(20) NOT NULL, -- PENDING, INVALID, DUPLICATE, INSERTED
+    error VARCHAR(500),
+    lead_id BIGINT,
+    PRIMARY KEY (job_id, row_no)
+);
+
+CREATE INDEX idx_lead_import_staging_status ON lead_import_staging(job_id, status, row_no);
+
+-- Company-name key used by import dedupe; must match NormalizeUtils.companyKey
+-- for names stored by the import (already NFKC-normalized in Java)
+CREATE OR REPLACE FUNCTION lead_name_key(name TEXT) RETURNS TEXT AS $$
+    SELECT NULLIF(lower(regexp_replace(name, '[[:space:][:punct:]（）【】《》，。、；：“”‘’·]+', '', 'g')), '')
+$$ LANGUAGE SQL IMMUTABLE PARALLEL SAFE;
+
+CREATE INDEX idx_leads_name_key_region ON leads (lead_name_key(customer_name), region) WHERE deleted = FALSE;
+CREATE INDEX idx_leads_email_lower ON leads (lower(email)) WHERE deleted = FALSE;
@@ -0,0 +1,9 @@
+-- =============================================
+-- Duplicate Index Sync
+-- Version: 9.0.0
+-- =============================================
+
+-- The in-memory duplicate index polls recently changed rows every few seconds
+CREATE INDEX idx_leads_updated_at ON leads(updated_at);
+CREATE INDEX idx_contacts_updated_at ON contacts(updated_at);
+CREATE INDEX idx_customers_updated_at ON customers(updated_at);
@@ -0,0 +1,140 @@
+package com.denwon.crm.module.duplicate.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LongListMap测试：负数值、扩容、删除和溢出列表复用
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+class LongListMapTest {
+
+    private static final long REF = (1L << 56) | 42;
+
+    @Test
+    void negativeValuesAreStoredInline() {
+        LongListMap map = new LongListMap(16);
+
+        map.add(REF, -1234567890123L);
+
+        assertThat(map.get(REF)).containsExactly(-1234567890123L);
+    }
+
+    @Test
+    void negativeValuesAreStoredInOverflowLists() {
+        LongListMap map = new LongListMap(16);
+
+        map.add(REF, -1234567890123L);
+        map.add(REF, Long.MIN_VALUE);
+        map.add(REF, 7L);
+        map.add(REF, Long.MIN_VALUE);
+
+        assertThat(map.get(REF)).containsExactly(-1234567890123L, Long.MIN_VALUE, 7L);
+        assertThat(map.removeAll(REF)).containsExactly(-1234567890123L, Long.MIN_VALUE, 7L);
+        assertThat(map.get(REF)).isEmpty();
+        assertThat(map.size()).isZero();
+    }
+
+    @Test
+    void growthKeepsSingleAndListValues() {
+        LongListMap map = new LongListMap(16);
+
+        for (long key = 1; key <= 10_000; key++) {
+            map.add(key, -key);
+            if (key % 3 == 0) {
+                map.add(key, key);
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(10_000);
+        for (long key = 1; key <= 10_000; key++) {
+            if (key % 3 == 0) {
+                assertThat(map.get(key)).containsExactly(-key, key);
+            } else {
+                assertThat(map.get(key)).containsExactly(-key);
+            }
+        }
+    }
+
+    @Test
+    void removeCollapsesListBackToSingleValue() {
+        LongListMap map = new LongListMap(16);
+        map.add(REF, -1L);
+        map.add(REF, -2L);
+
+        map.remove(REF, -1L);
+        assertThat(map.get(REF)).containsExactly(-2L);
+
+        map.remove(REF, -3L);
+        assertThat(map.get(REF)).containsExactly(-2L);
+
+        map.remove(REF, -2L);
+        assertThat(map.get(REF)).isEmpty();
+        assertThat(map.size()).isZero();
+    }
+
+    @Test
+    void removeFromLongerListKeepsOtherValues() {
+        LongListMap map = new LongListMap(16);
+        map.add(REF, -1L);
+        map.add(REF, -2L);
+        map.add(REF, -3L);
+
+        map.remove(REF, -2L);
+
+        assertThat(map.get(REF)).containsExactly(-1L, -3L);
+    }
+
+    @Test
+    void deleteShiftsProbeChainIncludingLists() {
+        LongListMap map = new LongListMap(16);
+        for (long key = 1; key <= 12; key++) {
+            map.add(key, -key);
+            map.add(key, key * 100);
+        }
+
+        for (long key = 1; key <= 12; key += 2) {
+            assertThat(map.removeAll(key)).containsExactly(-key, key * 100);
+        }
+
+        for (long key = 2; key <= 12; key += 2) {
+            assertThat(map.get(key)).containsExactly(-key, key * 100);
+        }
+        assertThat(map.get(1)).isEmpty();
+    }
+
+    @Test
+    void freedListsAreReused() {
+        LongListMap map = new LongListMap(16);
+        map.add(1L, -10L);
+        map.add(1L, -11L);
+        map.add(2L, -20L);
+        map.add(2L, -21L);
+
+        map.removeAll(1L);
+        map.add(3L, -30L);
+        map.add(3L, -31L);
+        map.remove(2L, -21L);
+        map.add(4L, -40L);
+        map.add(4L, -41L);
+
+        assertThat(map.get(1L)).isEmpty();
+        assertThat(map.get(2L)).containsExactly(-20L);
+        assertThat(map.get(3L)).containsExactly(-30L, -31L);
+        assertThat(map.get(4L)).containsExactly(-40L, -41L);
+    }
+
+    @Test
+    void getReturnsCopy() {
+        LongListMap map = new LongListMap(16);
+        map.add(REF, -1L);
+        map.add(REF, -2L);
+
+        map.get(REF)[0] = 99L;
+
+        assertThat(map.get(REF)).containsExactly(-1L, -2L);
+    }
+}
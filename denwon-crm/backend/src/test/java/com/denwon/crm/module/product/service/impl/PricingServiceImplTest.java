@@ -0,0 +1,97 @@
+package com.denwon.crm.module.product.service.impl;
+
+import com.denwon.crm.module.product.dto.PriceQuoteLineDTO;
+import com.denwon.crm.module.product.dto.PriceQuoteLineRequest;
+import com.denwon.crm.module.product.dto.PriceQuoteRequest;
+import com.denwon.crm.module.product.repository.PricingJdbcRepository;
+import com.denwon.crm.module.product.repository.PricingJdbcRepository.PolicyRow;
+import com.denwon.crm.module.product.repository.PricingJdbcRepository.ProductRow;
+import com.denwon.crm.module.product.repository.PricingJdbcRepository.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 取价服务测试：折扣率、税率按百分数换算
+ *
+ * @author Denwon Team
+ * @since 1.0.0
+ */
+class PricingServiceImplTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private PricingJdbcRepository repository;
+
+    private PricingServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PricingJdbcRepository.class);
+        when(repository.signature()).thenReturn(new Signature("0:", null, "0:"));
+        when(repository.loadCategoryParents()).thenReturn(Map.of());
+        service = new PricingServiceImpl(repository);
+    }
+
+    @Test
+    void onePercentTaxRateIsOnePercent() {
+        when(repository.findIndexed()).thenReturn(List.of());
+        when(repository.findProducts(any())).thenReturn(Map.of(1L, product(new BigDecimal("1.00"))));
+
+        PriceQuoteLineDTO line = quoteOne();
+
+        assertThat(line.getPolicyId()).isNull();
+        assertThat(line.getUnitPriceExTax()).isEqualByComparingTo("200");
+        assertThat(line.getSubtotalExTax()).isEqualByComparingTo("400");
+        assertThat(line.getTaxAmount()).isEqualByComparingTo("4");
+        assertThat(line.getSubtotalIncTax()).isEqualByComparingTo("404");
+    }
+
+    @Test
+    void onePercentDiscountRateIsOnePercentOfStandardPrice() {
+        when(repository.findIndexed()).thenReturn(List.of(policy(new BigDecimal("1.00"))));
+        when(repository.findProducts(any())).thenReturn(Map.of(1L, product(new BigDecimal("13.00"))));
+
+        PriceQuoteLineDTO line = quoteOne();
+
+        assertThat(line.getPolicyId()).isEqualTo(10L);
+        assertThat(line.getUnitPriceExTax()).isEqualByComparingTo("2");
+        assertThat(line.getTaxAmount()).isEqualByComparingTo("0.52");
+    }
+
+    @Test
+    void halfPercentDiscountRateIsNotFiftyPercent() {
+        when(repository.findIndexed()).thenReturn(List.of(policy(new BigDecimal("0.50"))));
+        when(repository.findProducts(any())).thenReturn(Map.of(1L, product(null)));
+
+        assertThat(quoteOne().getUnitPriceExTax()).isEqualByComparingTo("1");
+    }
+
+    private PriceQuoteLineDTO quoteOne() {
+        PriceQuoteLineRequest line = new PriceQuoteLineRequest();
+        line.setProductId(1L);
+        line.setQuantity(new BigDecimal("2"));
+        PriceQuoteRequest request = new PriceQuoteRequest();
+        request.setPricingTime(FROM.plusDays(1));
+        request.setLines(List.of(line));
+        return service.quote(request).getLines().get(0);
+    }
+
+    private static ProductRow product(BigDecimal taxRate) {
+        return new ProductRow(1L, "P001", "测试产品", 0L, new BigDecimal("200.0000"), null, taxRate);
+    }
+
+    private static PolicyRow policy(BigDecimal discountRate) {
+        return new PolicyRow(10L, "PP010", "STANDARD", 0, 0L, 0L, 1L, 0L, null, discountRate, null,
+            FROM, null, 1, FROM);
+    }
+}